@@ -1,8 +1,16 @@
 package zuul;
 
 import zuul.gameState.characters.Character;
+import zuul.gameState.characters.Player;
 import zuul.gameState.maps.Map;
 import zuul.gameState.maps.ZuulMap;
+import zuul.io.InputPump;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The World of Zuul game engine. This stores the state of the game and handles overall flow of game logic.
@@ -11,6 +19,7 @@ import zuul.gameState.maps.ZuulMap;
  * to create the game and start the game logic.
  * <p>
  * This class holds a static instance of itself that stores the {@link Map} (game state) and {@link Parser}.
+ * A {@link GameSession} holds its own instance, used in place of the static one on threads running the session.
  *
  * @author Michael Kolling and David J. Barnes
  * @author Timothy Shelton
@@ -35,6 +44,14 @@ public class Game {
      * Marker for if this Game should finish.
      */
     private Boolean finished = false;
+    /**
+     * The longest time each turn waits for players' input, or null if players wait for input on every turn.
+     */
+    private Duration inputDeadline;
+    /**
+     * The {@link System#nanoTime()} at which the current turn ends.
+     */
+    private long turnDeadline;
 
     /**
      * Creates the game and initialise its {@link Map} to the default {@link zuul.gameState.maps.ZuulMap} and {@link Parser}.
@@ -52,12 +69,18 @@ public class Game {
     }
 
     /**
-     * Gets the static instance of this class.
-     * An instance is created if it does not already exist.
+     * Gets the game of the {@link GameSession} running on the current thread,
+     * or the static instance of this class if there is none.
+     * The static instance is created if it does not already exist.
      *
-     * @return the static instance of Game, not null
+     * @return the game of the current session or the static instance of Game, not null
      */
     public static Game getInstance() {
+        GameSession session = GameSession.currentOrNull();
+        if (session != null) {
+            return session.getGame();
+        }
+
         //Create new instance of zuul.Game if one does not yet exist
         if (gameInstance == null) {
             gameInstance = new Game();
@@ -67,24 +90,69 @@ public class Game {
         return gameInstance;
     }
 
+    /**
+     * Sets the static instance of this class, returned by {@link #getInstance()} on threads not running a session.
+     * <p>
+     * This should be called before the {@link zuul.io.userInterfaces.UserInterface UserInterface} is initialised.
+     *
+     * @param game  the game to use as the static instance, not null
+     */
+    public static void setInstance(Game game) {
+        gameInstance = game;
+    }
+
     /**
      * Starts main game flow. Loops until {@link #finish()} is called.
      * <p>
      * Each loop every character in the {@link #map} is told to {@link Character#act()}.
+     * <p>
+     * If an input deadline is set, input for the player is read on its own thread and each loop
+     * lasts for the deadline, so the game advances at a steady rate whether or not the player enters a command.
      */
     public void play() {
-        GameInterface.get().update("game start");
+        GameInterface.update("game start");
         //start the game by printing the welcome message provided by the map
         map.printWelcome();
 
+        if (inputDeadline != null && map.getPlayer() instanceof Player) {
+            InputPump.start((Player) map.getPlayer());
+        }
+
         // Enter the main command loop.
         // Here we ask every character in the map to act until a player quits the game.
         while (!finished) {
-            GameInterface.get().update("game nextRound");
-            map.forEachCharacter(Character::act);
+            GameInterface.update("game nextRound");
+            if (inputDeadline != null) {
+                turnDeadline = System.nanoTime() + inputDeadline.toNanos();
+            }
+
+            map.actCharacters();
+
+            if (inputDeadline != null && !finished) {
+                waitForTurnDeadline();
+            }
         }
 
         zuul.io.Out.println(GameText.getString("goodBye"));
+        zuul.io.Out.flush();
+
+        close();
+    }
+
+    /**
+     * Releases the resources held by the {@link Map} of this Game, such as the dirty page store of a paged map.
+     * <p>
+     * This is called when {@link #play()} returns. A {@link zuul.io.userInterfaces.UserInterface UserInterface}
+     * that stops using a game without playing it to the end should call this itself.
+     */
+    public void close() {
+        if (map instanceof Closeable) {
+            try {
+                ((Closeable) map).close();
+            } catch (IOException e) {
+                //the map's files are temporary and deleted when the application exits
+            }
+        }
     }
 
     // Getters and setters for class fields.
@@ -98,6 +166,44 @@ public class Game {
         return parser;
     }
 
+    /**
+     * Sets the longest time each turn waits for players' input.
+     * <p>
+     * Must be set before {@link #play()} is called.
+     *
+     * @param inputDeadline  the length of each turn, or null for players to wait for input on every turn
+     * @throws IllegalArgumentException  if the deadline is not positive
+     */
+    public void setInputDeadline(Duration inputDeadline) {
+        if (inputDeadline != null && (inputDeadline.isNegative() || inputDeadline.isZero())) {
+            throw new IllegalArgumentException("The input deadline must be positive: " + inputDeadline);
+        }
+        this.inputDeadline = inputDeadline;
+    }
+
+    /**
+     * Gets the longest time each turn waits for players' input.
+     *
+     * @return an Optional containing the input deadline if one is set, empty if players wait for input on every turn
+     */
+    public Optional<Duration> getInputDeadline() {
+        return Optional.ofNullable(inputDeadline);
+    }
+
+    /**
+     * Sleeps until the deadline of the current turn so that every turn lasts the same time.
+     */
+    private void waitForTurnDeadline() {
+        long remaining = turnDeadline - System.nanoTime();
+        try {
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Sets the finished marker to true.
      * <p>
@@ -1,11 +1,13 @@
 package zuul;
 
+import zuul.io.Out;
 import zuul.io.userInterfaces.UserInterface;
 
 /**
  * The interface to be used for the "World of Zuul" application.
  * <p>
  * Enables static access to the active {@link UserInterface}.
+ * On a thread running a {@link GameSession} this is the user interface of that session.
  * For example: {@link zuul.io.userInterfaces.CommandLineInterface CommandLineInterface}
  *
  * @author Timothy Shelton
@@ -27,10 +29,30 @@ public class GameInterface {
 
     /**
      * Gets the currently active {@link UserInterface}.
+     * <p>
+     * This is the user interface of the {@link GameSession} running on the current thread if there is one,
+     * otherwise the user interface set for the application.
      *
      * @return the currently active user interface, not null
      */
     public static UserInterface get() {
+        GameSession session = GameSession.currentOrNull();
+        if (session != null) {
+            return session.getUserInterface();
+        }
         return userInterface;
     }
+
+    /**
+     * Flushes the output printed so far and tells the currently active {@link UserInterface} of an event.
+     * <p>
+     * Output is flushed first because the user interface may change how it prints when it is told of an event.
+     *
+     * @param event  a string that describes the event that immediately follows this update, not null
+     * @see UserInterface#update(String)
+     */
+    public static void update(String event) {
+        Out.flush();
+        get().update(event);
+    }
 }
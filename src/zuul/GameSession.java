@@ -0,0 +1,202 @@
+package zuul;
+
+import zuul.gameState.maps.Map;
+import zuul.gameState.maps.ZuulMap;
+import zuul.io.OutputBuffer;
+import zuul.io.userInterfaces.UserInterface;
+
+import java.text.Collator;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * One independent game of the "World of Zuul" application.
+ * <p>
+ * A session carries its own {@link Game}, and through it a {@link Map} and {@link Parser},
+ * together with the {@link UserInterface} of the user playing it.
+ * While a session is {@link #run running} on a thread, {@link Game#getInstance()} and {@link GameInterface#get()}
+ * return the session's game and user interface on that thread, so commands and characters use them
+ * without being changed. Threads without a session fall back to the application-wide game and user interface.
+ * <p>
+ * Many sessions can run at once, each on its own thread, without sharing any game state.
+ * Each session also has its own locale, taken from {@link GameText} when it is created, and a Collator of it,
+ * so sessions can be played in different languages and never contend for one Collator.
+ * The only application-wide settings read by sessions are the registry of immutable {@link zuul.gameState.ItemType}
+ * flyweights and how worlds are loaded, see {@link zuul.gameState.maps.MapFactory}.
+ *
+ * @author Timothy Shelton
+ */
+public class GameSession {
+
+    /**
+     * The session running on each thread, if any.
+     */
+    private static final ThreadLocal<GameSession> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The game of this session.
+     */
+    private final Game game;
+
+    /**
+     * The user interface of this session.
+     */
+    private final UserInterface userInterface;
+
+    /**
+     * The buffer of text printed in this session and not yet passed to its user interface.
+     */
+    private final OutputBuffer outputBuffer = new OutputBuffer();
+
+    /**
+     * The locale of this session, or null to use the default locale of the application.
+     */
+    private volatile Locale locale;
+
+    /**
+     * A Collator of the locale of this session, or null if this session has no locale.
+     */
+    private volatile Collator collator;
+
+    /**
+     * Constructor for a session of the default {@link ZuulMap}.
+     *
+     * @param userInterface  the user interface of the user playing this session, not null
+     */
+    public GameSession(UserInterface userInterface) {
+        this(new ZuulMap(), userInterface);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param map  the map to be played in this session, not shared with any other session, not null
+     * @param userInterface  the user interface of the user playing this session, not null
+     */
+    public GameSession(Map map, UserInterface userInterface) {
+        this.game = new Game(map);
+        this.userInterface = userInterface;
+        setLocale(GameText.getLocale());
+    }
+
+    /**
+     * Gets the session running on the current thread.
+     *
+     * @return an Optional containing the current session, empty if the thread is not running a session
+     */
+    public static Optional<GameSession> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Gets the session running on the current thread without wrapping it, for code run on every line printed.
+     *
+     * @return the current session, or null if the thread is not running a session
+     */
+    public static GameSession currentOrNull() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs a task on the current thread with this as the current session.
+     * <p>
+     * The session that was current before, if any, is restored when the task finishes.
+     *
+     * @param task  the task to run in this session, not null
+     */
+    public void run(Runnable task) {
+        GameSession previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Plays the game of this session on the current thread until it finishes.
+     *
+     * @see Game#play()
+     */
+    public void play() {
+        run(game::play);
+    }
+
+    /**
+     * Gets the game of this session.
+     *
+     * @return the game of this session, not null
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the map played in this session.
+     *
+     * @return the map of this session's game, not null
+     */
+    public Map getMap() {
+        return game.getState();
+    }
+
+    /**
+     * Gets the parser of this session.
+     *
+     * @return the parser of this session's game, not null
+     */
+    public Parser getParser() {
+        return game.getParser();
+    }
+
+    /**
+     * Gets the user interface of this session.
+     *
+     * @return the user interface of the user playing this session, not null
+     */
+    public UserInterface getUserInterface() {
+        return userInterface;
+    }
+
+    /**
+     * Sets the locale of this session, used for the text of this session without affecting any other.
+     *
+     * @param locale  the locale of this session, or null to use the default locale of the application
+     */
+    public void setLocale(Locale locale) {
+        this.collator = locale == null ? null : Collator.getInstance(locale);
+        this.locale = locale;
+    }
+
+    /**
+     * Gets the locale of this session.
+     *
+     * @return the locale of this session, or null if it uses the default locale of the application
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Gets the Collator of the locale of this session.
+     *
+     * @return a Collator of this session's locale, or null if it uses the default locale of the application
+     */
+    public Collator getCollator() {
+        return collator;
+    }
+
+    /**
+     * Gets the buffer of text printed in this session and not yet passed to its user interface.
+     *
+     * @return the output buffer of this session, not null
+     */
+    public OutputBuffer getOutputBuffer() {
+        return outputBuffer;
+    }
+}
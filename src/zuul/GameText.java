@@ -9,7 +9,11 @@ import java.util.Set;
 /**
  * A helper class representing the locale of the "World of Zuul" application.
  * <p>
- * This class stores the locale for the running instance of the application.
+ * This class stores the default locale of the running instance of the application.
+ * Each {@link GameSession} takes its own copy of the locale, and a Collator of it, when it is created,
+ * so text is looked up in the locale of the session running on the current thread, or in the default locale
+ * on threads without a session. Sessions can change their locale with {@link GameSession#setLocale}
+ * without affecting each other.
  * Handles retrieval and formatting of locale-dependent text from resource bundles.
  * Handles retrieval of locale-independent command words for the application.
  * <p>
@@ -21,19 +25,14 @@ import java.util.Set;
 public class GameText {
 
     /**
-     * The locale of the application.
+     * The default locale of the application.
      */
-    private static Locale locale;
+    private static volatile Locale locale;
 
     /**
-     * A Collator of this locale.
+     * A Collator of the default locale, for threads without a session.
      */
-    private static Collator localeCollator;
-
-    /**
-     * A formatter to be used to format locale-dependent text.
-     */
-    private static MessageFormat formatter = new MessageFormat("");
+    private static volatile Collator localeCollator;
 
     /**
      * The package directory of resource bundles for this application.
@@ -41,14 +40,26 @@ public class GameText {
     private static final String BUNDLE_DIR = "zuul.resourceBundles.";
 
     /**
-     * Sets the locale of this application.
+     * Sets the default locale of this application.
+     * <p>
+     * Sessions that have already been created keep their own locale.
      *
      * @param localeToSet  the locale to set this application to, not null
      */
     public static void setLocale(Locale localeToSet) {
+        localeCollator = Collator.getInstance(localeToSet); //locale specific collator for string comparison
         locale = localeToSet;
-        localeCollator = Collator.getInstance(locale); //locale specific collator for string comparison
-        formatter.setLocale(locale); //set the formatter to the application locale
+    }
+
+    /**
+     * Gets the locale of the {@link GameSession} running on the current thread,
+     * or the default locale of this application if there is none.
+     *
+     * @return the current locale, null if no locale has been set
+     */
+    public static Locale getLocale() {
+        GameSession session = GameSession.currentOrNull();
+        return session != null && session.getLocale() != null ? session.getLocale() : locale;
     }
 
     /**
@@ -77,8 +88,6 @@ public class GameText {
      * @throws java.util.MissingResourceException  if no String for the given key can be found
      */
     public static String getString(String key, Object[] arguments) {
-//        formatter.applyPattern(GameText.getString(key));
-//        return formatter.format(arguments);
         return GameText.getString("GameTextBundle", key, arguments);
     }
 
@@ -93,7 +102,7 @@ public class GameText {
      * @throws java.util.MissingResourceException  if no String for the given key can be found
      */
     public static String getString(String bundle, String key) {
-        return ResourceBundle.getBundle(BUNDLE_DIR +bundle, locale).getString(key);
+        return ResourceBundle.getBundle(BUNDLE_DIR +bundle, getLocale()).getString(key);
     }
 
     /**
@@ -109,8 +118,8 @@ public class GameText {
      * @throws java.util.MissingResourceException  if no String for the given key can be found
      */
     public static String getString(String bundle, String key, Object[] arguments) {
-        formatter.applyPattern(GameText.getString(bundle, key));
-        return formatter.format(arguments);
+        //a new formatter for each call so that text can be formatted by many game sessions at once
+        return new MessageFormat(GameText.getString(bundle, key), getLocale()).format(arguments);
     }
 
     /**
@@ -119,15 +128,19 @@ public class GameText {
      * @return the set of locale-independent command words from the CommandWords resource bundle for the current locale, not null
      */
     public static Set<String> getCommandWords() {
-        return ResourceBundle.getBundle("zuul.resourceBundles.CommandWordsBundle", locale).keySet();
+        return ResourceBundle.getBundle("zuul.resourceBundles.CommandWordsBundle", getLocale()).keySet();
     }
 
     /**
      * Gets the locale-specific Collator for sorting locale-dependent Strings.
+     * <p>
+     * This is the Collator of the {@link GameSession} running on the current thread if there is one,
+     * so sessions do not contend for one Collator.
      *
-     * @return the locale-specific Collator for the current locale, not null
+     * @return the locale-specific Collator for the current locale, not null once a locale has been set
      */
     public static Collator getCollator() {
-        return GameText.localeCollator;
+        GameSession session = GameSession.currentOrNull();
+        return session != null && session.getCollator() != null ? session.getCollator() : localeCollator;
     }
 }
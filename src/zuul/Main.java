@@ -1,11 +1,20 @@
 package zuul;
 
+import zuul.gameState.maps.CompiledWorld;
+import zuul.gameState.maps.Map;
+import zuul.gameState.maps.MapFactory;
+import zuul.gameState.maps.NpcPopulation;
+import zuul.gameState.maps.NpcTickScheduler;
 import zuul.io.userInterfaces.CommandLineInterface;
 
+import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Handles setting the locale and {@link zuul.io.userInterfaces.UserInterface UserInterface}
@@ -57,6 +66,55 @@ public class Main{
      */
     private static String interfaceName = DEFAULT_INTERFACE;
 
+    //Input deadline class variables
+    /**
+     * The program argument that signifies the length of each turn in milliseconds follows.
+     * <p></p>
+     * The number of milliseconds must immediately follow this argument.
+     * If it is not given, players wait for input on every turn.
+     */
+    private static final String INPUT_DEADLINE_KEY_WORD = "inputDeadline";
+
+    //World class variables
+    /**
+     * The program argument that signifies the number of rooms held on the heap by paged worlds follows.
+     * <p></p>
+     * The number of rooms must immediately follow this argument.
+     * If it is given, worlds loaded from files are paged so that worlds larger than the heap can be played.
+     */
+    private static final String PAGED_CACHE_KEY_WORD = "pagedCache";
+    /**
+     * The program argument that signifies the world description file to play follows.
+     * <p></p>
+     * The file name must immediately follow this argument.
+     * If it is not given, the default world is played.
+     */
+    private static final String WORLD_KEY_WORD = "world";
+    /**
+     * The program argument that signifies a world description file to compile follows.
+     * <p></p>
+     * The file name must immediately follow this argument.
+     * If it is given, the world is compiled to a file of the same name with extension
+     * {@value zuul.gameState.maps.CompiledWorld#EXTENSION} and no game is played.
+     */
+    private static final String COMPILE_KEY_WORD = "compile";
+
+    //NPC class variables
+    /**
+     * The program argument that signifies the number of NPCs to add to the world follows.
+     * <p></p>
+     * The number of NPCs must immediately follow this argument.
+     * If it is given, that many wandering NPCs are added to the default starting room of the world played.
+     * Populations of at least {@value zuul.gameState.maps.NpcTickScheduler#PARALLEL_THRESHOLD} NPCs
+     * plan their turns in parallel.
+     */
+    private static final String NPCS_KEY_WORD = "npcs";
+    /**
+     * The start of the name of each NPC added by the {@value NPCS_KEY_WORD} argument,
+     * followed by the NPC's number from 0.
+     */
+    private static final String NPC_NAME_PREFIX = "npc";
+
     /**
      * Sets the locale for the game in {@link GameText}.
      * <p>
@@ -127,6 +185,181 @@ public class Main{
         return argsList.toArray(new String[0]);
     }
 
+    /**
+     * Sets the input deadline of the {@link Game} from program arguments if one is specified.
+     * <p>
+     * A value that is not a positive number of milliseconds is reported and players are waited for on every turn.
+     * <p></p>
+     * @param args  the program arguments
+     * @return  the program arguments with input deadline information removed if it existed
+     */
+    private static String[] setInputDeadline(String[] args) {
+        //convert args to List<String> for easier manipulation
+        List<String> argsList = new ArrayList<String>(Arrays.asList(args));
+
+        if (argsList.contains(INPUT_DEADLINE_KEY_WORD) && (argsList.indexOf(INPUT_DEADLINE_KEY_WORD) + 1 < argsList.size())) {
+            //'inputDeadline' argument exists and at least 1 more argument exists
+            //So get the argument following 'inputDeadline' and remove both entries from the list
+            int index = argsList.indexOf(INPUT_DEADLINE_KEY_WORD);
+            String millis = argsList.remove(index + 1);
+            argsList.remove(index);
+
+            try {
+                Game.getInstance().setInputDeadline(Duration.ofMillis(Long.parseLong(millis)));
+            } catch (IllegalArgumentException e) {
+                //not a positive number of milliseconds so leave players waiting for input on every turn
+                System.err.println(GameText.getString("invalidArgumentError", new Object[]{INPUT_DEADLINE_KEY_WORD, millis}));
+            }
+        }
+
+        //return the args without input deadline information
+        return argsList.toArray(new String[0]);
+    }
+
+    /**
+     * Sets the number of rooms held on the heap by paged worlds from program arguments if one is specified.
+     * <p>
+     * A value that is not a positive number of rooms is reported and worlds are loaded whole.
+     * <p></p>
+     * @param args  the program arguments
+     * @return  the program arguments with paged cache information removed if it existed
+     */
+    private static String[] setPagedCache(String[] args) {
+        //convert args to List<String> for easier manipulation
+        List<String> argsList = new ArrayList<String>(Arrays.asList(args));
+
+        if (argsList.contains(PAGED_CACHE_KEY_WORD) && (argsList.indexOf(PAGED_CACHE_KEY_WORD) + 1 < argsList.size())) {
+            //'pagedCache' argument exists and at least 1 more argument exists
+            //So get the argument following 'pagedCache' and remove both entries from the list
+            int index = argsList.indexOf(PAGED_CACHE_KEY_WORD);
+            String rooms = argsList.remove(index + 1);
+            argsList.remove(index);
+
+            try {
+                int cacheSize = Integer.parseInt(rooms);
+                if (cacheSize < 1) {
+                    throw new NumberFormatException(rooms);
+                }
+                MapFactory.setPagedCacheSize(cacheSize);
+            } catch (NumberFormatException e) {
+                System.err.println(GameText.getString("invalidArgumentError", new Object[]{PAGED_CACHE_KEY_WORD, rooms}));
+            }
+        }
+
+        //return the args without paged cache information
+        return argsList.toArray(new String[0]);
+    }
+
+    /**
+     * Sets the world played by the {@link Game} from program arguments if a world description file is specified.
+     * <p>
+     * A world that cannot be loaded is reported and the default world is played.
+     * <p></p>
+     * @param args  the program arguments
+     * @return  the program arguments with world information removed if it existed
+     */
+    private static String[] setWorld(String[] args) {
+        //convert args to List<String> for easier manipulation
+        List<String> argsList = new ArrayList<String>(Arrays.asList(args));
+
+        if (argsList.contains(WORLD_KEY_WORD) && (argsList.indexOf(WORLD_KEY_WORD) + 1 < argsList.size())) {
+            //'world' argument exists and at least 1 more argument exists
+            //So get the argument following 'world' and remove both entries from the list
+            int index = argsList.indexOf(WORLD_KEY_WORD);
+            String fileName = argsList.remove(index + 1);
+            argsList.remove(index);
+
+            Optional<Map> map = MapFactory.createFromFile(new File(fileName));
+            if (map.isPresent()) {
+                Game.setInstance(new Game(map.get()));
+            } else {
+                System.err.println(GameText.getString("worldLoadError", new Object[]{fileName}));
+            }
+        }
+
+        //return the args without world information
+        return argsList.toArray(new String[0]);
+    }
+
+    /**
+     * Adds the number of NPCs given in program arguments to the world played, if a number is specified.
+     * <p>
+     * The NPCs are added to the {@link zuul.gameState.maps.NpcPopulation NpcPopulation} of the world
+     * in its default starting room, and wander between rooms on each turn.
+     * Large populations are run by a {@link NpcTickScheduler} so that every NPC plans its move in parallel.
+     * A value that is not a number of NPCs is reported and no NPCs are added.
+     * <p></p>
+     * @param args  the program arguments
+     * @return  the program arguments with NPC information removed if it existed
+     */
+    private static String[] setNpcs(String[] args) {
+        //convert args to List<String> for easier manipulation
+        List<String> argsList = new ArrayList<String>(Arrays.asList(args));
+
+        if (argsList.contains(NPCS_KEY_WORD) && (argsList.indexOf(NPCS_KEY_WORD) + 1 < argsList.size())) {
+            //'npcs' argument exists and at least 1 more argument exists
+            //So get the argument following 'npcs' and remove both entries from the list
+            int index = argsList.indexOf(NPCS_KEY_WORD);
+            String npcs = argsList.remove(index + 1);
+            argsList.remove(index);
+
+            int count;
+            try {
+                count = Integer.parseInt(npcs);
+                if (count < 0) {
+                    throw new NumberFormatException(npcs);
+                }
+            } catch (NumberFormatException e) {
+                System.err.println(GameText.getString("invalidArgumentError", new Object[]{NPCS_KEY_WORD, npcs}));
+                return argsList.toArray(new String[0]);
+            }
+
+            Map map = Game.getInstance().getState();
+            map.getDefaultStartingRoom().ifPresent(room -> {
+                NpcPopulation population = map.getNpcPopulation();
+                population.setBehaviour(NpcPopulation.WANDER);
+                population.spawn(NPC_NAME_PREFIX, count, room);
+
+                //large populations plan in parallel, which is only worth its overhead above the threshold
+                if (count >= NpcTickScheduler.PARALLEL_THRESHOLD) {
+                    NpcTickScheduler scheduler = new NpcTickScheduler(population, ThreadLocalRandom.current().nextLong());
+                    scheduler.setPlanner(NpcTickScheduler.WANDER);
+                    population.setScheduler(scheduler);
+                }
+            });
+        }
+
+        //return the args without NPC information
+        return argsList.toArray(new String[0]);
+    }
+
+    /**
+     * Compiles the world description file given in program arguments if one is specified.
+     * <p>
+     * Whether the world was compiled is reported.
+     * <p></p>
+     * @param args  the program arguments
+     * @return  true if a world was to be compiled, false otherwise
+     */
+    private static boolean compileWorld(String[] args) {
+        List<String> argsList = Arrays.asList(args);
+
+        if (!argsList.contains(COMPILE_KEY_WORD) || argsList.indexOf(COMPILE_KEY_WORD) + 1 >= argsList.size()) {
+            return false;
+        }
+
+        File source = new File(argsList.get(argsList.indexOf(COMPILE_KEY_WORD) + 1));
+        File target = CompiledWorld.getDefaultTarget(source);
+
+        if (MapFactory.compile(source, target)) {
+            System.out.println(GameText.getString("worldCompiled", new Object[]{source, target}));
+        } else {
+            System.err.println(GameText.getString("worldCompileError", new Object[]{source}));
+        }
+
+        return true;
+    }
+
     /**
      * Sets the locale from program arguments and initialises the {@link zuul.io.userInterfaces.UserInterface UserInterface}.
      *
@@ -137,9 +370,24 @@ public class Main{
         //Set the locale for the game.
         args = setLocale(args);
 
+        //Compile a world instead of playing if asked to
+        if (compileWorld(args)) {
+            return;
+        }
+
         //Set the user interface
         args = setUserInterface(args);
 
+        //Set whether worlds are paged and the world to play
+        args = setPagedCache(args);
+        args = setWorld(args);
+
+        //Add NPCs to the world
+        args = setNpcs(args);
+
+        //Set how long each turn waits for input
+        args = setInputDeadline(args);
+
         //Initialise the UserInterface to be used for the Game.
         try {
             Class.forName("zuul.io.userInterfaces." + interfaceName + "Interface").getMethod("main",String[].class).invoke(null, (Object) args);
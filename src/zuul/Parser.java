@@ -44,13 +44,36 @@ public class Parser
      */
     public Command getCommand(String caller)
     {
-        String commandWord = null; //Initialise command word to null so "no input" will result in a null command.
-        ArrayList<String> modifiers = new ArrayList<>();
-
         Out.print(caller + " > ");     // print prompt
 
         String inputLine = zuul.io.In.nextLine();
 
+        // Try to create a command from the line of input
+        Optional<Command> command = parse(inputLine);
+
+        if (command.isPresent()) {
+            //If a command was successfully instantiated then return it
+            return command.get();
+        } else {
+            //Could not instantiated a command from user input so try again
+            reportUnrecognisedCommand();
+            return getCommand(caller);
+        }
+    }
+
+    /**
+     * Tries to interpret a line of input as a {@link Command}.
+     * <p>
+     * The first word of the line is the command word and every following word is a modifier.
+     * The returned Command may not contain all required modifiers to successfully {@link Command#execute execute}.
+     *
+     * @param inputLine  the line of input to interpret, not null
+     * @return an Optional containing the Command if one could be instantiated from the input, empty otherwise
+     */
+    public Optional<Command> parse(String inputLine) {
+        String commandWord = null; //Initialise command word to null so "no input" will result in a null command.
+        ArrayList<String> modifiers = new ArrayList<>();
+
         Scanner tokenizer = new Scanner(inputLine);
 
         // Find commandWord
@@ -66,17 +89,15 @@ public class Parser
         tokenizer.close();  // Scanner cleanup
 
         // Try to create a command using the command word and modifiers
-        Optional<Command> command = commandFactory.getCommand(commandWord, modifiers);
+        return commandFactory.getCommand(commandWord, modifiers);
+    }
 
-        if (command.isPresent()) {
-            //If a command was successfully instantiated then return it
-            return command.get();
-        } else {
-            //Could not instantiated a command from user input so try again
-            GameInterface.get().update("parser error"); //update interface
-            Out.println(GameText.getString("unrecognisedCommandError")); //error message
-            return getCommand(caller);
-        }
+    /**
+     * Tells the player that their input could not be interpreted as a {@link Command}.
+     */
+    public void reportUnrecognisedCommand() {
+        GameInterface.update("parser error"); //update interface
+        Out.println(GameText.getString("unrecognisedCommandError")); //error message
     }
 
     /**
@@ -0,0 +1,218 @@
+package zuul;
+
+import zuul.gameState.Room;
+import zuul.io.userInterfaces.UserInterface;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Measures how many idle {@link GameSession GameSessions} one process can hold, and how quickly they respond,
+ * for the "World of Zuul" application.
+ * <p>
+ * Usage: {@code java zuul.SessionBenchmark [sessions] [commands] [mode...]}
+ * <p>
+ * For each mode ({@code VIRTUAL} and/or {@code PLATFORM}, by default every mode available) the benchmark
+ * starts the given number of sessions (default 10000) on a {@link SessionRunner} and waits until every session
+ * is blocked waiting for input. It then reports the memory used, sends the given number of commands
+ * (default 2000) to sessions in turn and reports the time from each command being entered until the session
+ * asks for its next input, along with how often the room text printed by the commands came from
+ * {@link Room#printInfo}'s cache, and finally quits every session.
+ *
+ * @author Timothy Shelton
+ */
+public class SessionBenchmark {
+
+    /**
+     * The command sent to sessions when measuring latency.
+     */
+    private static final String COMMAND = "look";
+
+    /**
+     * The command that ends a session.
+     */
+    private static final String QUIT = "quit";
+
+    /**
+     * A {@link UserInterface} fed from a queue, that counts the times input is asked for and discards output.
+     */
+    private static class QueuedInterface implements UserInterface {
+
+        /**
+         * The lines of input not yet read.
+         */
+        private final BlockingQueue<String> input = new LinkedBlockingQueue<>();
+
+        /**
+         * Released each time the session asks for a line of input.
+         */
+        private final Semaphore inputRequests = new Semaphore(0);
+
+        @Override
+        public void update(String event) {
+            //Do nothing, the benchmark does not react to events.
+        }
+
+        @Override
+        public void print(String str) {
+            //Do nothing, output is discarded.
+        }
+
+        @Override
+        public void printNextln() {
+            //Do nothing, output is discarded.
+        }
+
+        @Override
+        public String getNextLine() {
+            inputRequests.release();
+            try {
+                return input.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return QUIT;
+            }
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args  the number of sessions, the number of commands and the modes to run, all optional
+     * @throws InterruptedException  if interrupted while waiting for sessions
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int commandCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        List<SessionRunner.Mode> modes = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            modes.add(SessionRunner.Mode.valueOf(args[i].toUpperCase(Locale.ROOT)));
+        }
+        if (modes.isEmpty()) {
+            modes.addAll(Arrays.asList(SessionRunner.Mode.values()));
+        }
+
+        GameText.setLocale(new Locale("en", "GB"));
+
+        for (SessionRunner.Mode mode : modes) {
+            if (mode == SessionRunner.Mode.VIRTUAL && !SessionRunner.isVirtualThreadsAvailable()) {
+                System.out.println(mode + ": virtual threads are not available in Java "
+                        + System.getProperty("java.version"));
+                continue;
+            }
+            run(mode, sessionCount, commandCount);
+        }
+    }
+
+    /**
+     * Runs the benchmark for one kind of thread and prints the results.
+     *
+     * @param mode  the kind of thread to play sessions on, not null
+     * @param sessionCount  the number of sessions to start
+     * @param commandCount  the number of commands to time
+     * @throws InterruptedException  if interrupted while waiting for sessions
+     */
+    private static void run(SessionRunner.Mode mode, int sessionCount, int commandCount) throws InterruptedException {
+        long heapBefore = usedHeap();
+        long rssBefore = residentSetSize();
+        long startTime = System.nanoTime();
+
+        QueuedInterface[] interfaces = new QueuedInterface[sessionCount];
+        SessionRunner runner = new SessionRunner(mode);
+        for (int i = 0; i < sessionCount; i++) {
+            interfaces[i] = new QueuedInterface();
+            runner.start(new GameSession(interfaces[i]));
+        }
+
+        //wait for every session to be idle, waiting for its first command
+        for (QueuedInterface userInterface : interfaces) {
+            userInterface.inputRequests.acquire();
+        }
+        long startupNanos = System.nanoTime() - startTime;
+
+        long heapUsed = usedHeap() - heapBefore;
+        long rssUsed = residentSetSize() - rssBefore;
+
+        long renderHitsBefore = Room.getRenderCacheHits();
+        long renderMissesBefore = Room.getRenderCacheMisses();
+        long[] latencies = new long[commandCount];
+        for (int i = 0; i < commandCount; i++) {
+            QueuedInterface userInterface = interfaces[i % sessionCount];
+            long sent = System.nanoTime();
+            userInterface.input.add(COMMAND);
+            userInterface.inputRequests.acquire();
+            latencies[i] = System.nanoTime() - sent;
+        }
+        Arrays.sort(latencies);
+        long renderHits = Room.getRenderCacheHits() - renderHitsBefore;
+        long renderMisses = Room.getRenderCacheMisses() - renderMissesBefore;
+
+        for (QueuedInterface userInterface : interfaces) {
+            userInterface.input.add(QUIT);
+        }
+        runner.close();
+
+        System.out.printf("%s: %d idle sessions started in %d ms, heap %.1f MB (%.1f KB/session), RSS %s%n",
+                mode, sessionCount, startupNanos / 1_000_000,
+                heapUsed / 1e6, heapUsed / 1e3 / sessionCount,
+                rssBefore < 0 ? "n/a" : String.format("%.1f MB", rssUsed / 1e6));
+        if (commandCount > 0) {
+            System.out.printf("%s: %d commands, latency p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                    mode, commandCount, percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3,
+                    latencies[commandCount - 1] / 1e3);
+            System.out.printf("%s: room text rendered %d times and printed from the cache %d times%n",
+                    mode, renderMisses, renderHits);
+        }
+    }
+
+    /**
+     * Gets the value at the specified fraction of a sorted array.
+     *
+     * @param sorted  the sorted values, not empty
+     * @param fraction  the fraction of the way through the values, between 0 and 1
+     * @return the value at the fraction
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+
+    /**
+     * Gets the heap in use after a garbage collection.
+     *
+     * @return the bytes of heap in use
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Gets the resident set size of this process, which includes thread stacks outside the heap.
+     *
+     * @return the bytes of memory resident, or -1 if it cannot be read on this platform
+     */
+    private static long residentSetSize() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            //not available on this platform
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,180 @@
+package zuul;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many {@link GameSession GameSessions} at once for the "World of Zuul" application.
+ * <p>
+ * Each session plays on a thread of its own, so a session waiting for its user's input
+ * does not hold up any other session.
+ * Where the Java runtime provides virtual threads each session is given one, so waiting for input only parks
+ * the session and thousands of mostly idle sessions are cheap to keep.
+ * Otherwise each session is given a platform thread.
+ *
+ * @author Timothy Shelton
+ */
+public class SessionRunner implements AutoCloseable {
+
+    /**
+     * The kinds of thread a runner can play sessions on.
+     */
+    public enum Mode {
+        /**
+         * A virtual thread for each session, only available on Java 21 and later.
+         */
+        VIRTUAL,
+        /**
+         * A platform thread for each session.
+         */
+        PLATFORM
+    }
+
+    /**
+     * The kind of thread sessions are played on.
+     */
+    private final Mode mode;
+
+    /**
+     * The executor sessions are played on.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The number of sessions started that have not yet finished.
+     */
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    /**
+     * Constructor for a runner that uses virtual threads if they are available and platform threads otherwise.
+     */
+    public SessionRunner() {
+        this(isVirtualThreadsAvailable() ? Mode.VIRTUAL : Mode.PLATFORM);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param mode  the kind of thread to play sessions on, not null
+     * @throws UnsupportedOperationException  if virtual threads are requested but not available
+     */
+    public SessionRunner(Mode mode) {
+        this.mode = mode;
+        this.executor = mode == Mode.VIRTUAL ? newVirtualThreadExecutor() : newPlatformThreadExecutor();
+    }
+
+    /**
+     * Indicates if the Java runtime provides virtual threads.
+     *
+     * @return true if sessions can be played on virtual threads, false otherwise
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Starts playing the specified session on a thread of its own.
+     *
+     * @param session  the session to play, not null
+     * @return a Future that completes when the session's game finishes
+     */
+    public Future<?> start(GameSession session) {
+        return start(session, () -> {});
+    }
+
+    /**
+     * Starts playing the specified session on a thread of its own, running a task on that thread once it finishes.
+     *
+     * @param session  the session to play, not null
+     * @param whenFinished  the task to run after the session's game finishes or fails, not null
+     * @return a Future that completes when the session's game and the task have finished
+     */
+    public Future<?> start(GameSession session, Runnable whenFinished) {
+        activeCount.incrementAndGet();
+        return executor.submit(() -> {
+            try {
+                session.play();
+            } finally {
+                activeCount.decrementAndGet();
+                whenFinished.run();
+            }
+        });
+    }
+
+    /**
+     * Gets the kind of thread sessions are played on.
+     *
+     * @return the mode of this runner, not null
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the number of sessions that have been started and have not yet finished.
+     *
+     * @return the number of active sessions
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Stops accepting sessions and waits for every started session to finish.
+     * <p>
+     * If the calling thread is interrupted while waiting it stops waiting and returns with its interrupt status set,
+     * leaving the started sessions to finish on their own.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                //keep waiting, sessions only finish when their players quit
+            }
+        } catch (InterruptedException e) {
+            //stop waiting but let the caller see that it was interrupted
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread for each task.
+     * <p>
+     * The executor is looked up reflectively so that this class also runs on Java versions without virtual threads.
+     *
+     * @return the executor, not null
+     * @throws UnsupportedOperationException  if virtual threads are not available
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads are not available in this Java runtime", e);
+        }
+    }
+
+    /**
+     * Creates an executor that starts a daemon platform thread for each task that is not given an idle one.
+     *
+     * @return the executor, not null
+     */
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = task -> {
+            Thread thread = new Thread(task, "zuul-session-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+}
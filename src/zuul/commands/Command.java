@@ -70,9 +70,9 @@ public abstract class Command
      * @return true if the command executed successfully, false otherwise
      */
     public boolean execute(Character character) {
-        GameInterface.get().update("command start " + COMMAND_WORD); //tell the interface that a command is starting
+        GameInterface.update("command start " + COMMAND_WORD); //tell the interface that a command is starting
         boolean result = commandLogic(character); //run the command logic
-        GameInterface.get().update("command end " + COMMAND_WORD); //tell the interface that a command has finished
+        GameInterface.update("command end " + COMMAND_WORD); //tell the interface that a command has finished
         return result;
     }
 
@@ -84,7 +84,7 @@ public abstract class Command
      * @param error  the specific error message, not null
      */
     protected void updateErr(String error) {
-        GameInterface.get().update("command error " + COMMAND_WORD + " " + error);
+        GameInterface.update("command error " + COMMAND_WORD + " " + error);
     }
 
     /**
@@ -111,6 +111,27 @@ public abstract class Command
         }
     }
 
+    /**
+     * Gets the quantity given by the modifier word in the specified index of {@link #MODIFIERS}.
+     * A quantity of one is used if there is no modifier word in that index.
+     *
+     * @param i  the index to check for a quantity modifier word
+     * @return an Optional containing the quantity if the modifier is absent or a positive whole number,
+     *          empty Optional otherwise
+     */
+    public Optional<Integer> getQuantityModifier(int i) {
+        if(!hasModifier(i)) {
+            return Optional.of(1);
+        }
+
+        try {
+            int quantity = Integer.parseInt(MODIFIERS.get(i));
+            return quantity > 0 ? Optional.of(quantity) : Optional.empty();
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Indicates if this command has at least one modifier word in {@link #MODIFIERS}.
      *
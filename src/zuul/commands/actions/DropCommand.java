@@ -12,10 +12,13 @@ import java.util.*;
  * A Drop {@link Command} for the "World of Zuul" application.
  * This command drops an {@link Item} from a {@link Character} {@link Inventory}.
  * <p>
- * This command takes a single modifier word:
+ * This command takes up to two modifier words:
  * <li>
  *     The name of the item to be dropped.
  * </li>
+ * <li>
+ *     The number of items to be dropped, optional. One item is dropped if not specified.
+ * </li>
  *
  * @author Timothy Shelton
  */
@@ -32,7 +35,7 @@ public class DropCommand extends Command {
 
     /**
      * Tries to drop the item whose name is specified as the first modifier word of this {@link Command}
-     * from the specified {@link Character}.
+     * from the specified {@link Character}, as many times as specified by the optional second modifier word.
      *
      * @param character the Character that is trying to drop an item
      * @return true if item is dropped successfully, false otherwise
@@ -52,23 +55,44 @@ public class DropCommand extends Command {
         //modifier exists so unwrap it
         String itemName = opItemName.get();
 
-        Optional<Item> opItem = character.getInventory().getItem(itemName);
+        Optional<Integer> opQuantity = getQuantityModifier(1);
+
+        if (opQuantity.isEmpty()) {
+            // the quantity is not a positive number
+            updateErr("invalidQuantity");
+            zuul.io.Out.println(GameText.getString("invalidQuantityError", new Object[]{getModifier(1).get()}));
+            return false;
+        }
+
+        int quantity = opQuantity.get();
 
-        if (opItem.isEmpty()) {
+        Item item = character.getInventory().getItemOrNull(itemName);
+
+        if (item == null) {
             //Item not held by character
             updateErr("itemNotHeld");
             zuul.io.Out.println(GameText.getString("dropItemNotHeldError", new Object[]{itemName}));
             return false;
         }
 
-        //Item found so unwrap Optional
-        Item item = opItem.get();;
+        int held = character.getInventory().getQuantity(item.getType());
 
-        character.getInventory().removeItem(item); //remove item from player
-        character.getCurrentRoom().getInventory().addItem(item); //add item to room
+        if (quantity > held) {
+            //Not enough of the item held by character
+            updateErr("notEnoughItems");
+            zuul.io.Out.println(GameText.getString("dropNotEnoughError", new Object[]{itemName, held}));
+            return false;
+        }
+
+        character.getInventory().removeItems(item, quantity); //remove items from player
+        character.getCurrentRoom().getInventory().addItems(item.getType(), quantity); //add items to room
 
         //tell the player the command was successful
-        zuul.io.Out.println(GameText.getString("dropSuccessful", new Object[]{item}));
+        if (quantity == 1) {
+            zuul.io.Out.println(GameText.getString("dropSuccessful", new Object[]{item}));
+        } else {
+            zuul.io.Out.println(GameText.getString("dropQuantitySuccessful", new Object[]{item, quantity}));
+        }
 
         return true;
     }
@@ -78,7 +102,7 @@ public class DropCommand extends Command {
         if(isValidForPlayer(map)) {
             java.util.Map<Integer, List<String>> possibleModifiers = new HashMap<>();
 
-            List<String> possibleItems = map.getPlayer().getInventory().getItemList();;
+            List<String> possibleItems = new ArrayList<>(map.getPlayer().getInventory().getItemNames());
 
             possibleModifiers.put(0, possibleItems);
 
@@ -89,6 +113,6 @@ public class DropCommand extends Command {
 
     @Override
     public boolean isValidForPlayer(zuul.gameState.maps.Map map) {
-        return !map.getPlayer().getInventory().getItemList().isEmpty();
+        return !map.getPlayer().getInventory().isEmpty();
     }
 }
@@ -13,13 +13,16 @@ import java.util.stream.Collectors;
  * A Give {@link Command} for the "World of Zuul" application.
  * This command gives an {@link Item} from a {@link Character} {@link Inventory} to another Character Inventory.
  * <p>
- * This command takes two modifier words:
+ * This command takes two or three modifier words:
  * <ul>
  *     <li>
- *         The name of the Item to be given, and
+ *         The name of the Item to be given,
  *     </li>
  *     <li>
- *         The name of the Character to give the item to.
+ *         The name of the Character to give the item to, and
+ *     </li>
+ *     <li>
+ *         The number of items to be given, optional. One item is given if not specified.
  *     </li>
  * </ul>
  *
@@ -39,7 +42,8 @@ public class GiveCommand extends Command {
     /**
      * Tries to give the item whose name is specified as the first modifier word of this {@link Command},
      * from the specified {@link Character},
-     * to the Character specified as the second modifier word of this Command.
+     * to the Character specified as the second modifier word of this Command,
+     * as many times as specified by the optional third modifier word.
      *
      * @param character the Character that is trying to give an item
      * @return true if item is given successfully, false otherwise
@@ -69,9 +73,21 @@ public class GiveCommand extends Command {
         String itemName = opItemName.get();
         String whom = opWhom.get();
 
+        Optional<Integer> opQuantity = getQuantityModifier(2);
+
+        if (opQuantity.isEmpty()) {
+            // the quantity is not a positive number
+            updateErr("invalidQuantity");
+            zuul.io.Out.println(GameText.getString("invalidQuantityError", new Object[]{getModifier(2).get()}));
+            return false;
+        }
+
+        int quantity = opQuantity.get();
+
 
-        //get the new character by name
-        Optional<Character> opRecipient = character.getCurrentRoom().getCharacter(whom);
+        //get the new character by name, ignoring case if no name matches exactly
+        Optional<Character> opRecipient = character.getCurrentRoom().getCharacter(whom)
+                .or(() -> character.getCurrentRoom().getCharacterIgnoringCase(whom));
 
         if (opRecipient.isEmpty()) {
             // cannot give it if the character is not here
@@ -84,24 +100,34 @@ public class GiveCommand extends Command {
         Character recipient = opRecipient.get();
 
         //Check if the item is currently held
-        Optional<Item> opItem = character.getInventory().getItem(itemName);
+        Item item = character.getInventory().getItemOrNull(itemName);
 
-        if (opItem.isEmpty()) {
+        if (item == null) {
             //Item not held by character
             updateErr("itemNotHeld");
             zuul.io.Out.println(GameText.getString("giveItemNotHeldError", new Object[]{itemName}));
             return false;
         }
 
-        //Item found so unwrap Optional
-        Item item = opItem.get();
+        int held = character.getInventory().getQuantity(item.getType());
 
+        if (quantity > held) {
+            //Not enough of the item held by character
+            updateErr("notEnoughItems");
+            zuul.io.Out.println(GameText.getString("giveNotEnoughError", new Object[]{itemName, held}));
+            return false;
+        }
 
-        character.getInventory().removeItem(item); //remove the item from the current character
-        recipient.getInventory().addItem(item);  //give item to new character
+        character.getInventory().removeItems(item, quantity); //remove the items from the current character
+        recipient.getInventory().addItems(item.getType(), quantity);  //give items to new character
 
         //tell the player the command was successful
-        zuul.io.Out.println(GameText.getString("giveSuccessful", new Object[]{recipient.getName(), item}));
+        if (quantity == 1) {
+            zuul.io.Out.println(GameText.getString("giveSuccessful", new Object[]{recipient.getName(), item}));
+        } else {
+            zuul.io.Out.println(GameText.getString("giveQuantitySuccessful",
+                    new Object[]{recipient.getName(), item, quantity}));
+        }
 
         return true;
     }
@@ -111,7 +137,7 @@ public class GiveCommand extends Command {
         if(isValidForPlayer(map)) {
             java.util.Map<Integer, List<String>> possibleModifiers = new HashMap<>();
 
-            List<String> possibleItems = map.getPlayer().getInventory().getItemList();;
+            List<String> possibleItems = new ArrayList<>(map.getPlayer().getInventory().getItemNames());
 
             possibleModifiers.put(0, possibleItems);
 
@@ -129,7 +155,7 @@ public class GiveCommand extends Command {
 
     @Override
     public boolean isValidForPlayer(zuul.gameState.maps.Map map) {
-        return !map.getPlayer().getInventory().getItemList().isEmpty()
+        return !map.getPlayer().getInventory().isEmpty()
                 && map.getPlayer().getCurrentRoom().getCharacters().stream()
                 .anyMatch(character -> !character.getName().equals(map.getPlayer().getName()));
     }
@@ -3,6 +3,7 @@ package zuul.commands.actions;
 import zuul.*;
 import zuul.gameState.characters.Character;
 import zuul.commands.Command;
+import zuul.gameState.Direction;
 import zuul.gameState.Room;
 import zuul.gameState.maps.Map;
 
@@ -54,8 +55,9 @@ public class GoCommand extends Command {
 
         String direction = opDirection.get();
 
-        // Try to leave current room.
-        Optional<Room> opNextRoom = character.getCurrentRoom().getExit(direction);
+        // Try to leave current room, a word that is not a direction has no exit.
+        Optional<Room> opNextRoom = Direction.fromLocalizedName(direction)
+                .flatMap(character.getCurrentRoom()::getExit);
 
         if (opNextRoom.isEmpty()) {
             //Cannot go in a direction if there is no exit
@@ -82,7 +84,11 @@ public class GoCommand extends Command {
         if(isValidForPlayer(map)) {
             java.util.Map<Integer, List<String>> possibleModifiers = new HashMap<>();
 
-            List<String> possibleExits = new ArrayList<>(map.getPlayer().getCurrentRoom().getExitDirections());
+            List<String> possibleExits = new ArrayList<>();
+
+            for(Direction direction : map.getPlayer().getCurrentRoom().getExitDirections()) {
+                possibleExits.add(direction.getLocalizedName());
+            }
 
             possibleModifiers.put(0, possibleExits);
 
@@ -93,6 +99,6 @@ public class GoCommand extends Command {
 
     @Override
     public boolean isValidForPlayer(Map map) {
-        return !map.getPlayer().getCurrentRoom().getExitDirections().isEmpty();
+        return map.getPlayer().getCurrentRoom().hasExits();
     }
 }
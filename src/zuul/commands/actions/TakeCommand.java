@@ -13,10 +13,13 @@ import zuul.gameState.Room;
  * A Take {@link Command} for the "World of Zuul" application.
  * This command takes an {@link Item} from a {@link Room} {@link Inventory}.
  * <p>
- * This command takes a single modifier word:
+ * This command takes up to two modifier words:
  * <li>
  *     The name of the item to be taken.
  * </li>
+ * <li>
+ *     The number of items to be taken, optional. One item is taken if not specified.
+ * </li>
  *
  * @author Timothy Shelton
  */
@@ -33,7 +36,8 @@ public class TakeCommand extends Command {
 
     /**
      * Tries to take the item whose name is specified as the first modifier word of this {@link Command}
-     * from the {@link Inventory} of the current {@link Room} of the specified {@link Character}.
+     * from the {@link Inventory} of the current {@link Room} of the specified {@link Character},
+     * as many times as specified by the optional second modifier word.
      *
      * @param character the Character that is trying to take an item
      * @return true if item is taken successfully, false otherwise
@@ -52,19 +56,37 @@ public class TakeCommand extends Command {
 
         String itemName = opItemName.get();
 
-        Optional<Item> opItem = character.getCurrentRoom().getInventory().getItem(itemName);
+        Optional<Integer> opQuantity = getQuantityModifier(1);
+
+        if (opQuantity.isEmpty()) {
+            // the quantity is not a positive number
+            updateErr("invalidQuantity");
+            zuul.io.Out.println(GameText.getString("invalidQuantityError", new Object[]{getModifier(1).get()}));
+            return false;
+        }
+
+        int quantity = opQuantity.get();
 
-        if (opItem.isEmpty()) {
+        Item item = character.getCurrentRoom().getInventory().getItemOrNull(itemName);
+
+        if (item == null) {
             // The item is not in the room
             updateErr("itemNotFound");
             zuul.io.Out.println(GameText.getString("takeItemNotInRoomError", new Object[]{itemName}));
             return false;
         }
 
-        //The item was found, unwrap it from Optional<Item>
-        Item item = opItem.get();
+        int available = character.getCurrentRoom().getInventory().getQuantity(item.getType());
 
-        if (character.getInventory().getTotalWeight() + item.getWeight() > character.getInventory().getMAX_WEIGHT()) {
+        if (quantity > available) {
+            // There are not enough of the item in the room
+            updateErr("notEnoughItems");
+            zuul.io.Out.println(GameText.getString("takeNotEnoughError", new Object[]{itemName, available}));
+            return false;
+        }
+
+        if (character.getInventory().getTotalWeight() + (long) item.getWeight() * quantity
+                > character.getInventory().getMAX_WEIGHT()) {
             // The player is carrying too much
             updateErr("itemTooHeavy");
             zuul.io.Out.println(GameText.getString("takeItemTooHeavyError", new Object[]{itemName}));
@@ -72,11 +94,15 @@ public class TakeCommand extends Command {
         }
 
         // OK we can pick it up
-        character.getCurrentRoom().getInventory().removeItem(item); //Remove item from room
-        character.getInventory().addItem(item); //Give item to player
+        character.getCurrentRoom().getInventory().removeItems(item, quantity); //Remove items from room
+        character.getInventory().addItems(item.getType(), quantity); //Give items to player
 
         //tell the player the command was successful
-        zuul.io.Out.println(GameText.getString("takeSuccessful", new Object[]{itemName}));
+        if (quantity == 1) {
+            zuul.io.Out.println(GameText.getString("takeSuccessful", new Object[]{itemName}));
+        } else {
+            zuul.io.Out.println(GameText.getString("takeQuantitySuccessful", new Object[]{itemName, quantity}));
+        }
 
         return true;
     }
@@ -86,7 +112,7 @@ public class TakeCommand extends Command {
         if(isValidForPlayer(map)) {
             java.util.Map<Integer, List<String>> possibleModifiers = new HashMap<>();
 
-            List<String> possibleItems = map.getPlayer().getCurrentRoom().getInventory().getItemList();;
+            List<String> possibleItems = new ArrayList<>(map.getPlayer().getCurrentRoom().getInventory().getItemNames());
 
             possibleModifiers.put(0, possibleItems);
 
@@ -97,6 +123,6 @@ public class TakeCommand extends Command {
 
     @Override
     public boolean isValidForPlayer(zuul.gameState.maps.Map map) {
-        return !map.getPlayer().getCurrentRoom().getInventory().getItemList().isEmpty();
+        return !map.getPlayer().getCurrentRoom().getInventory().isEmpty();
     }
 }
@@ -0,0 +1,96 @@
+package zuul.gameState;
+
+import zuul.GameText;
+
+import java.util.Optional;
+
+/**
+ * The direction of an exit from a {@link Room} for the World of Zuul application.
+ * <p>
+ * Directions are locale-independent. Each has a key to its locale-dependent name in the standard resource bundle
+ * so that it is only translated to and from text when shown to or typed by the player.
+ *
+ * @author Timothy Shelton
+ */
+public enum Direction {
+    NORTH("north"),
+    EAST("east"),
+    SOUTH("south"),
+    WEST("west");
+
+    /**
+     * Every direction, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = values();
+
+    /**
+     * The locale-independent key of the name of this direction.
+     */
+    private final String key;
+
+    /**
+     * Constructor
+     *
+     * @param key  the locale-independent key of the name of this direction, not null
+     */
+    Direction(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets the locale-independent key of the name of this direction.
+     *
+     * @return the key of this direction's name, not null
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the bit of this direction in an exit mask such as {@link Room#getExitMask}.
+     *
+     * @return the bit of this direction's ordinal
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Gets a direction in an exit mask such as {@link Room#getExitMask}, counting in {@code Direction} order.
+     *
+     * @param mask  the bits of the directions to choose from
+     * @param index  the number of directions in the mask to skip, less than the number of bits set
+     * @return the direction of the bit at the given index, not null
+     */
+    public static Direction fromMask(int mask, int index) {
+        for(int i = 0; i < index; i++) {
+            //clear the lowest bit set
+            mask &= mask - 1;
+        }
+        return DIRECTIONS[Integer.numberOfTrailingZeros(mask)];
+    }
+
+    /**
+     * Gets the locale-dependent name of this direction.
+     *
+     * @return the name of this direction in the current locale, not null
+     */
+    public String getLocalizedName() {
+        return GameText.getString(key);
+    }
+
+    /**
+     * Gets the direction with the given locale-dependent name.
+     *
+     * @param name  the name of the direction in the current locale, not null
+     * @return an optional of the direction with the given name, or an empty optional if no direction has that name
+     */
+    public static Optional<Direction> fromLocalizedName(String name) {
+        for(Direction direction : values()) {
+            if(direction.getLocalizedName().equals(name)) {
+                return Optional.of(direction);
+            }
+        }
+        return Optional.empty();
+    }
+}
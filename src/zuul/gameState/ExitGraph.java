@@ -0,0 +1,422 @@
+package zuul.gameState;
+
+import java.util.*;
+
+/**
+ * A compact store of the exits between {@link Room Rooms} for the World of Zuul application.
+ * <p>
+ * Each compacted room is given a dense integer id and its exits are stored in compressed sparse row arrays:
+ * the exits of room {@code i} are held at indices {@code exitOffsets[i]} to {@code exitOffsets[i + 1] - 1}
+ * of {@link #exitTargets} and {@link #exitDirections}.
+ * Directions are stored as the one byte ordinal of their {@link Direction},
+ * and a second set of arrays indexes the exits leading to each room.
+ * This replaces the exit and entrance collections of every room with a few shared arrays.
+ * <p>
+ * Removing an exit marks it as removed in place.
+ * Adding an exit to or from a compacted room expands the whole graph back into the rooms' own collections.
+ *
+ * @author Timothy Shelton
+ */
+public class ExitGraph {
+
+    /**
+     * The target of an exit that has been removed.
+     */
+    private static final int NO_ROOM = -1;
+
+    /**
+     * Every direction, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Every compacted room, indexed by id.
+     */
+    private final Room[] rooms;
+
+    /**
+     * The index of the first exit of each room, with a final entry of the total number of exits.
+     */
+    private final int[] exitOffsets;
+
+    /**
+     * The id of the room each exit leads to, or {@link #NO_ROOM} if the exit has been removed.
+     */
+    private final int[] exitTargets;
+
+    /**
+     * The {@link Direction} ordinal of each exit.
+     */
+    private final byte[] exitDirections;
+
+    /**
+     * The index of the first entrance of each room, with a final entry of the total number of exits.
+     */
+    private final int[] entranceOffsets;
+
+    /**
+     * The index of the exit leading to each room, grouped by the room the exits lead to.
+     */
+    private final int[] entranceExits;
+
+    /**
+     * True once this graph has been expanded back into its rooms and can no longer be used.
+     */
+    private boolean expanded;
+
+    /**
+     * Constructor
+     *
+     * @param rooms  every room to compact, indexed by id, not null
+     * @param exitOffsets  the index of the first exit of each room, not null
+     * @param exitTargets  the id of the room each exit leads to, not null
+     * @param exitDirections  the direction ordinal of each exit, not null
+     */
+    private ExitGraph(Room[] rooms, int[] exitOffsets, int[] exitTargets, byte[] exitDirections) {
+        this.rooms = rooms;
+        this.exitOffsets = exitOffsets;
+        this.exitTargets = exitTargets;
+        this.exitDirections = exitDirections;
+
+        //count the entrances of each room then place each exit after the entrances of the rooms before it
+        this.entranceOffsets = new int[rooms.length + 1];
+        this.entranceExits = new int[exitTargets.length];
+
+        for(int target : exitTargets) {
+            entranceOffsets[target + 1]++;
+        }
+        for(int i = 0; i < rooms.length; i++) {
+            entranceOffsets[i + 1] += entranceOffsets[i];
+        }
+
+        int[] nextEntrance = Arrays.copyOf(entranceOffsets, rooms.length);
+
+        for(int exit = 0; exit < exitTargets.length; exit++) {
+            entranceExits[nextEntrance[exitTargets[exit]]++] = exit;
+        }
+    }
+
+    /**
+     * Compacts the exits of the given rooms, and of every room linked to them, into a new ExitGraph.
+     * <p>
+     * Any of those rooms already in an ExitGraph are expanded first.
+     *
+     * @param roomsToCompact  the rooms to compact, not null
+     * @return the new graph, not null
+     */
+    public static ExitGraph compact(Collection<Room> roomsToCompact) {
+        //give every room an id, including rooms only reached through an exit or entrance
+        java.util.Map<Room, Integer> ids = new IdentityHashMap<>(roomsToCompact.size());
+        List<Room> roomList = new ArrayList<>(roomsToCompact.size());
+
+        roomsToCompact.forEach(room -> addRoomId(room, ids, roomList));
+
+        //store the exits of each room in order of id, keeping the order of each room's own exits
+        int[] exitOffsets = new int[roomList.size() + 1];
+        int[] exitTargets = new int[roomList.size()];
+        byte[] exitDirections = new byte[roomList.size()];
+        int exit = 0;
+
+        for(int i = 0; i < roomList.size(); i++) {
+            Room room = roomList.get(i);
+
+            if(exit + room.exits.size() > exitTargets.length) {
+                int capacity = Math.max(exitTargets.length * 2, exit + room.exits.size());
+
+                exitTargets = Arrays.copyOf(exitTargets, capacity);
+                exitDirections = Arrays.copyOf(exitDirections, capacity);
+            }
+
+            for(java.util.Map.Entry<Direction, Room> entry : room.exits.entrySet()) {
+                exitTargets[exit] = addRoomId(entry.getValue(), ids, roomList);
+                exitDirections[exit] = (byte) entry.getKey().ordinal();
+                exit++;
+            }
+            room.entrances.forEach(entrance -> addRoomId(entrance, ids, roomList));
+
+            if(i + 1 == exitOffsets.length) {
+                //rooms reached through an exit or entrance have been added
+                exitOffsets = Arrays.copyOf(exitOffsets, roomList.size() + 1);
+            }
+            exitOffsets[i + 1] = exit;
+        }
+
+        Room[] rooms = roomList.toArray(new Room[0]);
+        exitOffsets = Arrays.copyOf(exitOffsets, rooms.length + 1);
+        exitTargets = Arrays.copyOf(exitTargets, exit);
+        exitDirections = Arrays.copyOf(exitDirections, exit);
+
+        ExitGraph exitGraph = new ExitGraph(rooms, exitOffsets, exitTargets, exitDirections);
+
+        for(int i = 0; i < rooms.length; i++) {
+            rooms[i].setExitGraph(exitGraph, i);
+        }
+
+        return exitGraph;
+    }
+
+    /**
+     * Gives the given room the next id if it does not have one yet, expanding any ExitGraph it is in.
+     *
+     * @param room  the room to give an id, not null
+     * @param ids  the id of every room given an id so far, not null
+     * @param roomList  every room given an id so far, indexed by id, not null
+     * @return the id of the room
+     */
+    private static int addRoomId(Room room, java.util.Map<Room, Integer> ids, List<Room> roomList) {
+        Integer id = ids.get(room);
+
+        if(id != null) {
+            return id;
+        }
+        if(room.getExitGraph() != null) {
+            room.getExitGraph().expand();
+        }
+        ids.put(room, roomList.size());
+        roomList.add(room);
+
+        return roomList.size() - 1;
+    }
+
+    /**
+     * Gets the number of rooms in this graph.
+     *
+     * @return the number of compacted rooms
+     */
+    public int getRoomCount() {
+        return rooms.length;
+    }
+
+    /**
+     * Gets the number of exits in this graph that have not been removed.
+     *
+     * @return the number of exits
+     */
+    public int getExitCount() {
+        int exitCount = 0;
+
+        for(int target : exitTargets) {
+            if(target != NO_ROOM) {
+                exitCount++;
+            }
+        }
+
+        return exitCount;
+    }
+
+    /**
+     * Gets the id of the given room in this graph.
+     *
+     * @param room  the room to get the id of, not null
+     * @return the id of the room, or -1 if the room is not in this graph
+     */
+    public int getId(Room room) {
+        return room.getExitGraph() == this ? room.getExitGraphId() : NO_ROOM;
+    }
+
+    /**
+     * Gets the room with the given id.
+     *
+     * @param id  the id of the room
+     * @return the room with the given id, not null
+     */
+    public Room getRoom(int id) {
+        return rooms[id];
+    }
+
+    /**
+     * Counts the exits from the room with the given id.
+     *
+     * @param id  the id of the room
+     * @return the number of exits from the room
+     */
+    public int countExits(int id) {
+        int exitCount = 0;
+
+        for(int exit = exitOffsets[id]; exit < exitOffsets[id + 1]; exit++) {
+            if(exitTargets[exit] != NO_ROOM) {
+                exitCount++;
+            }
+        }
+
+        return exitCount;
+    }
+
+    /**
+     * Copies the ids of the rooms the exits from the room with the given id lead to into the given array.
+     *
+     * @param id  the id of the room
+     * @param targets  the array to copy the ids into, not null
+     * @param offset  the index of the array to copy the first id to
+     * @return the number of ids copied
+     */
+    public int copyExits(int id, int[] targets, int offset) {
+        int exitCount = 0;
+
+        for(int exit = exitOffsets[id]; exit < exitOffsets[id + 1]; exit++) {
+            if(exitTargets[exit] != NO_ROOM) {
+                targets[offset + exitCount++] = exitTargets[exit];
+            }
+        }
+
+        return exitCount;
+    }
+
+    /**
+     * Gets the room in the given direction from the room with the given id.
+     *
+     * @param id  the id of the room to find the exit from
+     * @param direction  the direction of the exit, not null
+     * @return the room the exit leads to, or null if there is no such exit
+     */
+    Room getExitOrNull(int id, Direction direction) {
+        for(int exit = exitOffsets[id]; exit < exitOffsets[id + 1]; exit++) {
+            if(exitTargets[exit] != NO_ROOM && exitDirections[exit] == direction.ordinal()) {
+                return rooms[exitTargets[exit]];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the directions of every exit from the room with the given id as a mask of {@link Direction#getMask} bits.
+     *
+     * @param id  the id of the room
+     * @return the exit mask of the room
+     */
+    int getExitMask(int id) {
+        int mask = 0;
+
+        for(int exit = exitOffsets[id]; exit < exitOffsets[id + 1]; exit++) {
+            if(exitTargets[exit] != NO_ROOM) {
+                mask |= 1 << exitDirections[exit];
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Gets the directions of every exit from the room with the given id.
+     *
+     * @param id  the id of the room
+     * @return a set of the exit directions, not null
+     */
+    Set<Direction> getExitDirections(int id) {
+        Set<Direction> directions = EnumSet.noneOf(Direction.class);
+
+        for(int exit = exitOffsets[id]; exit < exitOffsets[id + 1]; exit++) {
+            if(exitTargets[exit] != NO_ROOM) {
+                directions.add(DIRECTIONS[exitDirections[exit]]);
+            }
+        }
+
+        return directions;
+    }
+
+    /**
+     * Indicates if the room with the given id has any exits.
+     *
+     * @param id  the id of the room
+     * @return true if the room has at least one exit, false otherwise
+     */
+    boolean hasExits(int id) {
+        for(int exit = exitOffsets[id]; exit < exitOffsets[id + 1]; exit++) {
+            if(exitTargets[exit] != NO_ROOM) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets every room with an exit leading to the room with the given id.
+     *
+     * @param id  the id of the room
+     * @return a list of the rooms with exits leading to the room, once for each exit, not null
+     */
+    List<Room> getEntrances(int id) {
+        List<Room> entrances = new ArrayList<>(entranceOffsets[id + 1] - entranceOffsets[id]);
+
+        for(int entrance = entranceOffsets[id]; entrance < entranceOffsets[id + 1]; entrance++) {
+            int exit = entranceExits[entrance];
+
+            if(exitTargets[exit] != NO_ROOM) {
+                entrances.add(rooms[sourceOf(exit)]);
+            }
+        }
+
+        return entrances;
+    }
+
+    /**
+     * Removes every exit from the room with the given id that leads to the given room.
+     *
+     * @param id  the id of the room to remove exits from
+     * @param room  the destination of the exits to remove, not null
+     */
+    void removeExit(int id, Room room) {
+        for(int exit = exitOffsets[id]; exit < exitOffsets[id + 1]; exit++) {
+            if(exitTargets[exit] != NO_ROOM && rooms[exitTargets[exit]].equals(room)) {
+                exitTargets[exit] = NO_ROOM;
+            }
+        }
+    }
+
+    /**
+     * Removes every exit from the room with the given id.
+     *
+     * @param id  the id of the room to remove exits from
+     */
+    void removeAllExits(int id) {
+        Arrays.fill(exitTargets, exitOffsets[id], exitOffsets[id + 1], NO_ROOM);
+    }
+
+    /**
+     * Moves the exits of every room in this graph back into the rooms' own collections.
+     * <p>
+     * This graph can no longer be used afterwards.
+     */
+    void expand() {
+        if(expanded) {
+            return;
+        }
+        expanded = true;
+
+        for(Room room : rooms) {
+            room.setExitGraph(null, 0);
+        }
+
+        for(int i = 0; i < rooms.length; i++) {
+            for(int exit = exitOffsets[i]; exit < exitOffsets[i + 1]; exit++) {
+                if(exitTargets[exit] != NO_ROOM) {
+                    rooms[i].addExit(DIRECTIONS[exitDirections[exit]], rooms[exitTargets[exit]]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the id of the room the given exit leads from.
+     *
+     * @param exit  the index of the exit
+     * @return the id of the room the exit leads from
+     */
+    private int sourceOf(int exit) {
+        //find the last room whose first exit is at or before the given exit
+        int low = 0;
+        int high = rooms.length - 1;
+
+        while(low < high) {
+            int middle = (low + high + 1) >>> 1;
+
+            if(exitOffsets[middle] <= exit) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+}
@@ -2,31 +2,77 @@ package zuul.gameState;
 
 import zuul.gameState.characters.Character;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * An inventory to store each {@link Item} held by a
  * {@link Room} or {@link Character} in the "World of Zuul" application.
  * <p>
+ * Items are stored as stacks holding an {@link ItemType} and the quantity of items of that type,
+ * so any number of identical items take the space of one. Stacks are indexed by name so they can be found,
+ * added to and removed from in constant time by any {@link CharSequence} name,
+ * and the total weight of the items is kept up to date.
+ * <p>
+ * Once an item type has been added its stack is kept even when no item of that type is held,
+ * so moving items in and out of an inventory, looking them up by name and checking their names allocate nothing.
+ * Empty stacks are only dropped once the names with no items outnumber both the names with items
+ * and {@value #MIN_EMPTY_NAMES}, so an inventory does not keep every name that has ever passed through it.
  *
  * @author Timothy Shelton
  */
 public class Inventory {
     /**
-     * List of all items stored in this Inventory.
+     * The stacks of items stored in this Inventory, grouped by name in the order each name was first added.
      *
-     * Multiple non-unique items can be stored.
+     * Items with the same name but different types are held in separate stacks. A stack is empty if every item
+     * of its type has been removed.
+     */
+    private LinkedHashMap<ItemName, NamedStacks> items;
+
+    /**
+     * The key each thread uses to look up names without creating a new key or String for every lookup.
+     */
+    private static final ThreadLocal<ItemName> LOOKUP_KEY = ThreadLocal.withInitial(ItemName::new);
+
+    /**
+     * The number of items stored in this Inventory.
+     */
+    private int itemCount;
+
+    /**
+     * The total weight of all items stored in this Inventory.
+     */
+    private int totalWeight;
+
+    /**
+     * The number of names with at least one {@link Item} stored in this Inventory.
+     */
+    private int nameCount;
+
+    /**
+     * The number of times an {@link Item} has been added to or removed from this Inventory.
+     */
+    private int modificationCount;
+
+    /**
+     * A live read-only view of the names of the items stored in this Inventory.
      */
-    private ArrayList<Item> items;
+    private final Set<String> itemNames = new ItemNames();
 
     /**
      * The maximum {@link Item} weight that can be stored in this Inventory.
      */
     private int MAX_WEIGHT;
 
+    /**
+     * The number of names with no items that an inventory keeps however few names with items it has.
+     * <p></p>
+     * Value: {@value MIN_EMPTY_NAMES}
+     */
+    private static final int MIN_EMPTY_NAMES = 8;
+
     /**
      * The default maximum {@link Item} weight to use is one if not specified during instantiation.
      */
@@ -51,7 +97,7 @@ public class Inventory {
      * @param maxWeight  the maximum Item weight that this inventory should be able to hold
      */
     public Inventory(int maxWeight) {
-        items = new ArrayList<>();
+        items = new LinkedHashMap<>();
         MAX_WEIGHT = maxWeight;
     }
 
@@ -63,18 +109,126 @@ public class Inventory {
      * @param item  the Item to be added to this inventory, not null
      */
     public void addItem(Item item) {
-        items.add(item);
+        addItems(item.getType(), 1);
+    }
+
+    /**
+     * Adds the specified quantity of items of an {@link ItemType} to this Inventory.
+     * <p>
+     * No check is made on the weight of the items added.
+     *
+     * @param type  the type of the items to be added, not null
+     * @param quantity  the number of items to be added
+     * @throws IllegalArgumentException  if the quantity is negative
+     */
+    public void addItems(ItemType type, int quantity) {
+        if(quantity < 0) {
+            throw new IllegalArgumentException("Cannot add a negative quantity of items: " + quantity);
+        }
+
+        NamedStacks namedStacks = getNamedStacks(type.getName());
+
+        if(namedStacks == null) {
+            namedStacks = new NamedStacks();
+            items.put(new ItemName(type.getName()), namedStacks);
+        }
+
+        ItemStack stack = namedStacks.getStack(type);
+
+        if(stack == null) {
+            stack = new ItemStack(type);
+            namedStacks.stacks.add(stack);
+        }
+
+        if(namedStacks.quantity == 0 && quantity > 0) {
+            nameCount++;
+        }
+
+        stack.quantity += quantity;
+        namedStacks.quantity += quantity;
+        itemCount += quantity;
+        totalWeight += type.getWeight() * quantity;
+        modificationCount++;
     }
 
     /**
      * Removes the specified {@link Item} from this Inventory.
      *
-     * If more than one Item in this inventory equals the specified Item then the first occurrence is removed.
+     * If an Item of the same {@link ItemType} is in this inventory then it is removed,
+     * otherwise if any Item in this inventory has the same name as the specified Item then the first added is removed.
      *
      * @param item  the Item to be removed, not null
      */
     public void removeItem(Item item) {
-        items.remove(item);
+        removeItems(item, 1);
+    }
+
+    /**
+     * Removes up to the specified quantity of an {@link Item} from this Inventory.
+     *
+     * Items of the same {@link ItemType} as the specified Item are removed if any are in this inventory,
+     * otherwise items of the first added type with the same name as the specified Item are removed.
+     * Items are only removed from one stack, so fewer than the specified quantity may be removed
+     * even if this inventory holds that many items with the same name.
+     *
+     * @param item  the Item to be removed, not null
+     * @param quantity  the maximum number of items to be removed
+     * @return the number of items removed
+     */
+    public int removeItems(Item item, int quantity) {
+        NamedStacks namedStacks = getNamedStacks(item.getName());
+
+        if(namedStacks == null || namedStacks.quantity == 0 || quantity <= 0) {
+            return 0;
+        }
+
+        ItemStack stack = namedStacks.getStack(item.getType());
+
+        if(stack == null || stack.quantity == 0) {
+            stack = namedStacks.getFirstStack();
+        }
+
+        int removed = Math.min(quantity, stack.quantity);
+
+        //keep the empty stack so it is not created again when an item of its type is next added
+        stack.quantity -= removed;
+        namedStacks.quantity -= removed;
+        itemCount -= removed;
+        totalWeight -= stack.type.getWeight() * removed;
+        modificationCount++;
+
+        if(namedStacks.quantity == 0) {
+            nameCount--;
+            trimEmptyStacks();
+        }
+
+        return removed;
+    }
+
+    /**
+     * Removes every empty stack once the names with no items outnumber both the names with items
+     * and {@link #MIN_EMPTY_NAMES}.
+     * <p>
+     * Names are only trimmed after as many have emptied as are still held,
+     * so the cost of trimming is spread over the removals that emptied them.
+     */
+    private void trimEmptyStacks() {
+        int emptyNameCount = items.size() - nameCount;
+
+        if(emptyNameCount <= Math.max(nameCount, MIN_EMPTY_NAMES)) {
+            return;
+        }
+
+        Iterator<NamedStacks> namedStacksIterator = items.values().iterator();
+        while(namedStacksIterator.hasNext()) {
+            NamedStacks namedStacks = namedStacksIterator.next();
+
+            if(namedStacks.quantity == 0) {
+                namedStacksIterator.remove();
+            } else {
+                namedStacks.stacks.removeIf(stack -> stack.quantity == 0);
+            }
+        }
     }
 
     /**
@@ -85,7 +239,16 @@ public class Inventory {
      * @return the index of item parameter if it exists in the array, -1 otherwise
      */
     public int getItemIndex(Item item) {
-        return items.indexOf(item);
+        int index = 0;
+
+        for(java.util.Map.Entry<ItemName, NamedStacks> entry : items.entrySet()) {
+            if(entry.getValue().quantity != 0 && entry.getKey().toString().equals(item.getName())) {
+                return index;
+            }
+            index += entry.getValue().quantity;
+        }
+
+        return -1;
     }
 
     /**
@@ -95,26 +258,69 @@ public class Inventory {
      * @return an Optional containing the requested Item if found, empty otherwise
      */
     public Optional<Item> getItem(Item item) {
-        //get the index to test if the item is contained in this inventory
-        int index = getItemIndex(item);
-
-        if(index == -1) {
-            //item is not in inventory, return empty
-            return Optional.empty();
-        } else {
-            //item found, return it
-            return Optional.of(items.get(index));
-        }
+        return getItem(item.getName());
     }
 
     /**
      * Gets an {@link Item} with the specified name if it is in this inventory.
+     * <p>
+     * Names that are not Strings, such as a {@link StringBuilder} holding part of a command,
+     * are looked up by their characters so that no String has to be created to look them up.
      *
      * @param name  the name of the Item to get, not null
-     * @return an Optional containing the requested Item if found, empty otherwise
+     * @return an Optional containing the shared Item of the first added type with that name if found,
+     *          empty otherwise
      */
-    public Optional<Item> getItem(String name) {
-        return getItem(new Item(name, 0));
+    public Optional<Item> getItem(CharSequence name) {
+        return Optional.ofNullable(getItemOrNull(name));
+    }
+
+    /**
+     * Gets an {@link Item} with the specified name if it is in this inventory, without wrapping it.
+     * <p>
+     * This is the lookup used by the take, drop and give commands, so it allocates nothing.
+     *
+     * @param name  the name of the Item to get, not null
+     * @return the shared Item of the first added type with that name if found, null otherwise
+     */
+    public Item getItemOrNull(CharSequence name) {
+        NamedStacks namedStacks = getNamedStacks(name);
+
+        if(namedStacks == null || namedStacks.quantity == 0) {
+            //item is not in inventory
+            return null;
+        }
+
+        //item found, return the first added
+        return namedStacks.getFirstStack().type.getItem();
+    }
+
+    /**
+     * Gets the number of items of the specified {@link ItemType} in this inventory.
+     *
+     * @param type  the type of items to count, not null
+     * @return the number of items of the type held, may be zero
+     */
+    public int getQuantity(ItemType type) {
+        NamedStacks namedStacks = getNamedStacks(type.getName());
+
+        if(namedStacks == null) {
+            return 0;
+        }
+
+        ItemStack stack = namedStacks.getStack(type);
+        return stack == null ? 0 : stack.quantity;
+    }
+
+    /**
+     * Gets the number of items with the specified name in this inventory, whatever their type.
+     *
+     * @param name  the name of the items to count, not null
+     * @return the number of items with the name held, may be zero
+     */
+    public int getQuantity(CharSequence name) {
+        NamedStacks namedStacks = getNamedStacks(name);
+        return namedStacks == null ? 0 : namedStacks.quantity;
     }
 
     /**
@@ -123,7 +329,7 @@ public class Inventory {
      * @return the total weight currently held
      */
     public int getTotalWeight(){
-        return items.stream().mapToInt(Item::getWeight).sum();
+        return totalWeight;
     }
 
     /**
@@ -142,7 +348,7 @@ public class Inventory {
      * @return true if the room contains the specified item, false otherwise
      */
     public boolean containsItem(Item item) {
-        return this.items.contains(item);
+        return containsItem(item.getName());
     }
 
     /**
@@ -151,12 +357,8 @@ public class Inventory {
      * @param name  the name of the item to look for, not null
      * @return true if the room contains an Item with the specified name, false otherwise
      */
-    public boolean containsItem(String name) {
-        Optional<Item> item = items.stream()
-                                    .filter(i -> i.getName().equals(name))
-                                    .findAny();
-
-        return item.isPresent();
+    public boolean containsItem(CharSequence name) {
+        return getQuantity(name) != 0;
     }
 
     /**
@@ -164,33 +366,88 @@ public class Inventory {
      * <p>
      * Returns an empty String if this inventory is empty.
      *
-     * @return a single line string of each {@link Item} in this inventory delimited by ", "
+     * @return a single line string of each {@link ItemType} in this inventory and its quantity delimited by ", "
      */
     @Override
     public String toString() {
-        return items.stream()
-                .map(Item::toString)
+        return stackStream()
+                .map(ItemStack::toString)
                 .collect(Collectors.joining(", "));
     }
 
     /**
-     * Returns a String containing the name and weight of one item in this inventory per line.
+     * Returns a String containing the name, weight and quantity of one item type in this inventory per line.
      *
      * @return a string where each line contains a single item description, all items in this inventory are listed
      */
     public String listItems(){
-        return items.stream()
-                .map(Item::toString)
+        return stackStream()
+                .map(ItemStack::toString)
                 .collect(Collectors.joining("\n"));
     }
 
     /**
      * Returns a List of names of all items in this inventory.
+     * <p>
+     * A new list is created on every call, use {@link #getItemNames} to check the names held without copying them.
      *
-     * @return a list of names of all items in this inventory
+     * @return a list of names of all items in this inventory, including each name once per item held
      */
     public List<String> getItemList() {
-        return items.stream().map(item -> item.getName()).collect(Collectors.toList());
+        return getItems().stream().map(item -> item.getName()).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets a live read-only view of the names of the {@link Item Items} in this inventory.
+     * <p>
+     * The view reflects later changes to this inventory and includes each name once however many items have it.
+     *
+     * @return the names of the items in this inventory, in the order each name was first added, not null
+     */
+    public Set<String> getItemNames() {
+        return itemNames;
+    }
+
+    /**
+     * Gets a read-only list of every {@link Item} in this inventory.
+     * <p>
+     * The shared Item of each {@link ItemType} is listed once per item of that type held.
+     *
+     * @return the items in this inventory grouped by name, in the order each name was first added, not null
+     */
+    public List<Item> getItems() {
+        List<Item> itemList = new ArrayList<>(itemCount);
+        stackStream().forEach(stack -> itemList.addAll(Collections.nCopies(stack.quantity, stack.type.getItem())));
+        return Collections.unmodifiableList(itemList);
+    }
+
+    /**
+     * Gets a read-only list of every {@link ItemType} with at least one item in this inventory.
+     *
+     * @return the types of the items in this inventory grouped by name, in the order each was first added, not null
+     */
+    public List<ItemType> getItemTypes() {
+        return stackStream().map(stack -> stack.type).collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Gets the number of {@link Item Items} in this inventory.
+     *
+     * @return the number of items held
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Gets the number of times an {@link Item} has been added to or removed from this inventory.
+     * <p>
+     * This can be compared with an earlier value to tell if this inventory has been modified since.
+     *
+     * @return the modification count of this inventory
+     */
+    public int getModificationCount() {
+        return modificationCount;
     }
 
     /**
@@ -199,6 +456,231 @@ public class Inventory {
      * @return true is this inventory contains no items, false otherwise
      */
     public boolean isEmpty() {
-        return this.items.isEmpty();
+        return itemCount == 0;
+    }
+
+    /**
+     * Creates a stream of every non-empty stack in this inventory, grouped by name.
+     *
+     * @return a stream of the stacks holding items in this inventory, not null
+     */
+    private Stream<ItemStack> stackStream() {
+        return items.values().stream()
+                .flatMap(namedStacks -> namedStacks.stacks.stream())
+                .filter(stack -> stack.quantity != 0);
+    }
+
+    /**
+     * Gets the stacks of {@link Item Items} indexed under the specified name.
+     * <p>
+     * The name is looked up through this thread's reusable key, so the lookup is a single hash lookup
+     * whatever kind of CharSequence the name is.
+     *
+     * @param name  the name of the items to get, not null
+     * @return the possibly empty stacks of items with the specified name, or null if the name is not indexed
+     */
+    private NamedStacks getNamedStacks(CharSequence name) {
+        ItemName key = LOOKUP_KEY.get().set(name);
+
+        try {
+            return items.get(key);
+        } finally {
+            //do not keep the caller's name reachable
+            key.clear();
+        }
+    }
+
+    /**
+     * The name of the items in an {@link Inventory}, used as a key so that any CharSequence can be looked up.
+     * <p>
+     * Names are equal if they hold the same characters and have the same hash code as the equal String,
+     * so a key holding a {@link StringBuilder} finds the stacks indexed under a key holding a String.
+     * Keys stored in an inventory always hold a String.
+     */
+    private static class ItemName {
+
+        /**
+         * The characters of the name, null while a lookup key is not in use.
+         */
+        private CharSequence name;
+
+        /**
+         * The hash code of the name, as given by {@link String#hashCode} for the same characters.
+         */
+        private int hash;
+
+        /**
+         * Constructor for a lookup key that is set before each use.
+         */
+        private ItemName() {
+        }
+
+        /**
+         * Constructor for a key stored in an inventory.
+         *
+         * @param name  the name of the items, not null
+         */
+        private ItemName(String name) {
+            set(name);
+        }
+
+        /**
+         * Sets the name held by this key.
+         *
+         * @param name  the name to hold, not null
+         * @return this key, not null
+         */
+        private ItemName set(CharSequence name) {
+            this.name = name;
+
+            if(name instanceof String) {
+                //Strings cache their hash code
+                this.hash = name.hashCode();
+            } else {
+                int h = 0;
+                for(int i = 0; i < name.length(); i++) {
+                    h = 31 * h + name.charAt(i);
+                }
+                this.hash = h;
+            }
+
+            return this;
+        }
+
+        /**
+         * Releases the name held by this lookup key.
+         */
+        private void clear() {
+            this.name = null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ItemName)) return false;
+            ItemName itemName = (ItemName) o;
+            return hash == itemName.hash && CharSequence.compare(name, itemName.name) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Returns the name held by this key.
+         *
+         * @return the name, which is the stored String itself for keys stored in an inventory
+         */
+        @Override
+        public String toString() {
+            return name.toString();
+        }
+    }
+
+    /**
+     * A quantity of items of one {@link ItemType} stored in an {@link Inventory}.
+     */
+    private static class ItemStack {
+
+        /**
+         * The type of the items in this stack.
+         */
+        private final ItemType type;
+
+        /**
+         * The number of items in this stack.
+         */
+        private int quantity;
+
+        /**
+         * Constructor
+         *
+         * @param type  the type of the items in this stack, not null
+         */
+        private ItemStack(ItemType type) {
+            this.type = type;
+        }
+
+        /**
+         * Creates and returns a String that represents this stack.
+         *
+         * @return the type of this stack, followed by " x{@code quantity}" if more than one item is held, not null
+         */
+        @Override
+        public String toString() {
+            return quantity == 1 ? type.toString() : type.toString() + " x" + quantity;
+        }
+    }
+
+    /**
+     * The stacks of every {@link ItemType} with the same name stored in an {@link Inventory}.
+     */
+    private static class NamedStacks {
+
+        /**
+         * The stacks of each type with this name in the order each type was first added.
+         */
+        private final ArrayList<ItemStack> stacks = new ArrayList<>(1);
+
+        /**
+         * The total number of items in the stacks.
+         */
+        private int quantity;
+
+        /**
+         * Gets the stack of the specified type.
+         *
+         * @param type  the type of the stack to get, not null
+         * @return the stack of the type, or null if no item of the type has been added
+         */
+        private ItemStack getStack(ItemType type) {
+            for(int i = 0; i < stacks.size(); i++) {
+                if(stacks.get(i).type == type) {
+                    return stacks.get(i);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Gets the first added stack holding at least one item.
+         *
+         * @return the first non-empty stack, or null if every stack is empty
+         */
+        private ItemStack getFirstStack() {
+            for(int i = 0; i < stacks.size(); i++) {
+                if(stacks.get(i).quantity != 0) {
+                    return stacks.get(i);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A live read-only view of the names of the {@link Item Items} stored in an {@link Inventory}.
+     * <p>
+     * Names whose items have all been removed are skipped.
+     */
+    private class ItemNames extends AbstractSet<String> {
+
+        @Override
+        public int size() {
+            return nameCount;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof CharSequence && containsItem((CharSequence) o);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return items.entrySet().stream()
+                    .filter(entry -> entry.getValue().quantity != 0)
+                    .map(entry -> entry.getKey().toString())
+                    .iterator();
+        }
     }
 }
@@ -0,0 +1,136 @@
+package zuul.gameState;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that the steady-state paths of {@link Inventory} allocate nothing, for the "World of Zuul" application.
+ * <p>
+ * Usage: {@code java zuul.gameState.InventoryAllocationCheck [iterations]}
+ * <p>
+ * Each iteration finds an item by name with {@link Inventory#getItemOrNull} and takes it from a room's
+ * inventory into a character's inventory, looks it up by String and {@link StringBuilder} name and by
+ * {@link ItemType}, checks the names held and finds and drops it again, as the take and drop commands do. The iterations (default 1000000) are run several times so that they are
+ * compiled before the last run is measured with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes}.
+ * The check prints the bytes allocated and exits with status 1 if the measured run allocated
+ * more than {@value #MAX_BYTES_PER_ITERATION} bytes per iteration.
+ *
+ * @author Timothy Shelton
+ */
+public class InventoryAllocationCheck {
+
+    /**
+     * The most bytes the measured run may allocate per iteration, on average, for the check to pass.
+     * <p>
+     * This is below the size of the smallest object, so allocating on every iteration fails the check
+     * while the occasional allocation made by the virtual machine itself does not.
+     */
+    private static final double MAX_BYTES_PER_ITERATION = 1.0;
+
+    /**
+     * The number of runs made before the measured run so that the iterations are compiled.
+     */
+    private static final int WARM_UP_RUNS = 5;
+
+    /**
+     * The names of the items moved between the inventories.
+     */
+    private static final String[] ITEM_NAMES = {"book", "lamp", "key", "coin"};
+
+    /**
+     * Runs the check.
+     *
+     * @param args  the number of iterations to run, optional
+     */
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        if(!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("Thread allocation counting is not available in this virtual machine");
+            return;
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        if(!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Thread allocation counting is not available in this virtual machine");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ItemType[] types = new ItemType[ITEM_NAMES.length];
+        StringBuilder[] names = new StringBuilder[ITEM_NAMES.length];
+        Inventory roomInventory = new Inventory();
+        Inventory characterInventory = new Inventory(Integer.MAX_VALUE);
+
+        for(int i = 0; i < ITEM_NAMES.length; i++) {
+            types[i] = ItemType.of(ITEM_NAMES[i], 1);
+            names[i] = new StringBuilder(ITEM_NAMES[i]);
+            roomInventory.addItems(types[i], 2);
+        }
+
+        long checksum = 0;
+        for(int run = 0; run < WARM_UP_RUNS; run++) {
+            checksum += run(iterations, types, names, roomInventory, characterInventory);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        checksum += run(iterations, types, names, roomInventory, characterInventory);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        double bytesPerIteration = (double) allocated / iterations;
+        boolean passed = bytesPerIteration <= MAX_BYTES_PER_ITERATION;
+
+        System.out.printf("%d take/lookup/drop iterations allocated %d bytes (%.3f bytes/iteration): %s%n",
+                iterations, allocated, bytesPerIteration, passed ? "PASS" : "FAIL");
+
+        //use the checksum so the iterations cannot be optimised away
+        if(checksum == Long.MIN_VALUE) {
+            System.out.println(checksum);
+        }
+
+        if(!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Moves items from one inventory to the other and back, looking each up while it is held.
+     *
+     * @param iterations  the number of items to move
+     * @param types  the types of the items, not null
+     * @param names  the names of the types as StringBuilders, not null
+     * @param roomInventory  the inventory items are taken from, not null
+     * @param characterInventory  the inventory items are taken into, not null
+     * @return a value computed from the lookups
+     */
+    private static long run(int iterations, ItemType[] types, StringBuilder[] names,
+                            Inventory roomInventory, Inventory characterInventory) {
+        long checksum = 0;
+
+        for(int i = 0; i < iterations; i++) {
+            int next = i % types.length;
+            ItemType type = types[next];
+            //take, finding the item by name as the take command does
+            Item item = roomInventory.getItemOrNull(names[next]);
+            if(item != null && roomInventory.removeItems(item, 1) == 1) {
+                characterInventory.addItems(type, 1);
+            }
+
+            //look up
+            checksum += characterInventory.getQuantity(type);
+            checksum += characterInventory.getQuantity(names[next]);
+            checksum += characterInventory.containsItem(type.getName()) ? 1 : 0;
+            checksum += characterInventory.getItemNames().contains(names[next]) ? 1 : 0;
+            checksum += roomInventory.getTotalWeight() + characterInventory.getItemCount();
+
+            //drop, finding the item by name as the drop command does
+            item = characterInventory.getItemOrNull(names[next]);
+            if(item != null && characterInventory.removeItems(item, 1) == 1) {
+                roomInventory.addItems(type, 1);
+            }
+        }
+
+        return checksum;
+    }
+}
@@ -1,27 +1,18 @@
 package zuul.gameState;
 
-import java.util.Objects;
-
 /**
  * An Item in the "World of Zuul" application.
+ * <p>
+ * The name, weight and description of an Item are held by its {@link ItemType} and shared with every Item
+ * of the same type, so Items cannot be changed once created.
  *
  * @author Timothy Shelton
  */
 public class Item {
     /**
-     * The name of this Item.
+     * The type of this Item.
      */
-    private String name;
-
-    /**
-     * The weight of this Item.
-     */
-    private int weight;
-
-    /**
-     * The description of this Item.
-     */
-    private String description;
+    private final ItemType type;
 
     /**
      * Constructor with name and weight specified.
@@ -32,7 +23,7 @@ public class Item {
      * @param weight  the weight of this Item
      */
     public Item(String name, int weight) {
-        this(name, weight, "A " + name);
+        this(ItemType.of(name, weight));
     }
 
     /**
@@ -43,47 +34,47 @@ public class Item {
      * @param description  the description of this item, not null
      */
     public Item(String name, int weight, String description) {
-        this.name = name;
-        this.weight = weight;
-        this.description = description;
+        this(ItemType.of(name, weight, description));
     }
 
-    //Getters and Setters
-
     /**
-     * Gets the name of this Item.
+     * Constructor with type specified.
+     * <p>
+     * {@link ItemType#getItem} should be used instead where possible so that the type's Item is shared.
      *
-     * @return the name of this Item, not null
+     * @param type  the type of this Item, not null
      */
-    public String getName() {
-        return name;
+    public Item(ItemType type) {
+        this.type = type;
     }
 
+    //Getters
+
     /**
-     * Sets the name of this item to the specified value.
+     * Gets the type of this Item.
      *
-     * @param name  the name to set for this Item, not null
+     * @return the type of this Item, not null
      */
-    public void setName(String name) {
-        this.name = name;
+    public ItemType getType() {
+        return type;
     }
 
     /**
-     * Gets the weight of this Item.
+     * Gets the name of this Item.
      *
-     * @return the weight of this Item
+     * @return the name of this Item, not null
      */
-    public int getWeight() {
-        return weight;
+    public String getName() {
+        return type.getName();
     }
 
     /**
-     * Sets the weight of this Item. Performs no checks on the value of weight parameter.
+     * Gets the weight of this Item.
      *
-     * @param weight  the weight to set for this Item
+     * @return the weight of this Item
      */
-    public void setWeight(int weight) {
-        this.weight = weight;
+    public int getWeight() {
+        return type.getWeight();
     }
 
     /**
@@ -92,20 +83,11 @@ public class Item {
      * @return the description of this Item
      */
     public String getDescription() {
-        return description;
-    }
-
-    /**
-     * Sets the description of this Item.
-     *
-     * @param description  the description to set for this Item
-     */
-    public void setDescription(String description) {
-        this.description = description;
+        return type.getDescription();
     }
 
     /**
-     * Indicates if the given object reference is "equal to" this Item using {@link #name}.
+     * Indicates if the given object reference is "equal to" this Item using the id of its {@link ItemType}.
      *
      * The given object reference is considered "equal to" this if it:
      * <ul>
@@ -114,26 +96,38 @@ public class Item {
      * or
      * <ul>
      *     <li>is an instance of {@code Item}, and
-     *     <li>{@code o.name} {@link String#equals equals} {@code this.name}
+     *     <li>{@code o.type} has the same {@link ItemType#getId id} as {@code this.type}
      * </ul>
-     * Method automatically generated by IntelliJ Idea.
+     * Items of the same name but a different weight have different types, so they are not equal.
      *
      * @param o  the object to compare to this, not null
-     * @return true if o references this Item or o is an Item and
-     * {@code o.name} {@link String#equals equals} {@code this.name},
-     *          false otherwise.
+     * @return true if o references this Item or o is an Item of the same type, false otherwise.
      */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Item)) return false;
         Item item = (Item) o;
-        return name.equals(item.name);
+        return type.getId() == item.type.getId();
     }
 
+    /**
+     * Gets the hash code of this Item, which is the id of its {@link ItemType}.
+     *
+     * @return the id of this Item's type
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return type.getId();
+    }
+
+    /**
+     * Gets the id of this Item, which is the id of its {@link ItemType}.
+     *
+     * @return the id of this Item's type
+     */
+    public int getId() {
+        return type.getId();
     }
 
     /**
@@ -143,6 +137,6 @@ public class Item {
      */
     @Override
     public String toString() {
-        return name + '(' + weight + ')';
+        return type.toString();
     }
 }
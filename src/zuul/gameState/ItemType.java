@@ -0,0 +1,268 @@
+package zuul.gameState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The shared attributes of every {@link Item} of one kind in the "World of Zuul" application.
+ * <p>
+ * Item types are flyweights: each distinct name, weight and description is registered once and shared
+ * by every Item of that kind, so an {@link Inventory} can hold any number of identical items
+ * as a single type and quantity. Types are created with {@link #of} and are never removed from the registry.
+ * <p>
+ * Each registered type is given a dense integer id in registration order and can be found by it with {@link #byId}.
+ *
+ * @author Timothy Shelton
+ */
+public final class ItemType {
+
+    /**
+     * Every registered type by name, so that an equal type can be found without creating one to look it up.
+     * <p>
+     * The arrays are replaced rather than modified when a type is registered, so they can be read without locking.
+     */
+    private static final ConcurrentHashMap<String, ItemType[]> TYPES = new ConcurrentHashMap<>();
+
+    /**
+     * Every registered type, indexed by id.
+     */
+    private static final ArrayList<ItemType> TYPES_BY_ID = new ArrayList<>();
+
+    /**
+     * The id of this type, set when it is registered.
+     */
+    private int id = -1;
+
+    /**
+     * The name of items of this type.
+     */
+    private final String name;
+
+    /**
+     * The weight of one item of this type.
+     */
+    private final int weight;
+
+    /**
+     * The description of items of this type, or null if the default description has not yet been created.
+     */
+    private volatile String description;
+
+    /**
+     * The Item shared by every holder of an item of this type.
+     */
+    private final Item item;
+
+    /**
+     * Constructor
+     *
+     * @param name  the name of items of this type, not null
+     * @param weight  the weight of one item of this type
+     * @param description  the description of items of this type, or null to use the default description
+     */
+    private ItemType(String name, int weight, String description) {
+        this.name = Objects.requireNonNull(name);
+        this.weight = weight;
+        this.description = description;
+        this.item = new Item(this);
+    }
+
+    /**
+     * Gets the registered type with the specified name and weight and the default description "A {@code name}".
+     *
+     * @param name  the name of items of the type, not null
+     * @param weight  the weight of one item of the type
+     * @return the type with the specified attributes, registered if it was not already, not null
+     */
+    public static ItemType of(String name, int weight) {
+        return of(name, weight, null);
+    }
+
+    /**
+     * Gets the registered type with the specified name, weight and description.
+     *
+     * @param name  the name of items of the type, not null
+     * @param weight  the weight of one item of the type
+     * @param description  the description of items of the type, or null to use the default description
+     * @return the type with the specified attributes, registered if it was not already, not null
+     */
+    public static ItemType of(String name, int weight, String description) {
+        //most types are already registered, so look for one before taking the lock
+        ItemType type = find(TYPES.get(name), weight, description);
+        if(type != null) {
+            return type;
+        }
+
+        synchronized(TYPES_BY_ID) {
+            ItemType[] types = TYPES.get(name);
+            type = find(types, weight, description);
+            if(type != null) {
+                return type;
+            }
+
+            type = new ItemType(name, weight, description);
+            type.id = TYPES_BY_ID.size();
+            TYPES_BY_ID.add(type);
+
+            ItemType[] updatedTypes = types == null ? new ItemType[1] : Arrays.copyOf(types, types.length + 1);
+            updatedTypes[updatedTypes.length - 1] = type;
+            TYPES.put(name, updatedTypes);
+            return type;
+        }
+    }
+
+    /**
+     * Finds the type with the specified weight and description among types with the same name.
+     *
+     * @param types  the registered types with one name, or null if there are none
+     * @param weight  the weight of one item of the type
+     * @param description  the description of items of the type, or null for the default description
+     * @return the matching type, or null if none of the types match
+     */
+    private static ItemType find(ItemType[] types, int weight, String description) {
+        if(types == null) {
+            return null;
+        }
+
+        for(ItemType type : types) {
+            if(type.weight == weight && type.hasDescription(description)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the registered type with the specified id.
+     *
+     * @param id  the id of the type
+     * @return an Optional containing the type with the id if one has been registered, empty otherwise
+     */
+    public static Optional<ItemType> byId(int id) {
+        synchronized(TYPES_BY_ID) {
+            return id >= 0 && id < TYPES_BY_ID.size() ? Optional.of(TYPES_BY_ID.get(id)) : Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the number of registered types.
+     *
+     * @return the number of distinct item types created
+     */
+    public static int getRegisteredCount() {
+        synchronized(TYPES_BY_ID) {
+            return TYPES_BY_ID.size();
+        }
+    }
+
+    /**
+     * Gets the id of this type.
+     * <p>
+     * Ids are given out densely in registration order.
+     *
+     * @return the id of this type
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the name of items of this type.
+     *
+     * @return the name of this type, not null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the weight of one item of this type.
+     *
+     * @return the weight of this type
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets the description of items of this type.
+     *
+     * @return the description of this type, not null
+     */
+    public String getDescription() {
+        if(description == null) {
+            //create the default description only when it is needed
+            description = "A " + name;
+        }
+        return description;
+    }
+
+    /**
+     * Indicates if items of this type have the specified description, without creating the default description.
+     *
+     * @param description  the description to compare, or null for the default description
+     * @return true if this type's description is the one specified, false otherwise
+     */
+    private boolean hasDescription(String description) {
+        String ownDescription = this.description;
+
+        if(description == null || ownDescription == null) {
+            //at least one side is the default description, so compare the other with it
+            String other = description == null ? ownDescription : description;
+            return other == null || isDefaultDescription(other);
+        }
+        return description.equals(ownDescription);
+    }
+
+    /**
+     * Indicates if a description is the default description "A {@code name}" of this type, without creating it.
+     *
+     * @param description  the description to compare, not null
+     * @return true if the description is this type's default description, false otherwise
+     */
+    private boolean isDefaultDescription(String description) {
+        return description.length() == name.length() + 2 && description.startsWith("A ") && description.endsWith(name);
+    }
+
+    /**
+     * Gets the {@link Item} shared by every holder of an item of this type.
+     *
+     * @return the item of this type, not null
+     */
+    public Item getItem() {
+        return item;
+    }
+
+    /**
+     * Indicates if the given object reference is an ItemType with the same name, weight and description as this.
+     *
+     * @param o  the object to compare to this
+     * @return true if o is an ItemType with the same attributes as this, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemType)) return false;
+        ItemType type = (ItemType) o;
+        return weight == type.weight && name.equals(type.name) && getDescription().equals(type.getDescription());
+    }
+
+    @Override
+    public int hashCode() {
+        //the description is left out so the default description is only created when types are compared
+        return 31 * name.hashCode() + weight;
+    }
+
+    /**
+     * Creates and returns a String that represents this type.
+     *
+     * @return the String "{@code this.name} ({@code this.weight})", not null
+     */
+    @Override
+    public String toString() {
+        return name + '(' + weight + ')';
+    }
+}
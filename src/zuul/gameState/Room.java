@@ -4,7 +4,10 @@ import zuul.GameInterface;
 import zuul.GameText;
 import zuul.gameState.characters.Character;
 
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -14,13 +17,24 @@ import java.util.stream.Collectors;
  * It is connected to other rooms via exits.
  * For each exit direction, the room stores a reference to the neighboring room.
  * The room has an inventory that can store items.
- * The room stores a list of {@link Character Characters} it contains.
+ * The room stores a list of {@link Character Characters} it contains,
+ * replaced rather than modified when a character enters or leaves so that it can be read without copying.
  * 
  * @author  Michael Kolling and David J. Barnes
  * @author Timothy Shelton
  */
 public class Room {
 
+    /**
+     * Every direction, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The id of this Room on its {@link zuul.gameState.maps.Map}, or -1 if it has not been added to one.
+     */
+    private int id;
+
     /**
      * The name of this Room.
      */
@@ -32,11 +46,29 @@ public class Room {
     private String description;
 
     /**
-     * All exits from this room.
+     * All exits from this room, null while this room is in an {@link ExitGraph}.
      *
-     * HashMap ensures all exit directions are unique.
+     * EnumMap ensures all exit directions are unique and keeps them in {@link Direction} order.
      */
-    private final HashMap<String, Room> exits;
+    EnumMap<Direction, Room> exits;
+
+    /**
+     * Every room with an exit leading to this room, listed once for each such exit.
+     * Null while this room is in an {@link ExitGraph}.
+     * <p>
+     * Kept in step with the exits of those rooms so this room can be unlinked by visiting only its neighbours.
+     */
+    ArrayList<Room> entrances;
+
+    /**
+     * The compact graph holding the exits of this room, null if the exits are held by this room.
+     */
+    private ExitGraph exitGraph;
+
+    /**
+     * The id of this room in {@link #exitGraph}.
+     */
+    private int exitGraphId;
 
     /**
      * An inventory to store items held by this room
@@ -44,9 +76,34 @@ public class Room {
     private final Inventory inventory;
 
     /**
-     * A list of each {@link Character} currently in this room.
+     * A read-only snapshot of each {@link Character} currently in this room, indexed by name.
+     * <p>
+     * The snapshot is never modified, a new one is created whenever a character enters or leaves this room
+     * so that readers can share it without copying.
+     */
+    private volatile Occupants occupants;
+
+    /**
+     * The number of times the exits of this room have been changed.
+     */
+    private int exitsVersion;
+
+    /**
+     * The text last printed by {@link #printInfo}, or null if this room has not been printed.
+     * <p>
+     * Volatile as a room may be printed by the sessions of several threads.
      */
-    private final ArrayList<Character> characters;
+    private volatile RenderedInfo renderedInfo;
+
+    /**
+     * The number of times {@link #printInfo} has printed cached text, for every room.
+     */
+    private static final LongAdder renderCacheHits = new LongAdder();
+
+    /**
+     * The number of times {@link #printInfo} has had to render its text, for every room.
+     */
+    private static final LongAdder renderCacheMisses = new LongAdder();
 
     /**
      * Creates a room with name "name" and described "description".
@@ -58,10 +115,25 @@ public class Room {
      * @param description  the room's description, not null
      */
     public Room(String name, String description) {
+        this(-1, name, description);
+    }
+
+    /**
+     * Creates a room with the specified id, for rooms whose id is chosen by their map when they are created.
+     * <p>
+     * This lets a room that is recreated from storage keep the id it was first given.
+     *
+     * @param id  the id of the room on its map
+     * @param name  the name of the room, not null
+     * @param description  the room's description, not null
+     */
+    protected Room(int id, String name, String description) {
+        this.id = id;
         this.name = name;
-        this.exits = new HashMap<String, Room>();
+        this.exits = new EnumMap<Direction, Room>(Direction.class);
+        this.entrances = new ArrayList<Room>();
         this.description = description;
-        this.characters = new ArrayList<Character>();
+        this.occupants = Occupants.EMPTY;
         this.inventory = new Inventory();
     }
 
@@ -74,11 +146,11 @@ public class Room {
      * @param directions  the set of exit directions, not null
      * @param rooms  the set of rooms lead to by the exit directions, not null
      */
-    public void setExits(String[] directions, Room[] rooms) {
+    public void setExits(Direction[] directions, Room[] rooms) {
 
         if (directions.length > rooms.length) {
             //not every exit leads to a room!
-            GameInterface.get().update("room error exitNoRoom");
+            GameInterface.update("room error exitNoRoom");
             zuul.io.Out.println(GameText.getString("exitNoRoomError"));
             return;
         }
@@ -86,7 +158,7 @@ public class Room {
         for(int i = 0; i < directions.length; i++) {
             if(rooms[i] == null){
                 //next exit would not lead to a room!
-                GameInterface.get().update("room error exitNoRoom");
+                GameInterface.update("room error exitNoRoom");
                 zuul.io.Out.println(GameText.getString("exitNoRoomError"));
                 return;
             }
@@ -101,8 +173,22 @@ public class Room {
      * @param direction  the direction of the exit, not null
      * @param room  the room the exit leads to, not null
      */
-    public void addExit(String direction, Room room) {
-        this.exits.put(direction, room);
+    public void addExit(Direction direction, Room room) {
+        //compacted exits cannot be added to so are expanded first
+        if(this.exitGraph != null) {
+            this.exitGraph.expand();
+        }
+        if(room.exitGraph != null) {
+            room.exitGraph.expand();
+        }
+
+        Room replaced = this.exits.put(direction, room);
+        exitsChanged();
+
+        if(replaced != null) {
+            replaced.entrances.remove(this);
+        }
+        room.entrances.add(this);
     }
 
     /**
@@ -115,29 +201,42 @@ public class Room {
     }
 
     /**
-     * Gets a shallow copy of the list of each {@link Character} in the room.
+     * Gets a read-only snapshot of the list of each {@link Character} in the room.
      * <p>
-     * Only a shallow copy is performed so that Characters are not duplicated.
+     * The snapshot is shared rather than copied and does not change if characters later enter or leave the room.
      *
      * @return the list characters currently in the room, not null
      */
-    public ArrayList<Character> getCharacters() {
-        return (ArrayList<Character>) characters.clone();
+    public List<Character> getCharacters() {
+        return occupants.characters;
     }
 
     /**
      * Gets the {@link Character} specified by name if it is in this room.
      * <p>
-     * Always returns
+     * If more than one character in this room has the name then the one that entered first is returned.
      *
      * @param name  the name of the character to find, not null
      * @return an Optional containing the Character with the name specified if found in this room's state,
      *          an empty optional otherwise, not null
      */
     public Optional<Character> getCharacter(String name){
-        return characters.stream()
-                .filter(character -> character.getName().equals(name))
-                .findAny();
+        return Optional.ofNullable(occupants.charactersByName.get(name));
+    }
+
+    /**
+     * Gets the {@link Character} whose name matches the specified name, ignoring case, if it is in this room.
+     * <p>
+     * Names are compared with the {@link GameText#getCollator collator} of the current locale at
+     * {@link Collator#SECONDARY secondary} strength, so "&Eacute;mile" matches "&eacute;mile" but not "emile".
+     * If more than one character in this room matches then the one that entered first is returned.
+     *
+     * @param name  the name of the character to find, not null
+     * @return an Optional containing a Character matching the name specified if found in this room's state,
+     *          an empty optional otherwise, not null
+     */
+    public Optional<Character> getCharacterIgnoringCase(String name) {
+        return occupants.getCharacterIgnoringCase(name);
     }
 
     /**
@@ -147,22 +246,52 @@ public class Room {
      * @return an Optional containing the room in direction exit or null if it doesn't exist
      */
 
-    public Optional<Room> getExit(String exit) {
-        //Check if exit exists
-        if (!this.exits.containsKey(exit)) {
-            return Optional.empty();
+    public Optional<Room> getExit(Direction exit) {
+        return Optional.ofNullable(getExitOrNull(exit));
+    }
+
+    /**
+     * Gets the Room in the direction specified without wrapping it, for code run on every turn of many characters.
+     *
+     * @param exit  the direction of exit from this room to retrieve the corresponding room for
+     * @return the room in direction exit, or null if there is no exit in that direction
+     */
+    public Room getExitOrNull(Direction exit) {
+        if(exitGraph != null) {
+            return exitGraph.getExitOrNull(exitGraphId, exit);
         }
 
-        //the exit exists so return the room it leads to
-        return Optional.of(this.exits.get(exit));
+        return this.exits.get(exit);
+    }
+
+    /**
+     * Gets the directions of all exits from this room without creating a set.
+     *
+     * @return the {@link Direction#getMask} bit of each exit direction combined, 0 if this room has no exits
+     */
+    public int getExitMask() {
+        if(exitGraph != null) {
+            return exitGraph.getExitMask(exitGraphId);
+        }
+
+        int mask = 0;
+        for(Direction direction : DIRECTIONS) {
+            if(exits.containsKey(direction)) {
+                mask |= direction.getMask();
+            }
+        }
+        return mask;
     }
 
     /**
      * Gets the set of directions for all exits from this room.
      *
-     * @return a set containing the direction of each exit from this room
+     * @return a set containing the direction of each exit from this room, in {@link Direction} order
      */
-    public Set<String> getExitDirections() {
+    public Set<Direction> getExitDirections() {
+        if(exitGraph != null) {
+            return exitGraph.getExitDirections(exitGraphId);
+        }
         return exits.keySet();
     }
 
@@ -170,22 +299,91 @@ public class Room {
      * Prints the state of this room.
      * <p>
      * The state of this room includes the description, exits, and {@link Inventory} of this Room.
+     * The text is rendered once and printed again from a cache until the locale, exits, inventory or
+     * characters of this room change.
      */
     public void printInfo() {
-        zuul.io.Out.println("You are " + getDescription());
-        zuul.io.Out.print(GameText.getString("exitsDisplay"));
-        zuul.io.Out.print(String.join(" ", exits.keySet()));
-        zuul.io.Out.println();
-        zuul.io.Out.print(GameText.getString("itemsDisplay"));
-        if (inventory != null) {
-            zuul.io.Out.print(inventory);
+        Locale locale = GameText.getLocale();
+        int exitsVersion = getExitsVersion();
+        int inventoryVersion = inventory.getModificationCount();
+        Occupants occupants = this.occupants;
+        RenderedInfo rendered = renderedInfo;
+
+        if(rendered != null && rendered.isCurrent(locale, exitsVersion, inventoryVersion, occupants)) {
+            renderCacheHits.increment();
+        } else {
+            renderCacheMisses.increment();
+            rendered = new RenderedInfo(locale, exitsVersion, inventoryVersion, occupants, renderInfo(occupants));
+            renderedInfo = rendered;
         }
-        zuul.io.Out.println();
-        zuul.io.Out.print(GameText.getString("charactersDisplay"));
-        if (characters != null && characters.size() != 0) {
-            zuul.io.Out.println(characters.stream().map(Character::toString).collect(Collectors.joining(", ")));
+
+        zuul.io.Out.print(rendered.text);
+    }
+
+    /**
+     * Creates the text printed by {@link #printInfo}.
+     *
+     * @param occupants  the characters to list, not null
+     * @return the state of this room with a line break after each line, not null
+     */
+    private String renderInfo(Occupants occupants) {
+        String lineBreak = System.lineSeparator();
+        StringBuilder text = new StringBuilder();
+
+        text.append(GameText.getString("descriptionDisplay")).append(getDescription()).append(lineBreak);
+        text.append(GameText.getString("exitsDisplay"));
+        text.append(getExitDirections().stream()
+                .map(Direction::getLocalizedName)
+                .collect(Collectors.joining(" ")));
+        text.append(lineBreak);
+        text.append(GameText.getString("itemsDisplay")).append(inventory).append(lineBreak);
+        text.append(GameText.getString("charactersDisplay"));
+        if (occupants.characters.size() != 0) {
+            text.append(occupants.characters.stream()
+                    .map(Character::toString)
+                    .collect(Collectors.joining(", ")));
+            text.append(lineBreak);
         }
-        zuul.io.Out.println();
+        text.append(lineBreak);
+
+        return text.toString();
+    }
+
+    /**
+     * Gets the number of times {@link #printInfo} has printed cached text, for every room.
+     *
+     * @return the number of cache hits since the application started
+     */
+    public static long getRenderCacheHits() {
+        return renderCacheHits.sum();
+    }
+
+    /**
+     * Gets the number of times {@link #printInfo} has had to render its text, for every room.
+     *
+     * @return the number of cache misses since the application started
+     */
+    public static long getRenderCacheMisses() {
+        return renderCacheMisses.sum();
+    }
+
+    /**
+     * Gets a number that changes whenever the exits of this room are changed.
+     * <p>
+     * Subclasses whose exits can change without {@link #exitsChanged} being called must include
+     * the source of those changes in the value returned.
+     *
+     * @return the version of this room's exits
+     */
+    protected int getExitsVersion() {
+        return exitsVersion;
+    }
+
+    /**
+     * Records that the exits of this room have been changed so that cached text describing them is not reused.
+     */
+    protected void exitsChanged() {
+        exitsVersion++;
     }
 
     /**
@@ -193,8 +391,34 @@ public class Room {
      *
      * @param character the Character to ensure is in this room
      */
-    public void addCharacter(Character character) {
-        this.characters.add(character);
+    public synchronized void addCharacter(Character character) {
+        //copy on write so existing snapshots are not changed
+        List<Character> characters = occupants.characters;
+        ArrayList<Character> updatedCharacters = new ArrayList<>(characters.size() + 1);
+        updatedCharacters.addAll(characters);
+        updatedCharacters.add(character);
+        occupants = new Occupants(updatedCharacters);
+    }
+
+    /**
+     * Ensures that each of the specified {@link Character Characters} is part of this Room's state.
+     * <p>
+     * The characters are added with a single copy, so this is much cheaper than adding each in turn
+     * when many characters enter at once.
+     *
+     * @param charactersToAdd the Characters to ensure are in this room, not null
+     */
+    public synchronized void addCharacters(Collection<? extends Character> charactersToAdd) {
+        if(charactersToAdd.isEmpty()) {
+            return;
+        }
+
+        //copy on write so existing snapshots are not changed
+        List<Character> characters = occupants.characters;
+        ArrayList<Character> updatedCharacters = new ArrayList<>(characters.size() + charactersToAdd.size());
+        updatedCharacters.addAll(characters);
+        updatedCharacters.addAll(charactersToAdd);
+        occupants = new Occupants(updatedCharacters);
     }
 
     /**
@@ -202,8 +426,41 @@ public class Room {
      *
      * @param character The character to remove.
      */
-    public void removeCharacter(Character character) {
-        this.characters.remove(character);
+    public synchronized void removeCharacter(Character character) {
+        List<Character> characters = occupants.characters;
+        int index = characters.indexOf(character);
+
+        if(index == -1) {
+            return;
+        }
+
+        //copy on write so existing snapshots are not changed
+        ArrayList<Character> updatedCharacters = new ArrayList<>(characters);
+        updatedCharacters.remove(index);
+        occupants = updatedCharacters.isEmpty() ? Occupants.EMPTY : new Occupants(updatedCharacters);
+    }
+
+    /**
+     * Removes each of the specified {@link Character Characters} from this room.
+     * <p>
+     * The characters are removed with a single copy, so this is much cheaper than removing each in turn
+     * when many characters leave at once.
+     *
+     * @param charactersToRemove the Characters to remove, not null
+     */
+    public synchronized void removeCharacters(Collection<? extends Character> charactersToRemove) {
+        if(charactersToRemove.isEmpty()) {
+            return;
+        }
+
+        //match the exact characters given without hashing each occupant
+        Set<Character> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        removed.addAll(charactersToRemove);
+
+        //copy on write so existing snapshots are not changed
+        ArrayList<Character> updatedCharacters = new ArrayList<>(occupants.characters);
+        updatedCharacters.removeIf(removed::contains);
+        occupants = updatedCharacters.isEmpty() ? Occupants.EMPTY : new Occupants(updatedCharacters);
     }
 
     /**
@@ -218,7 +475,7 @@ public class Room {
     }
 
     /**
-     * Indicates if the given object reference is "equal to" this Room using {@link #name}.
+     * Indicates if the given object reference is "equal to" this Room using its {@link #getId id}.
      * <p>
      * The given object reference is considered "equal to" this if it:
      * <ul>
@@ -227,25 +484,55 @@ public class Room {
      * or
      * <ul>
      *     <li>is an instance of {@code Room}, and
-     *     <li>{@code o.name} {@link String#equals equals} {@code this.name}
+     *     <li>{@code o.id} is the id given to {@code this} by its map
      * </ul>
-     * (Method automatically generated by IntelliJ Idea.)
+     * Ids are given per map, so only rooms of the same map should be compared.
+     * A room that has not been added to a map is only equal to itself.
      *
      * @param o  the object to compare to this
-     * @return true if {@code o == this} or {@code o} is a Room and
-     * {@code o.name} {@link String#equals equals} {@code this.name}, false otherwise
+     * @return true if {@code o == this} or {@code o} is a Room with the same map id as this, false otherwise
      */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Room)) return false;
         Room room = (Room) o;
-        return Objects.equals(name, room.name);
+        return id != -1 && id == room.id;
     }
 
+    /**
+     * Gets the hash code of this Room, which is its {@link #getId id}.
+     * <p>
+     * The id is given when the room is added to a map, so a room should not be kept in a hashed collection
+     * before then.
+     *
+     * @return the id of this room
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return id;
+    }
+
+    /**
+     * Gets the id of this room on its {@link zuul.gameState.maps.Map}.
+     * <p>
+     * Each map gives its rooms dense ids from 0 in the order they are added to it.
+     *
+     * @return the id of this room, or -1 if it has not been added to a map
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the id of this room.
+     * <p>
+     * This should only be called by the {@link zuul.gameState.maps.Map} this room is added to.
+     *
+     * @param id  the id of this room on its map
+     */
+    public void setId(int id) {
+        this.id = id;
     }
 
     /**
@@ -263,8 +550,11 @@ public class Room {
      * @return true if this room has at least one exit linked to a room, false otherwise
      */
     public boolean hasExits() {
-        return this.exits.keySet().size() > 0 &&
-                this.exits.entrySet().stream().anyMatch(entry -> entry.getValue() != null);
+        if(exitGraph != null) {
+            return exitGraph.hasExits(exitGraphId);
+        }
+        //every exit added leads to a room
+        return !this.exits.isEmpty();
     }
 
     /**
@@ -273,6 +563,273 @@ public class Room {
       * @param room the destination of exits from this room to remove
      */
     public void removeExit(Room room) {
-        exits.entrySet().removeIf(entry -> entry.getValue().equals(room));
+        exitsChanged();
+
+        if(exitGraph != null) {
+            exitGraph.removeExit(exitGraphId, room);
+            return;
+        }
+
+        Iterator<Room> exitRooms = exits.values().iterator();
+
+        while(exitRooms.hasNext()) {
+            Room exitRoom = exitRooms.next();
+
+            if(exitRoom.equals(room)) {
+                exitRooms.remove();
+                exitRoom.entrances.remove(this);
+            }
+        }
+    }
+
+    /**
+     * Removes every exit from this room.
+     */
+    public void removeAllExits() {
+        exitsChanged();
+
+        if(exitGraph != null) {
+            exitGraph.removeAllExits(exitGraphId);
+            return;
+        }
+        exits.values().forEach(exitRoom -> exitRoom.entrances.remove(this));
+        exits.clear();
+    }
+
+    /**
+     * Gets a read-only list of every room with an exit leading to this room.
+     * <p>
+     * A room is listed once for each of its exits that leads to this room.
+     *
+     * @return the rooms with exits leading to this room, not null
+     */
+    public List<Room> getEntrances() {
+        if(exitGraph != null) {
+            return exitGraph.getEntrances(exitGraphId);
+        }
+        return Collections.unmodifiableList(entrances);
+    }
+
+    /**
+     * Removes every exit leading to this room from its neighbouring rooms and every exit from this room.
+     * <p>
+     * Only the rooms linked to this room are visited.
+     */
+    public void unlink() {
+        //copy the entrances as removing an exit also removes its entrance
+        new ArrayList<>(getEntrances()).forEach(entrance -> entrance.removeExit(this));
+        removeAllExits();
+    }
+
+    /**
+     * Gets the compact graph holding the exits of this room.
+     *
+     * @return the graph holding this room's exits, or null if the exits are held by this room
+     */
+    public ExitGraph getExitGraph() {
+        return exitGraph;
+    }
+
+    /**
+     * Gets the id of this room in its {@link ExitGraph}.
+     *
+     * @return the id of this room in the graph holding its exits
+     */
+    int getExitGraphId() {
+        return exitGraphId;
+    }
+
+    /**
+     * Moves the exits of this room into or out of an {@link ExitGraph}.
+     * <p>
+     * This room's own exit collections are released while it is in a graph
+     * and recreated empty when it leaves one, ready for the graph to add its exits back.
+     *
+     * @param exitGraph  the graph now holding this room's exits, or null if this room holds them
+     * @param exitGraphId  the id of this room in the graph
+     */
+    void setExitGraph(ExitGraph exitGraph, int exitGraphId) {
+        this.exitGraph = exitGraph;
+        this.exitGraphId = exitGraphId;
+
+        if(exitGraph == null) {
+            this.exits = new EnumMap<Direction, Room>(Direction.class);
+            this.entrances = new ArrayList<Room>();
+        } else {
+            this.exits = null;
+            this.entrances = null;
+        }
+    }
+
+    /**
+     * The text printed by {@link #printInfo} and the state of the room it was rendered from.
+     */
+    private static class RenderedInfo {
+
+        /**
+         * The locale the text was rendered in.
+         */
+        private final Locale locale;
+
+        /**
+         * The version of the room's exits when the text was rendered.
+         */
+        private final int exitsVersion;
+
+        /**
+         * The modification count of the room's inventory when the text was rendered.
+         */
+        private final int inventoryVersion;
+
+        /**
+         * The characters in the room when the text was rendered.
+         */
+        private final Occupants occupants;
+
+        /**
+         * The rendered text.
+         */
+        private final String text;
+
+        /**
+         * Constructor
+         *
+         * @param locale  the locale the text was rendered in
+         * @param exitsVersion  the version of the room's exits
+         * @param inventoryVersion  the modification count of the room's inventory
+         * @param occupants  the characters in the room, not null
+         * @param text  the rendered text, not null
+         */
+        private RenderedInfo(Locale locale, int exitsVersion, int inventoryVersion, Occupants occupants, String text) {
+            this.locale = locale;
+            this.exitsVersion = exitsVersion;
+            this.inventoryVersion = inventoryVersion;
+            this.occupants = occupants;
+            this.text = text;
+        }
+
+        /**
+         * Indicates if the text was rendered from the given state of the room.
+         *
+         * @param locale  the current locale
+         * @param exitsVersion  the current version of the room's exits
+         * @param inventoryVersion  the current modification count of the room's inventory
+         * @param occupants  the current characters in the room, not null
+         * @return true if the text describes the given state, false otherwise
+         */
+        private boolean isCurrent(Locale locale, int exitsVersion, int inventoryVersion, Occupants occupants) {
+            return Objects.equals(this.locale, locale) && this.exitsVersion == exitsVersion
+                    && this.inventoryVersion == inventoryVersion && this.occupants == occupants;
+        }
+    }
+
+    /**
+     * An unchanging snapshot of the {@link Character Characters} in a room, indexed by name.
+     */
+    private static class Occupants {
+
+        /**
+         * A snapshot with no characters.
+         */
+        private static final Occupants EMPTY = new Occupants(new ArrayList<>());
+
+        /**
+         * The characters in the room in the order they entered.
+         */
+        private final List<Character> characters;
+
+        /**
+         * The first character to enter the room with each name.
+         */
+        private final java.util.Map<String, Character> charactersByName;
+
+        /**
+         * The characters indexed by collation key, created when first needed and
+         * replaced if the locale has changed since.
+         */
+        private volatile CollatedNames collatedNames;
+
+        /**
+         * Constructor
+         *
+         * @param characters  the characters in the room in the order they entered, not modified after, not null
+         */
+        private Occupants(ArrayList<Character> characters) {
+            this.characters = Collections.unmodifiableList(characters);
+            this.charactersByName = new HashMap<>(characters.size() * 4 / 3 + 1);
+
+            for(Character character : characters) {
+                charactersByName.putIfAbsent(character.getName(), character);
+            }
+        }
+
+        /**
+         * Gets the first character to enter the room whose name matches the specified name at secondary strength.
+         *
+         * @param name  the name of the character to find, not null
+         * @return an Optional containing a matching Character if found, an empty optional otherwise
+         */
+        private Optional<Character> getCharacterIgnoringCase(String name) {
+            if(characters.isEmpty()) {
+                return Optional.empty();
+            }
+
+            CollatedNames names = collatedNames;
+
+            if(names == null || names.localeCollator != GameText.getCollator()) {
+                names = new CollatedNames(GameText.getCollator(), characters);
+                collatedNames = names;
+            }
+
+            return Optional.ofNullable(names.get(name));
+        }
+    }
+
+    /**
+     * The {@link Character Characters} of an {@link Occupants} snapshot indexed by the collation key of their name.
+     */
+    private static class CollatedNames {
+
+        /**
+         * The collator of the locale the index was created for.
+         */
+        private final Collator localeCollator;
+
+        /**
+         * The collator used to create keys, a copy of the locale collator at secondary strength.
+         */
+        private final Collator collator;
+
+        /**
+         * The first character with each collation key.
+         */
+        private final java.util.Map<CollationKey, Character> charactersByKey;
+
+        /**
+         * Constructor
+         *
+         * @param localeCollator  the collator of the current locale, not null
+         * @param characters  the characters to index, not null
+         */
+        private CollatedNames(Collator localeCollator, List<Character> characters) {
+            this.localeCollator = localeCollator;
+            this.collator = (Collator) localeCollator.clone();
+            this.collator.setStrength(Collator.SECONDARY);
+            this.charactersByKey = new HashMap<>(characters.size() * 4 / 3 + 1);
+
+            for(Character character : characters) {
+                charactersByKey.putIfAbsent(collator.getCollationKey(character.getName()), character);
+            }
+        }
+
+        /**
+         * Gets the first character whose name has the same collation key as the specified name.
+         *
+         * @param name  the name to find, not null
+         * @return the matching character, or null if there is none
+         */
+        private Character get(String name) {
+            return charactersByKey.get(collator.getCollationKey(name));
+        }
     }
 }
@@ -1,20 +1,20 @@
 package zuul.gameState.characters;
 
-import zuul.commands.Command;
 import zuul.gameState.Inventory;
 import zuul.gameState.Item;
 import zuul.gameState.maps.Map;
 import zuul.gameState.Room;
 
-import java.util.Objects;
-import java.util.Optional;
 
 /**
  * A Character in the "World of Zuul" application.
- * This represents a generic character in the game including state and functionality common to all types of character.
+ * This represents a generic character in the game including functionality common to all types of character.
  * Examples of concrete subclasses of this are {@link zuul.gameState.characters.Player} (a user-controlled character) and
  * {@link zuul.gameState.characters.NPC} (an AI-controlled character).
  * <p>
+ * This class only holds the id of the character. Its name, room and {@link Inventory} are provided by subclasses,
+ * either from fields of their own as {@link StandaloneCharacter} does, or from storage shared by many characters.
+ * <p>
  * Characters must exist in a {@link Room} and are part of the {@link Map} state.
  *
  * @author Timothy Shelton
@@ -22,73 +22,44 @@ import java.util.Optional;
 public abstract class Character {
 
     /**
-     * The name of this character.
-     */
-    private String name;
-
-    /**
-     * The {@link Room} this character is currently in.
+     * The id of this character on its {@link Map}, or -1 if it has not been added to one.
      */
-    private Room currentRoom;
-
-    /**
-     * An {@link Inventory} to store items held by this character
-     */
-    private Inventory inventory;
-
-    /**
-     * The {@link Command} currently being processed by this character, may be null.
-     */
-    private Command runningCommand;
-
-
-    /**
-     * Constructor creates a character with name and starting {@link Room} specified.
-     *
-     * @param name  name of this character
-     * @param startingRoom  the room that this character should start in
-     */
-    public Character(String name, Room startingRoom) {
-        this.name = name;
-        this.currentRoom = startingRoom;
-        startingRoom.addCharacter(this);
-        this.inventory = new Inventory();
-        this.runningCommand = null;
-    }
+    private int id = -1;
 
     /**
      * Gets the {@link Room} this character is currently in.
      *
-     * @return the current room this character is in
+     * @return the current room this character is in, null only if that room has been removed from its map
      */
-    public Room getCurrentRoom() {
-        return currentRoom;
-    }
+    public abstract Room getCurrentRoom();
 
     /**
      * Sets the {@link Room} this character is currently in.
      *
      * @param nextRoom  the room to set this character to be in
      */
-    public void setCurrentRoom(Room nextRoom) {
-        this.currentRoom = nextRoom;
-    }
+    public abstract void setCurrentRoom(Room nextRoom);
 
     /**
      * Moves this Character into the specified {@link Room}.
+     * <p>
+     * A character whose room has been removed from its map is only added to the specified room.
      *
      * @param nextRoom  the Room to move this Character to
      */
     public void moveRoom(Room nextRoom) {
         //move out of current room
-        this.currentRoom.removeCharacter(this);
+        Room currentRoom = getCurrentRoom();
+        if (currentRoom != null) {
+            currentRoom.removeCharacter(this);
+        }
         //move into next room
         setCurrentRoom(nextRoom);
         nextRoom.addCharacter(this);
     }
 
     /**
-     * Indicates if the specified object reference is "equal to" this Character using {@link #name}.
+     * Indicates if the specified object reference is "equal to" this Character using its {@link #getId id}.
      * <p>
      * The given object reference is considered "equal to" this if it:
      * <ul>
@@ -97,56 +68,72 @@ public abstract class Character {
      * or
      * <ul>
      *     <li>is an instance of {@code Character}, and
-     *     <li>{@code o.name} {@link String#equals equals} {@code this.name}
+     *     <li>{@code o.id} is the id given to {@code this} by its map
      * </ul>
-     * (Method automatically generated by IntelliJ Idea.)
+     * Ids are given per map, so only characters of the same map should be compared.
+     * Characters with the same name are different characters, and a character
+     * that has not been added to a map is only equal to itself.
      *
      * @param o  the object to compare to this
-     * @return true if {@code o == this} or {@code o} is a Character and
-     * {@code o.name} {@link String#equals equals} {@code this.name}, false otherwise
+     * @return true if {@code o == this} or {@code o} is a Character with the same map id as this, false otherwise
      */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Character)) return false;
         Character character = (Character) o;
-        return name.equals(character.name);
+        return id != -1 && id == character.id;
     }
 
+    /**
+     * Gets the hash code of this Character, which is its {@link #getId id}.
+     * <p>
+     * The id is given when the character is added to a map, so a character should not be kept
+     * in a hashed collection before then.
+     *
+     * @return the id of this character
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return id;
     }
 
     /**
-     * Gets the name of this character.
+     * Gets the id of this character on its {@link Map}.
+     * <p>
+     * Each map gives its characters dense ids from 0 in the order they are added to it.
      *
-     * @return the name of this character
+     * @return the id of this character, or -1 if it has not been added to a map
      */
-    public String getName() {
-        return this.name;
+    public int getId() {
+        return id;
     }
 
     /**
-     * Gets the {@link Command} currently being processed by this character.
+     * Sets the id of this character.
+     * <p>
+     * This should only be called by the {@link Map} this character is added to.
      *
-     * @return an Optional containing the current command being processed if it is not null, an empty Optional otherwise
+     * @param id  the id of this character on its map
      */
-    public Optional<Command> getRunningCommand() {
-        if (this.runningCommand == null) {
-            return Optional.empty();
-        } else {
-            return Optional.of(this.runningCommand);
-        }
+    public void setId(int id) {
+        this.id = id;
     }
 
+    /**
+     * Gets the name of this character.
+     *
+     * @return the name of this character
+     */
+    public abstract String getName();
+
     /**
      * Creates and returns a String that contains the name of this Character.
      *
      * @return the name of this character
      */
     public String toString() {
-        return this.name;
+        return getName();
     }
 
     /**
@@ -156,31 +143,14 @@ public abstract class Character {
      *
      * @return The character's inventory.
      */
-    public Inventory getInventory() {
-        return inventory;
-    }
+    public abstract Inventory getInventory();
 
     /**
      * Attempts to perform an action.
      * <p>
-     * User-controlled characters should generate and process a {@link Command}.
+     * User-controlled characters should generate and process a {@link zuul.commands.Command Command}.
      * <p>
      * AI-controlled characters should process the next step of their behaviour.
      */
     public abstract void act();
-
-    /**
-     * Processes (that is: executes) the specified {@link Command} on this character.
-     * <p>
-     * {@code this.runningCommand} is set to the specified command for the duration of its execution.
-     *
-     * @param command the command to be processed
-     * @return true if the command executed properly, false otherwise
-     */
-    protected boolean processCommand(Command command) {
-        this.runningCommand = command; //set the current running command
-        boolean result = command.execute(this); //execute the command
-        this.runningCommand = null; //reset the current running command
-        return result;
-    }
 }
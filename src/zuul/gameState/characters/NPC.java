@@ -12,7 +12,7 @@ import zuul.gameState.Room;
  *
  * @author Timothy Shelton
  */
-public class NPC extends Character {
+public class NPC extends StandaloneCharacter {
     //private npcBehaviour = behaviour;
 
     /**
@@ -4,15 +4,29 @@ import zuul.*;
 import zuul.commands.Command;
 import zuul.gameState.Room;
 
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
 /**
  * A user-controlled {@link Character} for the "World of Zuul" application.
  * <p>
+ * If the {@link Game} has an input deadline the player takes its commands from an inbox
+ * that lines of input are {@link #submit submitted} to, and does nothing on a turn when no command is waiting.
+ * The inbox is drained without blocking, so the game rather than the player waits out the rest of the turn.
+ * Otherwise the player waits for input from the {@link Parser} on every turn.
  *
  * @author Timothy Shelton
  */
-public class Player extends Character {
+public class Player extends StandaloneCharacter {
+
+    /**
+     * The lines of input submitted for this player that have not yet been acted on.
+     */
+    private final BlockingQueue<String> inbox = new LinkedBlockingQueue<>();
+
     /**
-     * Constructor initialises the player as a {@link Character} with specified name and starting {@link Room}.
+     * Constructor initialises the player as a {@link StandaloneCharacter} with specified name and starting {@link Room}.
      *
      * @param name  the name of this Player
      * @param startingRoom  the room that this player should start in
@@ -22,12 +36,30 @@ public class Player extends Character {
     }
 
     /**
-     * Attempts to generate and process a {@link Command}.
+     * Adds a line of input to the inbox of this player, to be acted on during one of its turns.
+     * <p>
+     * This may be called from any thread.
      *
-     * Does not return until a command has been successfully processed.
+     * @param inputLine  the line of input from the user controlling this player, not null
+     */
+    public void submit(String inputLine) {
+        inbox.add(inputLine);
+    }
+
+    /**
+     * Attempts to generate and process a {@link Command}.
+     * <p>
+     * If the {@link Game} has an input deadline, lines already in the inbox are taken until a command has been
+     * processed or the inbox is empty.
+     * Otherwise this does not return until a command has been successfully processed.
      */
     @Override
     public void act() {
+        Game game = Game.getInstance();
+        if(game.getInputDeadline().isPresent()) {
+            actFromInbox(game.getParser());
+            return;
+        }
 
         boolean commandProcessed = false;
         do {
@@ -36,4 +68,24 @@ public class Player extends Character {
         } while (!commandProcessed);
     }
 
+    /**
+     * Processes commands from the inbox of this player until one succeeds or the inbox is empty.
+     * <p>
+     * Only lines already in the inbox are taken, so other characters act without waiting for this player.
+     * Lines submitted later are acted on in a later turn.
+     *
+     * @param parser  the parser to interpret lines of input with, not null
+     */
+    private void actFromInbox(Parser parser) {
+        String inputLine;
+        while ((inputLine = inbox.poll()) != null) {
+            Optional<Command> command = parser.parse(inputLine);
+
+            if (command.isEmpty()) {
+                parser.reportUnrecognisedCommand();
+            } else if (processCommand(command.get())) {
+                return;
+            }
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package zuul.gameState.characters;
+
+import zuul.commands.Command;
+import zuul.gameState.Inventory;
+import zuul.gameState.Room;
+
+import java.util.Optional;
+
+/**
+ * A {@link Character} that holds its own state in the "World of Zuul" application.
+ * <p>
+ * The character stores its name, current {@link Room}, {@link Inventory} and the {@link Command} it is processing.
+ * {@link Player} and {@link NPC} are standalone characters.
+ *
+ * @author Timothy Shelton
+ */
+public abstract class StandaloneCharacter extends Character {
+
+    /**
+     * The name of this character.
+     */
+    private String name;
+
+    /**
+     * The {@link Room} this character is currently in.
+     */
+    private Room currentRoom;
+
+    /**
+     * An {@link Inventory} to store items held by this character
+     */
+    private Inventory inventory;
+
+    /**
+     * The {@link Command} currently being processed by this character, may be null.
+     */
+    private Command runningCommand;
+
+
+    /**
+     * Constructor creates a character with name and starting {@link Room} specified.
+     *
+     * @param name  name of this character
+     * @param startingRoom  the room that this character should start in
+     */
+    public StandaloneCharacter(String name, Room startingRoom) {
+        this.name = name;
+        this.currentRoom = startingRoom;
+        startingRoom.addCharacter(this);
+        this.inventory = new Inventory();
+        this.runningCommand = null;
+    }
+
+    /**
+     * Gets the {@link Room} this character is currently in.
+     *
+     * @return the current room this character is in
+     */
+    @Override
+    public Room getCurrentRoom() {
+        return currentRoom;
+    }
+
+    /**
+     * Sets the {@link Room} this character is currently in.
+     *
+     * @param nextRoom  the room to set this character to be in
+     */
+    @Override
+    public void setCurrentRoom(Room nextRoom) {
+        this.currentRoom = nextRoom;
+    }
+
+    /**
+     * Gets the name of this character.
+     *
+     * @return the name of this character
+     */
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the {@link Command} currently being processed by this character.
+     *
+     * @return an Optional containing the current command being processed if it is not null, an empty Optional otherwise
+     */
+    public Optional<Command> getRunningCommand() {
+        if (this.runningCommand == null) {
+            return Optional.empty();
+        } else {
+            return Optional.of(this.runningCommand);
+        }
+    }
+
+    /**
+     * Gets the {@link Inventory} of this character.
+     * <p>
+     * It is returned directly so that it can be modified without {@link zuul.gameState.Item Item} duplication.
+     *
+     * @return The character's inventory.
+     */
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Processes (that is: executes) the specified {@link Command} on this character.
+     * <p>
+     * {@code this.runningCommand} is set to the specified command for the duration of its execution.
+     *
+     * @param command the command to be processed
+     * @return true if the command executed properly, false otherwise
+     */
+    protected boolean processCommand(Command command) {
+        this.runningCommand = command; //set the current running command
+        boolean result = command.execute(this); //execute the command
+        this.runningCommand = null; //reset the current running command
+        return result;
+    }
+}
@@ -0,0 +1,543 @@
+package zuul.gameState.maps;
+
+import zuul.gameState.Direction;
+import zuul.gameState.Item;
+import zuul.gameState.ItemType;
+import zuul.gameState.Room;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A compiled world description for the World of Zuul application.
+ * <p>
+ * A text world description file is compiled once by {@link #compile} into a compact binary file
+ * with extension {@value #EXTENSION}. Loading a compiled world maps the file and reads rooms directly
+ * from their records, so it is never reparsed or relinked by name.
+ * <p>
+ * The compiled file is laid out as follows, with every integer stored big-endian:
+ * <ul>
+ *     <li>Header: magic number, format version, string count, room count, item count</li>
+ *     <li>String table: (string count + 1) offsets into the string data, followed by the UTF-8 string data</li>
+ *     <li>Room records: name string, description string, North, East, South and West exit room indices
+ *          (-1 for no exit), index of the first item record and number of items</li>
+ *     <li>Item records: name string and weight</li>
+ * </ul>
+ * Room 0 is the default starting room.
+ * <p>
+ * Every offset, index and length in the file is checked against the size of the file when it is opened,
+ * so a truncated or corrupt file is rejected with an {@link IOException} rather than failing when a room is read.
+ * Compiling a world does not register its {@link ItemType ItemTypes}; they are registered as rooms are read.
+ *
+ * @author Timothy Shelton
+ */
+public class CompiledWorld {
+
+    /**
+     * The file extension of compiled world files.
+     * <p></p>
+     * Value: {@value EXTENSION}
+     */
+    public static final String EXTENSION = ".wldc";
+
+    /**
+     * The magic number at the start of every compiled world file ("WLDC").
+     */
+    private static final int MAGIC = 0x574C4443;
+
+    /**
+     * The version of the compiled world format written by {@link #compile}.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size in bytes of the header.
+     */
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    /**
+     * The size in bytes of a room record.
+     */
+    private static final int ROOM_RECORD_SIZE = 8 * Integer.BYTES;
+
+    /**
+     * The size in bytes of an item record.
+     */
+    private static final int ITEM_RECORD_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * The number of exits stored in each room record.
+     */
+    public static final int EXIT_COUNT = 4;
+
+    /**
+     * The value of an exit room index for no exit.
+     */
+    public static final int NO_EXIT = -1;
+
+    /**
+     * The mapped compiled world file.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of strings in the string table.
+     */
+    private final int stringCount;
+
+    /**
+     * The number of room records.
+     */
+    private final int roomCount;
+
+    /**
+     * The number of item records.
+     */
+    private final int itemCount;
+
+    /**
+     * The position of the string data.
+     */
+    private final int stringDataStart;
+
+    /**
+     * The position of the first room record.
+     */
+    private final int roomsStart;
+
+    /**
+     * The position of the first item record.
+     */
+    private final int itemsStart;
+
+    /**
+     * Constructor
+     *
+     * Reads and checks the header, string table and records of the given compiled world.
+     *
+     * @param buffer  the contents of a compiled world file, not null
+     * @throws IOException  if the buffer does not hold a complete, consistent compiled world of a supported version
+     */
+    private CompiledWorld(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        long size = buffer.capacity();
+
+        if(size < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a compiled world file");
+        }
+        if(buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported compiled world version: " + buffer.getInt(Integer.BYTES));
+        }
+
+        stringCount = buffer.getInt(2 * Integer.BYTES);
+        roomCount = buffer.getInt(3 * Integer.BYTES);
+        itemCount = buffer.getInt(4 * Integer.BYTES);
+
+        if(stringCount < 0 || roomCount < 0 || itemCount < 0) {
+            throw new IOException("Corrupt compiled world header");
+        }
+
+        long stringTableEnd = HEADER_SIZE + (stringCount + 1L) * Integer.BYTES;
+        if(stringTableEnd > size) {
+            throw new IOException("Truncated compiled world file");
+        }
+        stringDataStart = (int) stringTableEnd;
+
+        //offsets start at 0 and never decrease, so every string lies within the string data
+        if(stringOffset(0) != 0) {
+            throw new IOException("Corrupt compiled world string table");
+        }
+        int stringDataLength = 0;
+        for(int string = 1; string <= stringCount; string++) {
+            int offset = stringOffset(string);
+            if(offset < stringDataLength) {
+                throw new IOException("Corrupt compiled world string table");
+            }
+            stringDataLength = offset;
+        }
+
+        long recordsStart = align(stringDataStart + (long) stringDataLength);
+        long recordsEnd = recordsStart + (long) roomCount * ROOM_RECORD_SIZE + (long) itemCount * ITEM_RECORD_SIZE;
+        if(recordsEnd > size) {
+            throw new IOException("Truncated compiled world file");
+        }
+
+        roomsStart = (int) recordsStart;
+        itemsStart = roomsStart + roomCount * ROOM_RECORD_SIZE;
+
+        checkRecords();
+    }
+
+    /**
+     * Checks that every string index, exit room index and item range in the room and item records is in range.
+     *
+     * @throws IOException  if any record refers to a string, room or item that does not exist
+     */
+    private void checkRecords() throws IOException {
+        for(int room = 0; room < roomCount; room++) {
+            int record = roomsStart + room * ROOM_RECORD_SIZE;
+
+            checkIndex(buffer.getInt(record), stringCount, "room name");
+            checkIndex(buffer.getInt(record + Integer.BYTES), stringCount, "room description");
+
+            for(int exit = 0; exit < EXIT_COUNT; exit++) {
+                int exitRoom = buffer.getInt(record + (2 + exit) * Integer.BYTES);
+                if(exitRoom != NO_EXIT) {
+                    checkIndex(exitRoom, roomCount, "exit room");
+                }
+            }
+
+            int firstItem = buffer.getInt(record + 6 * Integer.BYTES);
+            int count = buffer.getInt(record + 7 * Integer.BYTES);
+            if(firstItem < 0 || count < 0 || firstItem > itemCount - count) {
+                throw new IOException("Corrupt compiled world item range of room " + room);
+            }
+        }
+
+        for(int item = 0; item < itemCount; item++) {
+            checkIndex(buffer.getInt(itemsStart + item * ITEM_RECORD_SIZE), stringCount, "item name");
+        }
+    }
+
+    /**
+     * Checks that an index read from a record is in range.
+     *
+     * @param index  the index to check
+     * @param count  the number of things that can be indexed
+     * @param what  the name of what the index refers to, for the exception message, not null
+     * @throws IOException  if the index is negative or not less than the count
+     */
+    private static void checkIndex(int index, int count, String what) throws IOException {
+        if(index < 0 || index >= count) {
+            throw new IOException("Corrupt compiled world " + what + " index: " + index);
+        }
+    }
+
+    /**
+     * Maps the given compiled world file.
+     *
+     * @param compiledWorld  the compiled world file to open, not null
+     * @return the compiled world held by the file, not null
+     * @throws IOException  if the file cannot be mapped or does not hold a compiled world
+     */
+    public static CompiledWorld open(File compiledWorld) throws IOException {
+        try (FileChannel channel = FileChannel.open(compiledWorld.toPath(), StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Compiled world file too large to map");
+            }
+            return new CompiledWorld(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Indicates if the given file has the compiled world extension {@value #EXTENSION}.
+     *
+     * @param file  the file to check, not null
+     * @return true if the file name ends with the compiled world extension, false otherwise
+     */
+    public static boolean isCompiled(File file) {
+        return file.getName().toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Gets the number of rooms in this compiled world.
+     *
+     * @return the number of rooms
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Gets the name of the specified room.
+     *
+     * @param room  the index of the room
+     * @return the name of the room, not null
+     */
+    public String getRoomName(int room) {
+        return getString(buffer.getInt(roomRecord(room)));
+    }
+
+    /**
+     * Gets the description of the specified room.
+     *
+     * @param room  the index of the room
+     * @return the description of the room, not null
+     */
+    public String getRoomDescription(int room) {
+        return getString(buffer.getInt(roomRecord(room) + Integer.BYTES));
+    }
+
+    /**
+     * Gets the index of the room the specified exit of a room leads to.
+     *
+     * @param room  the index of the room
+     * @param exit  the {@link Direction} ordinal of the exit, 0 to 3 for North, East, South and West
+     * @return the index of the room the exit leads to, or {@value #NO_EXIT} if there is no exit
+     */
+    public int getExit(int room, int exit) {
+        return buffer.getInt(roomRecord(room) + (2 + exit) * Integer.BYTES);
+    }
+
+    /**
+     * Gets the {@link Item Items} held by the specified room.
+     *
+     * @param room  the index of the room
+     * @return a new list of the items held by the room, may be empty
+     */
+    public List<Item> getItems(int room) {
+        int firstItem = buffer.getInt(roomRecord(room) + 6 * Integer.BYTES);
+        int count = buffer.getInt(roomRecord(room) + 7 * Integer.BYTES);
+
+        List<Item> items = new ArrayList<>(count);
+
+        for(int i = firstItem; i < firstItem + count; i++) {
+            int itemRecord = itemsStart + i * ITEM_RECORD_SIZE;
+            items.add(ItemType.of(getString(buffer.getInt(itemRecord)), buffer.getInt(itemRecord + Integer.BYTES)).getItem());
+        }
+
+        return items;
+    }
+
+    /**
+     * Creates a {@link Map} holding every room in this compiled world.
+     * <p>
+     * Every room is created on the heap, which skips parsing and linking by name but not the rooms themselves.
+     * A {@link PagedMap}, created by {@link MapFactory#createPaged}, reads rooms from the world only when needed.
+     *
+     * @return an optional of the created map, or an empty optional if this world has no rooms
+     */
+    public Optional<Map> toMap() {
+        if(roomCount == 0) {
+            return Optional.empty();
+        }
+
+        Room[] rooms = new Room[roomCount];
+
+        for(int i = 0; i < roomCount; i++) {
+            rooms[i] = new Room(getRoomName(i), getRoomDescription(i));
+            getItems(i).forEach(rooms[i].getInventory()::addItem);
+        }
+
+        //exits are stored in the order of the directions
+        Direction[] directions = Direction.values();
+
+        for(int i = 0; i < roomCount; i++) {
+            for(int exit = 0; exit < EXIT_COUNT; exit++) {
+                int exitRoom = getExit(i, exit);
+
+                if(exitRoom != NO_EXIT) {
+                    rooms[i].addExit(directions[exit], rooms[exitRoom]);
+                }
+            }
+        }
+
+        return Optional.of(MapBuilder.buildMap(Arrays.asList(rooms), rooms[0]));
+    }
+
+    /**
+     * Gets the position of the specified room record.
+     *
+     * @param room  the index of the room
+     * @return the position of the room record in the buffer
+     */
+    private int roomRecord(int room) {
+        Objects.checkIndex(room, roomCount);
+        return roomsStart + room * ROOM_RECORD_SIZE;
+    }
+
+    /**
+     * Gets the offset of the specified string in the string data.
+     *
+     * @param string  the index of the string, or the string count for the end of the string data
+     * @return the offset of the string from the start of the string data
+     */
+    private int stringOffset(int string) {
+        return buffer.getInt(HEADER_SIZE + string * Integer.BYTES);
+    }
+
+    /**
+     * Decodes the specified string from the string table.
+     *
+     * @param string  the index of the string
+     * @return the decoded string, not null
+     */
+    private String getString(int string) {
+        Objects.checkIndex(string, stringCount);
+
+        int start = stringOffset(string);
+        byte[] bytes = new byte[stringOffset(string + 1) - start];
+
+        ByteBuffer stringData = buffer.duplicate();
+        stringData.position(stringDataStart + start);
+        stringData.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rounds the given position up to the next multiple of four bytes.
+     *
+     * @param position  the position to align
+     * @return the aligned position
+     */
+    private static long align(long position) {
+        return (position + 3) & ~3L;
+    }
+
+    /**
+     * Compiles a text world description file into a compiled world file.
+     * <p>
+     * The text file is read the same way as {@link MapFactory#createFromFile}:
+     * only the first description of each room name is used,
+     * exits that do not name a room are dropped and only complete item name and weight pairs are kept.
+     *
+     * @param source  the text world description file to compile, not null
+     * @param target  the compiled world file to write, not null
+     * @return the number of rooms compiled
+     * @throws IOException  if the source cannot be read or the target cannot be written
+     */
+    public static int compile(File source, File target) throws IOException {
+        Compiler compiler = new Compiler();
+        WorldFileReader.read(source, compiler::addRoom);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(target)))) {
+            compiler.write(out);
+        }
+
+        return compiler.roomNames.size();
+    }
+
+    /**
+     * Gets the compiled world file a text world description file is compiled to by default,
+     * the source file name with its extension replaced by {@value #EXTENSION}.
+     *
+     * @param source  the text world description file, not null
+     * @return the default compiled world file for the source, not null
+     */
+    public static File getDefaultTarget(File source) {
+        return new File(source.getPath().replaceFirst("\\.[^.\\\\/]*$", "") + EXTENSION);
+    }
+
+    /**
+     * Collects room records into the tables of a compiled world.
+     */
+    private static class Compiler {
+
+        /**
+         * Every distinct string, indexed in the order they were first used.
+         */
+        private final java.util.Map<String, Integer> strings = new LinkedHashMap<>();
+
+        /**
+         * The room index of each room name, in the order the rooms were added.
+         */
+        private final java.util.Map<String, Integer> roomNames = new LinkedHashMap<>();
+
+        /**
+         * The name string, description string, first item and item count of each room.
+         */
+        private final List<int[]> rooms = new ArrayList<>();
+
+        /**
+         * The names of the rooms to the North, East, South and West of each room, null if there are none.
+         */
+        private final List<String[]> exitNames = new ArrayList<>();
+
+        /**
+         * The name string and weight of each item.
+         */
+        private final List<int[]> items = new ArrayList<>();
+
+        /**
+         * Adds the room described by the given record unless a room with the same name has been added.
+         *
+         * @param roomDetailsList the list of details describing the room, not null
+         */
+        void addRoom(List<String> roomDetailsList) {
+            if(roomDetailsList.size() < 2 || roomNames.containsKey(roomDetailsList.get(0))) {
+                return;
+            }
+
+            roomNames.put(roomDetailsList.get(0), rooms.size());
+            exitNames.add(MapBuilder.exitNames(roomDetailsList));
+
+            int name = string(roomDetailsList.get(0));
+            int description = string(roomDetailsList.get(1));
+
+            //items are kept as string indices and weights so compiling does not register item types
+            List<int[]> roomItems = MapBuilder.parseItems(roomDetailsList,
+                    (itemName, weight) -> new int[]{string(itemName), weight});
+            rooms.add(new int[]{name, description, items.size(), roomItems.size()});
+
+            items.addAll(roomItems);
+        }
+
+        /**
+         * Gets the index of the given string in the string table, adding it if needed.
+         *
+         * @param str  the string to index, not null
+         * @return the index of the string
+         */
+        private int string(String str) {
+            return strings.computeIfAbsent(str, s -> strings.size());
+        }
+
+        /**
+         * Writes the compiled world to the given stream.
+         *
+         * @param out  the stream to write to, not null
+         * @throws IOException  if the stream cannot be written
+         */
+        void write(DataOutputStream out) throws IOException {
+            List<byte[]> encodedStrings = new ArrayList<>(strings.size());
+            strings.keySet().forEach(str -> encodedStrings.add(str.getBytes(StandardCharsets.UTF_8)));
+
+            //header
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(strings.size());
+            out.writeInt(rooms.size());
+            out.writeInt(items.size());
+
+            //string table
+            int offset = 0;
+            out.writeInt(offset);
+            for(byte[] encodedString : encodedStrings) {
+                offset += encodedString.length;
+                out.writeInt(offset);
+            }
+            for(byte[] encodedString : encodedStrings) {
+                out.write(encodedString);
+            }
+            for(int position = out.size(); position % 4 != 0; position++) {
+                out.writeByte(0);
+            }
+
+            //room records
+            for(int i = 0; i < rooms.size(); i++) {
+                int[] room = rooms.get(i);
+                String[] exits = exitNames.get(i);
+
+                out.writeInt(room[0]);
+                out.writeInt(room[1]);
+                for(int exit = 0; exit < EXIT_COUNT; exit++) {
+                    Integer exitRoom = (exits == null || exits[exit] == null) ? null : roomNames.get(exits[exit]);
+                    out.writeInt(exitRoom == null ? NO_EXIT : exitRoom);
+                }
+                out.writeInt(room[2]);
+                out.writeInt(room[3]);
+            }
+
+            //item records
+            for(int[] item : items) {
+                out.writeInt(item[0]);
+                out.writeInt(item[1]);
+            }
+        }
+    }
+}
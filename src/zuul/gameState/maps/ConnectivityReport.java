@@ -0,0 +1,162 @@
+package zuul.gameState.maps;
+
+import zuul.gameState.Room;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A report of how the rooms of a {@link Map} are connected for the World of Zuul application.
+ * <p>
+ * Created by {@link MapChecker#analyseConnectivity}. Stores the rooms that cannot be reached from
+ * the default starting room, the sizes of the strongly connected components of the map
+ * and the components that cannot be left once entered.
+ *
+ * @author Timothy Shelton
+ */
+public class ConnectivityReport {
+
+    /**
+     * The number of rooms on the analysed map.
+     */
+    private final int roomCount;
+
+    /**
+     * Every room that cannot be reached from the default starting room.
+     */
+    private final List<Room> unreachableRooms;
+
+    /**
+     * The number of rooms in each strongly connected component, largest first.
+     */
+    private final int[] componentSizes;
+
+    /**
+     * The rooms of each dead-end component.
+     */
+    private final List<List<Room>> deadEndComponents;
+
+    /**
+     * The time taken by the analysis in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Constructor
+     *
+     * @param roomCount  the number of rooms on the analysed map
+     * @param unreachableRooms  every room that cannot be reached from the default starting room, not null
+     * @param componentSizes  the number of rooms in each strongly connected component, not null
+     * @param deadEndComponents  the rooms of each dead-end component, not null
+     * @param elapsedNanos  the time taken by the analysis in nanoseconds
+     */
+    public ConnectivityReport(int roomCount, List<Room> unreachableRooms, int[] componentSizes,
+                              List<List<Room>> deadEndComponents, long elapsedNanos) {
+        this.roomCount = roomCount;
+        this.unreachableRooms = Collections.unmodifiableList(unreachableRooms);
+        this.componentSizes = componentSizes.clone();
+        this.deadEndComponents = Collections.unmodifiableList(deadEndComponents);
+        this.elapsedNanos = elapsedNanos;
+
+        //sort largest first
+        Arrays.sort(this.componentSizes);
+        for(int i = 0, j = this.componentSizes.length - 1; i < j; i++, j--) {
+            int size = this.componentSizes[i];
+            this.componentSizes[i] = this.componentSizes[j];
+            this.componentSizes[j] = size;
+        }
+    }
+
+    /**
+     * Gets the number of rooms on the analysed map.
+     *
+     * @return the number of rooms analysed
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Gets the number of rooms that can be reached from the default starting room, including that room.
+     *
+     * @return the number of reachable rooms
+     */
+    public int getReachableRoomCount() {
+        return roomCount - unreachableRooms.size();
+    }
+
+    /**
+     * Gets every room that cannot be reached from the default starting room.
+     * <p>
+     * Every room is unreachable if the map has no default starting room.
+     *
+     * @return a read-only list of the unreachable rooms, may be empty
+     */
+    public List<Room> getUnreachableRooms() {
+        return unreachableRooms;
+    }
+
+    /**
+     * Gets the number of strongly connected components of the map.
+     * <p>
+     * Every room in a strongly connected component can be reached from every other room in it.
+     *
+     * @return the number of components
+     */
+    public int getComponentCount() {
+        return componentSizes.length;
+    }
+
+    /**
+     * Gets the number of rooms in each strongly connected component of the map, largest first.
+     *
+     * @return a copy of the component sizes, not null
+     */
+    public int[] getComponentSizes() {
+        return componentSizes.clone();
+    }
+
+    /**
+     * Gets the rooms of each dead-end component of the map.
+     * <p>
+     * A dead-end component is a strongly connected component with no exit to another component,
+     * so a character that enters it can never leave. A map with only one component has no dead ends.
+     *
+     * @return a read-only list of the rooms of each dead-end component, may be empty
+     */
+    public List<List<Room>> getDeadEndComponents() {
+        return deadEndComponents;
+    }
+
+    /**
+     * Gets the time taken by the analysis in nanoseconds.
+     *
+     * @return the time taken by the analysis in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Indicates if every room can be reached from every other room.
+     *
+     * @return true if the map is a single strongly connected component, false otherwise
+     */
+    public boolean isStronglyConnected() {
+        return componentSizes.length == 1;
+    }
+
+    /**
+     * Creates and returns a single line String summarising this report.
+     *
+     * @return a summary of the connectivity of the analysed map, not null
+     */
+    @Override
+    public String toString() {
+        return String.format("Analysed %d rooms in %.1f ms: %d reachable, %d unreachable, " +
+                        "%d components (largest %d), %d dead ends",
+                roomCount, elapsedNanos / 1_000_000.0, getReachableRoomCount(), unreachableRooms.size(),
+                componentSizes.length, componentSizes.length == 0 ? 0 : componentSizes[0], deadEndComponents.size());
+    }
+}
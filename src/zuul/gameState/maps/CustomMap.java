@@ -1,5 +1,8 @@
 package zuul.gameState.maps;
 
+import zuul.gameState.ExitGraph;
+import zuul.gameState.Room;
+
 /**
  * A blank {@link Map} class to be used by {@link MapFactory} to create custom maps loaded from files or otherwise.
  *
@@ -9,6 +12,12 @@ package zuul.gameState.maps;
  */
 public class CustomMap extends Map{
 
+    /**
+     * The welcome message of every custom world.
+     */
+    static final String WELCOME = "Welcome to a World of Zuul Custom World!\n" +
+            "World of Zuul is a new, incredibly boring adventure game.\n";
+
     /**
      * Constructor
      */
@@ -16,6 +25,26 @@ public class CustomMap extends Map{
         super("Custom World!");
     }
 
+    /**
+     * Ensures the given {@link Room} is included on this Map, so that rooms can be added as a custom map is built.
+     *
+     * @param room  the Room whose presence on this Map is to be ensured, not null
+     */
+    @Override
+    public void addRoom(Room room) {
+        super.addRoom(room);
+    }
+
+    /**
+     * Compacts the exits of every {@link Room} on this Map into an {@link ExitGraph} once a custom map has been built.
+     *
+     * @return the graph holding the exits of every room on this map, not null
+     */
+    @Override
+    public ExitGraph compactExits() {
+        return super.compactExits();
+    }
+
     @Override
     protected void createRooms() {}
 
@@ -24,8 +53,6 @@ public class CustomMap extends Map{
 
     @Override
     public String getWelcome() {
-        String message = "Welcome to a World of Zuul Custom World!\n" +
-                "World of Zuul is a new, incredibly boring adventure game.\n";
-        return message;
+        return WELCOME;
     }
 }
@@ -0,0 +1,341 @@
+package zuul.gameState.maps;
+
+import zuul.gameState.Inventory;
+import zuul.gameState.Item;
+import zuul.gameState.ItemType;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A local store of modified rooms evicted from a {@link PagedMap} for the World of Zuul application.
+ * <p>
+ * Each page holds the exits of one room and the quantity of each {@link ItemType} of {@link Item} it holds, and is appended to the store file.
+ * Only the latest page written for a room is read back, so a room can be written any number of times.
+ * Pages are built on the heap and written or read with a single call each.
+ * Once the pages that have been replaced take up more of the file than the latest pages
+ * the latest pages are moved to the start of the file and the rest is cut off, so the file does not grow without limit.
+ * Pages are kept as long as the store is open, and closing a temporary store deletes its file.
+ *
+ * @author Timothy Shelton
+ */
+class DirtyPageStore implements Closeable {
+
+    /**
+     * The size in bytes the store file must reach before it is compacted.
+     * <p></p>
+     * Value: {@value MIN_COMPACTION_SIZE}
+     */
+    private static final long MIN_COMPACTION_SIZE = 1 << 20;
+
+    /**
+     * The file pages are stored in.
+     */
+    private final File file;
+
+    /**
+     * True if {@link #file} should be deleted when this store is closed.
+     */
+    private final boolean temporary;
+
+    /**
+     * The store file.
+     */
+    private final RandomAccessFile pages;
+
+    /**
+     * The location in the store file of the latest page of each room written, by room index.
+     */
+    private final java.util.Map<Integer, PageLocation> pageLocations = new HashMap<>();
+
+    /**
+     * The length of the store file in bytes.
+     */
+    private long end;
+
+    /**
+     * The number of bytes of the store file taken up by the latest page of each room.
+     */
+    private long liveBytes;
+
+    /**
+     * The number of times the store file has been compacted.
+     */
+    private int compactionCount;
+
+    /**
+     * Constructor
+     *
+     * @param file  the file to store pages in, replaced if it exists, not null
+     * @throws IOException  if the file cannot be opened
+     */
+    DirtyPageStore(File file) throws IOException {
+        this(file, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param file  the file to store pages in, replaced if it exists, not null
+     * @param temporary  true to delete the file when this store is closed
+     * @throws IOException  if the file cannot be opened
+     */
+    private DirtyPageStore(File file, boolean temporary) throws IOException {
+        this.file = file;
+        this.temporary = temporary;
+        this.pages = new RandomAccessFile(file, "rw");
+        this.pages.setLength(0);
+    }
+
+    /**
+     * Creates a store in a new temporary file.
+     *
+     * @return a new empty store, not null
+     * @throws IOException  if the temporary file cannot be created
+     */
+    static DirtyPageStore createTemporary() throws IOException {
+        File file = File.createTempFile("zuul", ".pages");
+        file.deleteOnExit();
+        return new DirtyPageStore(file, true);
+    }
+
+    /**
+     * Indicates if a page has been written for the specified room.
+     *
+     * @param room  the index of the room
+     * @return true if the room has a page in this store, false otherwise
+     */
+    boolean contains(int room) {
+        return pageLocations.containsKey(room);
+    }
+
+    /**
+     * Gets the number of rooms with a page in this store.
+     *
+     * @return the number of rooms written
+     */
+    int getPageCount() {
+        return pageLocations.size();
+    }
+
+    /**
+     * Gets the length of the store file.
+     *
+     * @return the number of bytes in the store file
+     */
+    long getFileLength() {
+        return end;
+    }
+
+    /**
+     * Gets the number of times the store file has been compacted.
+     *
+     * @return the number of compactions
+     */
+    int getCompactionCount() {
+        return compactionCount;
+    }
+
+    /**
+     * Writes a page holding the given exits and items of the specified room.
+     * <p>
+     * The store file is compacted afterwards if pages that have been replaced take up more than half of it.
+     *
+     * @param room  the index of the room
+     * @param exits  the index of the room each exit leads to, by {@link zuul.gameState.Direction} ordinal, not null
+     * @param inventory  the inventory of the room, not null
+     * @throws IOException  if the page cannot be written
+     */
+    void write(int room, int[] exits, Inventory inventory) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream page = new DataOutputStream(bytes);
+
+        for(int exit : exits) {
+            page.writeInt(exit);
+        }
+
+        List<ItemType> types = inventory.getItemTypes();
+
+        page.writeInt(types.size());
+        for(ItemType type : types) {
+            page.writeUTF(type.getName());
+            page.writeInt(type.getWeight());
+            page.writeUTF(type.getDescription());
+            page.writeInt(inventory.getQuantity(type));
+        }
+
+        byte[] data = bytes.toByteArray();
+
+        pages.seek(end);
+        pages.write(data);
+
+        PageLocation replaced = pageLocations.put(room, new PageLocation(end, data.length));
+        if(replaced != null) {
+            liveBytes -= replaced.length;
+        }
+        liveBytes += data.length;
+        end += data.length;
+
+        if(end >= MIN_COMPACTION_SIZE && end - liveBytes > liveBytes) {
+            compact();
+        }
+    }
+
+    /**
+     * Reads the exits of the latest page written for the specified room.
+     *
+     * @param room  the index of the room
+     * @return the index of the room each exit leads to, by {@link zuul.gameState.Direction} ordinal,
+     *          or null if the room has no page
+     * @throws IOException  if the page cannot be read
+     */
+    int[] readExits(int room) throws IOException {
+        DataInputStream page = readPage(room);
+
+        if(page == null) {
+            return null;
+        }
+
+        return readExits(page);
+    }
+
+    /**
+     * Reads the items of the latest page written for the specified room into the given inventory.
+     *
+     * @param room  the index of the room
+     * @param inventory  the inventory to add the items held by the room to, not null
+     * @return true if the items were read, false if the room has no page
+     * @throws IOException  if the page cannot be read
+     */
+    boolean readItems(int room, Inventory inventory) throws IOException {
+        DataInputStream page = readPage(room);
+
+        if(page == null) {
+            return false;
+        }
+
+        //the items follow the exits
+        readExits(page);
+        int typeCount = page.readInt();
+
+        for(int i = 0; i < typeCount; i++) {
+            ItemType type = ItemType.of(page.readUTF(), page.readInt(), page.readUTF());
+            inventory.addItems(type, page.readInt());
+        }
+
+        return true;
+    }
+
+    /**
+     * Closes the store file, deleting it if this is a temporary store.
+     *
+     * @throws IOException  if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        pages.close();
+        pageLocations.clear();
+
+        if(temporary) {
+            file.delete();
+        }
+    }
+
+    /**
+     * Reads the latest page written for the specified room with a single read of the store file.
+     *
+     * @param room  the index of the room
+     * @return a stream of the bytes of the page, or null if the room has no page
+     * @throws IOException  if the page cannot be read
+     */
+    private DataInputStream readPage(int room) throws IOException {
+        PageLocation location = pageLocations.get(room);
+
+        if(location == null) {
+            return null;
+        }
+
+        byte[] data = new byte[location.length];
+
+        pages.seek(location.position);
+        pages.readFully(data);
+
+        return new DataInputStream(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * Reads the exits at the start of a page.
+     *
+     * @param page  the page to read from, positioned at its start, not null
+     * @return the index of the room each exit leads to, by {@link zuul.gameState.Direction} ordinal
+     * @throws IOException  if the exits cannot be read
+     */
+    private static int[] readExits(DataInputStream page) throws IOException {
+        int[] exits = new int[CompiledWorld.EXIT_COUNT];
+
+        for(int exit = 0; exit < exits.length; exit++) {
+            exits[exit] = page.readInt();
+        }
+
+        return exits;
+    }
+
+    /**
+     * Moves the latest page of each room to the start of the store file, in file order, and cuts off the rest.
+     * <p>
+     * A page is never moved later in the file, so no page is overwritten before it has been moved.
+     *
+     * @throws IOException  if the store file cannot be read or written
+     */
+    private void compact() throws IOException {
+        List<PageLocation> locations = new ArrayList<>(pageLocations.values());
+        locations.sort(Comparator.comparingLong(location -> location.position));
+
+        long position = 0;
+
+        for(PageLocation location : locations) {
+            if(location.position != position) {
+                byte[] data = new byte[location.length];
+
+                pages.seek(location.position);
+                pages.readFully(data);
+                pages.seek(position);
+                pages.write(data);
+
+                location.position = position;
+            }
+            position += location.length;
+        }
+
+        pages.setLength(position);
+        end = position;
+        compactionCount++;
+    }
+
+    /**
+     * The location of a page in the store file.
+     */
+    private static class PageLocation {
+
+        /**
+         * The position of the first byte of the page.
+         */
+        private long position;
+
+        /**
+         * The number of bytes in the page.
+         */
+        private final int length;
+
+        /**
+         * Constructor
+         *
+         * @param position  the position of the first byte of the page
+         * @param length  the number of bytes in the page
+         */
+        PageLocation(long position, int length) {
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
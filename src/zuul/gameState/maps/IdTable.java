@@ -0,0 +1,136 @@
+package zuul.gameState.maps;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * A table of entities indexed by their dense integer id for the World of Zuul application.
+ * <p>
+ * Each {@link Map} gives out ids densely from 0, so the table stores its entities in an array indexed by id.
+ * Lookups are a single array access and visiting every entity is an array walk.
+ *
+ * @param <T>  the type of entity stored
+ * @author Timothy Shelton
+ */
+class IdTable<T> {
+
+    /**
+     * The initial number of slots of a table.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The function giving the id of an entity.
+     */
+    private final ToIntFunction<? super T> idFunction;
+
+    /**
+     * The entity with each id, or null for an empty slot.
+     */
+    private Object[] entities = new Object[INITIAL_CAPACITY];
+
+    /**
+     * The number of entities in this table.
+     */
+    private int size;
+
+    /**
+     * Constructor
+     *
+     * @param idFunction  the function giving the id of an entity, not null
+     */
+    IdTable(ToIntFunction<? super T> idFunction) {
+        this.idFunction = idFunction;
+    }
+
+    /**
+     * Adds an entity to this table unless an entity with the same id is already in it.
+     *
+     * @param entity  the entity to add, not null
+     * @return true if the entity was added, false if its id was already taken
+     */
+    boolean add(T entity) {
+        int id = idFunction.applyAsInt(entity);
+        ensureSlot(id);
+
+        if(entities[id] != null) {
+            return false;
+        }
+
+        entities[id] = entity;
+        size++;
+        return true;
+    }
+
+    /**
+     * Gets the entity with the specified id.
+     *
+     * @param id  the id of the entity
+     * @return the entity with the id, or null if there is none in this table
+     */
+    @SuppressWarnings("unchecked")
+    T get(int id) {
+        if(id < 0 || id >= entities.length) {
+            return null;
+        }
+        return (T) entities[id];
+    }
+
+    /**
+     * Removes the specified entity from this table if it is in it.
+     *
+     * @param entity  the entity to remove, not null
+     * @return true if the entity was removed, false if it was not in this table
+     */
+    boolean remove(T entity) {
+        int id = idFunction.applyAsInt(entity);
+
+        if(get(id) != entity) {
+            return false;
+        }
+
+        entities[id] = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the number of entities in this table.
+     *
+     * @return the number of entities stored
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Applies the given Consumer function to each entity in this table in id order.
+     *
+     * @param consumer  the Consumer to be applied to each entity, not null
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(Consumer<? super T> consumer) {
+        for(Object entity : entities) {
+            if(entity != null) {
+                consumer.accept((T) entity);
+            }
+        }
+    }
+
+    /**
+     * Grows the array of entities so that it has a slot for the specified id.
+     *
+     * @param id  the id that needs a slot, not negative
+     * @throws IllegalArgumentException  if the id is negative
+     */
+    private void ensureSlot(int id) {
+        if(id < 0) {
+            throw new IllegalArgumentException("Entities must be given an id before they are stored: " + id);
+        }
+
+        if(id >= entities.length) {
+            entities = Arrays.copyOf(entities, Math.max(id + 1, entities.length * 2));
+        }
+    }
+}
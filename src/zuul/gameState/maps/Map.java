@@ -1,13 +1,13 @@
 package zuul.gameState.maps;
 
 import zuul.Game;
+import zuul.gameState.ExitGraph;
 import zuul.gameState.Item;
 import zuul.gameState.Room;
 import zuul.gameState.characters.Character;
 import zuul.gameState.characters.Player;
 
-import java.util.HashMap;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Consumer;
 
 /**
@@ -17,6 +17,10 @@ import java.util.function.Consumer;
  * every {@link Room} and {@link Character} that can be interacted with by the {@link Game}.
  * An {@link Item} must be held by a Character or be in a Room
  * so they are not represented by this class as a separate part of the game state.
+ * <p>
+ * Rooms and characters are given dense integer ids from 0 in the order they are added to this Map,
+ * so they can be found by id in constant time and every room or character can be visited with an array walk.
+ * Ids are only unique within one Map, and a Map loaded from a file gives its rooms ids in file order.
  *
  * @author Timothy Shelton
  */
@@ -35,28 +39,60 @@ public abstract class Map {
     /**
      * Collection to store every {@link Room} on this Map.
      *
-     * Uses {@link java.util.Map} to ensure all elements are unique and can be retrieved.
+     * Uses {@link java.util.Map} keyed by room name to ensure all elements are unique and can be retrieved by name.
+     */
+    private java.util.Map<String, Room> rooms;
+
+    /**
+     * Every {@link Room} on this Map indexed by id.
+     */
+    private final IdTable<Room> roomsById = new IdTable<>(Room::getId);
+
+    /**
+     * Every {@link Room} on this Map sorted by name, for ordered and prefix lookups.
+     * <p>
+     * Built the first time it is needed and kept in step with {@link #rooms} afterwards, null until then.
      */
-    private java.util.Map<Room, Room> rooms;
+    private NavigableMap<String, Room> sortedRooms;
 
     /**
      * Collection to store every {@link Character} on this Map.
      *
-     * Uses {@link java.util.Map} to ensure all elements are unique and can be retrieved.
+     * Indexed by id to ensure all elements are unique and can be retrieved.
      */
-    private java.util.Map<Character, Character> characters;
+    private final IdTable<Character> characters = new IdTable<>(Character::getId);
+
+    /**
+     * The NPCs on this Map that are stored in columns rather than as individual objects,
+     * null until it is first needed.
+     */
+    private NpcPopulation npcPopulation;
 
     /**
      * The character that is controlled by the user
      */
     private Character playerCharacter;
 
+    /**
+     * The id to give the next {@link Room} added to this Map.
+     */
+    private int nextRoomId;
+
+    /**
+     * The id to give the next {@link Character} added to this Map, shared with the {@link NpcPopulation}.
+     */
+    private int nextCharacterId;
+
+    /**
+     * The report of how this Map was loaded by {@link MapFactory}, null if it was not loaded from a file.
+     */
+    private MapLoadReport loadReport;
+
     /**
      * Constructor
      */
     public Map() {
-        this.rooms = new HashMap<Room, Room>();
-        this.characters = new HashMap<Character, Character>();
+        this.rooms = new HashMap<String, Room>();
     }
 
     /**
@@ -65,18 +101,33 @@ public abstract class Map {
      * @param worldName the name of this game world
      */
     public Map(String worldName) {
-        this.rooms = new HashMap<Room, Room>();
-        this.characters = new HashMap<Character, Character>();
+        this.rooms = new HashMap<String, Room>();
         this.worldName = worldName;
     }
 
     /**
      * Ensures the given {@link Character} is included on this Map.
+     * <p>
+     * A character that is not already on this Map is given the next character id of this Map.
      *
      * @param character  the Character whose presence on this Map is to be ensured, not null
      */
     public void addCharacter(Character character) {
-        characters.put(character, character);
+        if(characters.get(character.getId()) == character) {
+            return;
+        }
+
+        character.setId(nextCharacterId());
+        characters.add(character);
+    }
+
+    /**
+     * Takes the next character id of this Map.
+     *
+     * @return an id not given to any other character on this Map
+     */
+    int nextCharacterId() {
+        return nextCharacterId++;
     }
 
     /**
@@ -86,22 +137,83 @@ public abstract class Map {
      * @return optional containing the Character if found, empty Optional otherwise
      */
     public Optional<Character> getCharacter(Character character) {
-        Character characterFound = characters.get(character);
+        return getCharacterById(character.getId()).filter(character::equals);
+    }
 
-        if(characterFound == null) {
-            return Optional.empty();
+    /**
+     * Gets the {@link Character} with the specified id if it is on this Map.
+     *
+     * @param id  the id of the Character to get
+     * @return optional containing the Character if found, empty Optional otherwise
+     */
+    public Optional<Character> getCharacterById(int id) {
+        Character character = characters.get(id);
+        if(character == null && npcPopulation != null) {
+            return npcPopulation.getCharacterById(id);
         }
-
-        return Optional.of(characterFound);
+        return Optional.ofNullable(character);
     }
 
     /**
      * Applies the given consumer function on each {@link Character} in the Map.
+     * <p>
+     * Characters added with {@link #addCharacter} are visited first, followed by the NPCs of the {@link NpcPopulation}.
      *
      * @param consumer  the Consumer to be applied to each Character, not null
      */
     public void forEachCharacter(Consumer<? super Character> consumer) {
-        characters.keySet().forEach(consumer);
+        characters.forEach(consumer);
+        if(npcPopulation != null) {
+            npcPopulation.forEachCharacter(consumer);
+        }
+    }
+
+    /**
+     * Asks every {@link Character} in the Map to {@link Character#act()} for one turn.
+     * <p>
+     * Characters added with {@link #addCharacter} act first, in id order.
+     * The NPCs of the {@link NpcPopulation} then act together by walking its columns.
+     */
+    public void actCharacters() {
+        characters.forEach(Character::act);
+        if(npcPopulation != null) {
+            npcPopulation.act();
+        }
+    }
+
+    /**
+     * Gets the population of column-stored NPCs on this Map, creating an empty one if there is none yet.
+     * <p>
+     * NPCs in the population should not also be added with {@link #addCharacter}.
+     *
+     * @return the NPC population of this Map, not null
+     */
+    public NpcPopulation getNpcPopulation() {
+        if(npcPopulation == null) {
+            npcPopulation = new NpcPopulation(this);
+        }
+        return npcPopulation;
+    }
+
+    /**
+     * Gets the report of how this Map was loaded from a file by {@link MapFactory}.
+     * <p>
+     * The report is kept with the map it describes, so maps loaded by different sessions at once
+     * each have their own.
+     *
+     * @return an optional of the load report, or an empty optional if this map was not loaded from a file
+     */
+    public Optional<MapLoadReport> getLoadReport() {
+        return Optional.ofNullable(loadReport);
+    }
+
+    /**
+     * Sets the report of how this Map was loaded from a file.
+     *
+     * @param loadReport  the load report of this map, not null
+     */
+    void setLoadReport(MapLoadReport loadReport) {
+        this.loadReport = loadReport;
     }
 
     /**
@@ -130,11 +242,24 @@ public abstract class Map {
 
     /**
      * Ensures the given {@link Room} is included on this Map.
+     * <p>
+     * Rooms are unique by name so if a room with the same name is already on this Map then that room is kept.
+     * A room that is added is given the next room id of this Map.
+     * <p>
+     * Rooms are added while a map is built, by the map itself in {@link #createRooms()}
+     * or by {@link MapBuilder} through {@link CustomMap}.
      *
      * @param room  the Room whose presence on this Map is to be ensured, not null
      */
-    public void addRoom(Room room) {
-        rooms.put(room, room);
+    protected void addRoom(Room room) {
+        if(rooms.putIfAbsent(room.getName(), room) == null) {
+            room.setId(nextRoomId++);
+            roomsById.add(room);
+
+            if(sortedRooms != null) {
+                sortedRooms.put(room.getName(), room);
+            }
+        }
     }
 
     /**
@@ -143,28 +268,105 @@ public abstract class Map {
      * <p>
      *     After being removing the supplied room from this map's room list
      *     the {@link #defaultStartingRoom} of this map is set to null if it was previously set to the supplied room
-     *     and all exits to the supplied room from all other rooms in this map are removed.
+     *     and all exits to the supplied room from all other rooms in this map are removed,
+     *     as are all exits from the supplied room.
+     * </p>
+     * <p>
+     *     Only the rooms linked to the supplied room are visited.
      * </p>
      *
      * @param room the room to safely remove from this map
      */
     public void safeRemoveRoom(Room room) {
-        rooms.remove(room);
+        removeFromIndex(room);
+        room.unlink();
+    }
+
+    /**
+     * Safely removes each of the supplied rooms from this Map, as if by {@link #safeRemoveRoom}, in a single pass.
+     * <p>
+     *     Exits between two of the supplied rooms are only visited once, from the rooms being removed.
+     * </p>
+     *
+     * @param roomsToRemove the rooms to safely remove from this map, not null
+     */
+    public void removeRooms(Collection<Room> roomsToRemove) {
+        Set<Room> removedRooms = new HashSet<>(roomsToRemove);
+
+        for(Room room : removedRooms) {
+            removeFromIndex(room);
+
+            //remove the exits of neighbours that are staying on this map
+            for(Room entrance : new ArrayList<>(room.getEntrances())) {
+                if(!removedRooms.contains(entrance)) {
+                    entrance.removeExit(room);
+                }
+            }
+        }
+
+        removedRooms.forEach(Room::removeAllExits);
+    }
+
+    /**
+     * Removes the supplied room from this map's room list and sorted index
+     * and unsets the {@link #defaultStartingRoom} if it is the supplied room.
+     *
+     * @param room the room to remove
+     */
+    private void removeFromIndex(Room room) {
+        evictNpcs(room);
+
+        if(rooms.remove(room.getName(), room)) {
+            roomsById.remove(room);
+
+            if(sortedRooms != null) {
+                sortedRooms.remove(room.getName());
+            }
+        }
         if(this.defaultStartingRoom != null && this.defaultStartingRoom.equals(room)) {
             this.defaultStartingRoom = null;
         }
-        forEachRoom(rm -> {
-            rm.removeExit(room);
-        });
     }
 
     /**
-     * Applies the given Consumer function to each {@link Room} in the map.
+     * Removes the NPCs of this Map's {@link NpcPopulation} that are in the supplied room, which is being removed.
+     *
+     * @param room the room being removed from this map
+     */
+    void evictNpcs(Room room) {
+        if(npcPopulation != null) {
+            npcPopulation.evict(room);
+        }
+    }
+
+    /**
+     * Applies the given Consumer function to each {@link Room} in the map, in id order.
      *
      * @param consumer  the Consumer to be applied to each Room, not null
      */
     public void forEachRoom(Consumer<? super Room> consumer) {
-        rooms.keySet().forEach(consumer);
+        roomsById.forEach(consumer);
+    }
+
+    /**
+     * Compacts the exits of every {@link Room} on this Map into an {@link ExitGraph}.
+     * <p>
+     * This reduces the memory held by each room. Exits can still be added afterwards
+     * but the first one added expands the graph back into each room's own collections.
+     *
+     * @return the graph holding the exits of every room on this map, not null
+     */
+    protected ExitGraph compactExits() {
+        return ExitGraph.compact(rooms.values());
+    }
+
+    /**
+     * Gets the number of {@link Room Rooms} on this Map.
+     *
+     * @return the number of rooms on this map
+     */
+    public int getRoomCount() {
+        return rooms.size();
     }
 
     /**
@@ -249,9 +451,60 @@ public abstract class Map {
      * @return and optional containing the room with the supplied name if one exists on this map, else an empty optional
      */
     public Optional<Room> getRoom(String roomName) {
-        return rooms.keySet().stream()
-                .filter(rm -> rm.getName().equals(roomName))
-                .findFirst();
+        return Optional.ofNullable(rooms.get(roomName));
+    }
+
+    /**
+     * Gets the room from this map with the supplied id if it exists.
+     *
+     * @param id the id of the desired room
+     * @return an optional containing the room with the supplied id if one exists on this map, else an empty optional
+     */
+    public Optional<Room> getRoomById(int id) {
+        return Optional.ofNullable(roomsById.get(id));
+    }
+
+    /**
+     * Gets every room on this map whose name starts with the supplied prefix, sorted by name.
+     * <p>
+     * Only the matching rooms are visited so large maps are not scanned in full.
+     *
+     * @param prefix the start of the names of the desired rooms, not null
+     * @return a list of the rooms whose names start with the prefix, may be empty
+     */
+    public List<Room> getRoomsWithPrefix(String prefix) {
+        List<Room> matchingRooms = new ArrayList<>();
+
+        for(java.util.Map.Entry<String, Room> entry : getSortedRooms().tailMap(prefix, true).entrySet()) {
+            if(!entry.getKey().startsWith(prefix)) {
+                //names are sorted so no later name can start with the prefix
+                break;
+            }
+            matchingRooms.add(entry.getValue());
+        }
+
+        return matchingRooms;
+    }
+
+    /**
+     * Gets a sorted, read-only view of the names of every room on this map.
+     *
+     * @return the names of the rooms on this map in ascending order, not null
+     */
+    public NavigableSet<String> getRoomNames() {
+        return Collections.unmodifiableNavigableSet(getSortedRooms().navigableKeySet());
+    }
+
+    /**
+     * Gets the sorted index of every room on this Map, building it if it does not exist yet.
+     *
+     * @return the rooms on this map sorted by name, not null
+     */
+    private NavigableMap<String, Room> getSortedRooms() {
+        if(sortedRooms == null) {
+            sortedRooms = new TreeMap<>(rooms);
+        }
+        return sortedRooms;
     }
 
 }
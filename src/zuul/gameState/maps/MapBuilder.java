@@ -0,0 +1,290 @@
+package zuul.gameState.maps;
+
+import zuul.gameState.Direction;
+import zuul.gameState.Item;
+import zuul.gameState.ItemType;
+import zuul.gameState.Room;
+import zuul.gameState.characters.Player;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Builds a {@link Map} from room records for the World of Zuul application.
+ * <p>
+ * A room record is the list of details describing one room, as read by {@link WorldFileReader}:
+ * <ul>
+ *     <li>Entry 0: Name</li>
+ *     <li>Entry 1: Description</li>
+ *     <li>Entries 2-5: Names of the rooms to the North, East, South and West</li>
+ *     <li>Entries 6+: Item names each followed by an item weight</li>
+ * </ul>
+ * Rooms are created and indexed by name as each record is added, keeping only the names of their exits.
+ * Exits are linked through that index when the map is built, so building takes time linear in the number of rooms.
+ * If more than one record has the same room name then only the first is used.
+ *
+ * @author Timothy Shelton
+ */
+class MapBuilder {
+
+    /**
+     * The number of rooms at which a built map has its exits compacted into an {@link zuul.gameState.ExitGraph}.
+     */
+    static final int COMPACT_THRESHOLD = 10_000;
+
+    /**
+     * Every room created so far, indexed by name in the order their records were added.
+     */
+    private final java.util.Map<String, Room> roomIndex = new LinkedHashMap<>();
+
+    /**
+     * The names of the rooms to the North, East, South and West of each room in {@link #roomIndex}, in the same order.
+     * <p>
+     * An entry is null if its record has no exit details.
+     */
+    private final List<String[]> pendingExits = new ArrayList<>();
+
+    /**
+     * Creates the {@link Room} described by the given record and adds its {@link Item Items}.
+     * <p>
+     * The record is not kept so it may be reused by the caller.
+     *
+     * @param roomDetailsList the list of details describing the room to be created, not null
+     */
+    void addRoom(List<String> roomDetailsList) {
+        if(roomDetailsList.size() < 2 || roomIndex.containsKey(roomDetailsList.get(0))) {
+            //not enough details to create a room or a room with this name already exists
+            return;
+        }
+
+        Room room = new Room(roomDetailsList.get(0), roomDetailsList.get(1));
+
+        roomIndex.put(room.getName(), room);
+        pendingExits.add(exitNames(roomDetailsList));
+        addItems(room, roomDetailsList);
+    }
+
+    /**
+     * Creates the {@link Room} described by each of the given records, in order, as {@link #addRoom} does.
+     *
+     * @param records the records describing the rooms to be created, in file order, not null
+     */
+    void addRooms(List<String[]> records) {
+        for(String[] record : records) {
+            addRoom(Arrays.asList(record));
+        }
+    }
+
+    /**
+     * Gets the number of rooms created so far.
+     *
+     * @return the number of rooms created
+     */
+    int getRoomCount() {
+        return roomIndex.size();
+    }
+
+    /**
+     * Links the exits of every room created and builds a {@link Map} from them.
+     * <p>
+     * The room from the first record is set as the default starting room
+     * and a {@link Player} is created in it.
+     *
+     * @return an optional of the built map, or an empty optional if no rooms were created
+     */
+    Optional<Map> build() {
+        if(roomIndex.size() == 0) {
+            //No rooms created so cannot create a Map
+            return Optional.empty();
+        }
+
+        //exit details are given in the order of the directions
+        Direction[] directions = Direction.values();
+
+        Iterator<String[]> exitNamesIterator = pendingExits.iterator();
+
+        for(Room room : roomIndex.values()) {
+            instantiateExits(room, exitNamesIterator.next(), directions);
+        }
+
+        pendingExits.clear();
+
+        return Optional.of(buildMap(roomIndex.values(), roomIndex.values().iterator().next()));
+    }
+
+    /**
+     * Creates a {@link CustomMap} containing the given fully linked rooms.
+     * <p>
+     * Maps of at least {@link #COMPACT_THRESHOLD} rooms have their exits compacted.
+     * The given room is set as the default starting room and a {@link Player} is created in it.
+     *
+     * @param rooms the rooms to add to the map, not null
+     * @param startingRoom the default starting room of the map, not null
+     * @return the created map, not null
+     */
+    static Map buildMap(Iterable<Room> rooms, Room startingRoom) {
+        //The map to add the rooms to
+        CustomMap customMap = new CustomMap();
+
+        //Add all the rooms to the map
+        rooms.forEach(customMap::addRoom);
+
+        //large maps keep their exits in a compact graph
+        if(customMap.getRoomCount() >= COMPACT_THRESHOLD) {
+            customMap.compactExits();
+        }
+
+        //set the default starting room
+        customMap.setDefaultStartingRoom(startingRoom);
+
+        //create a player character and add it to the map in the starting room
+        Player player1 = new Player("player1", customMap.getDefaultStartingRoom().orElse(startingRoom));
+        customMap.addCharacter(player1);
+        customMap.setPlayer(player1);
+
+        return customMap;
+    }
+
+    /**
+     * Copies the exit details, entries 2-5 (inclusive), from the given record.
+     *
+     * @param roomDetailsList the list of details describing a room
+     * @return an array of the four exit room names, with null for any missing entry,
+     *          or null if the record has no exit details
+     */
+    static String[] exitNames(List<String> roomDetailsList) {
+        if(roomDetailsList.size() < 3) {
+            return null;
+        }
+
+        String[] exitNames = new String[4];
+
+        for(int i = 0; i < exitNames.length && i + 2 < roomDetailsList.size(); i++) {
+            exitNames[i] = roomDetailsList.get(i + 2);
+        }
+
+        return exitNames;
+    }
+
+    /**
+     * Instantiates the exits of the given {@link Room} to link to rooms from {@link #roomIndex}.
+     * <p>
+     *     The exit room names are given in the order North, East, South, West.
+     *     Exits whose name does not match a room, such as "null", are not added.
+     * </p>
+     *
+     * @param room the room to instantiate the exits of
+     * @param exitNames the names of the rooms the exits lead to, may be null
+     * @param directions the north, east, south and west directions, in that order
+     */
+    private void instantiateExits(Room room, String[] exitNames, Direction[] directions) {
+        if(exitNames == null) {
+            return;
+        }
+
+        for(int i = 0; i < directions.length; i++) {
+            Room exit = exitNames[i] == null ? null : roomIndex.get(exitNames[i]);
+
+            if(exit != null) {
+                room.addExit(directions[i], exit);
+            }
+        }
+    }
+
+    /**
+     * Adds each {@link Item} specified by roomDetailsList entries 6+ to the given {@link Room}.
+     *
+     * @param room the room to add any specified items to
+     * @param roomDetailsList the list of details describing the room with item details in entries 6+
+     */
+    private static void addItems(Room room, List<String> roomDetailsList) {
+        parseItems(roomDetailsList).forEach(room.getInventory()::addItem);
+    }
+
+    /**
+     * Creates each {@link Item} specified by roomDetailsList entries 6+.
+     * <p>
+     *     An item is only created if both a name and weight are specified.
+     *     An item must be specified by a string (name) in an even entry of roomDetailsList
+     *     followed by a String representing an integer (weight) in the immediately following entry.
+     * </p>
+     *
+     * @param roomDetailsList the list of details describing a room with item details in entries 6+
+     * @return the list of items specified, may be empty
+     */
+    static List<Item> parseItems(List<String> roomDetailsList) {
+        return parseItems(roomDetailsList, (name, weight) -> ItemType.of(name, weight).getItem());
+    }
+
+    /**
+     * Creates a representation of each item specified by roomDetailsList entries 6+ with the given function.
+     * <p>
+     *     Items are found as by {@link #parseItems(List)}, but no {@link ItemType} is registered
+     *     unless the function registers one.
+     * </p>
+     *
+     * @param roomDetailsList the list of details describing a room with item details in entries 6+
+     * @param itemFactory the function creating the representation of an item from its name and weight, not null
+     * @param <T> the type representing an item
+     * @return the list of items specified, may be empty
+     */
+    static <T> List<T> parseItems(List<String> roomDetailsList, BiFunction<String, Integer, T> itemFactory) {
+        List<T> items = new ArrayList<>();
+
+        if(roomDetailsList.size() < 8) {
+            return items;
+        }
+
+        //split the item details list into a list of item names and a list of item weights
+        List<String> itemNames = new ArrayList<>();
+        List<Integer> itemWeights = new ArrayList<>();
+
+        for(String detail : roomDetailsList.subList(6, roomDetailsList.size())) {
+            if(isInteger(detail)) {
+                itemWeights.add(Integer.parseInt(detail));
+            } else {
+                itemNames.add(detail);
+            }
+        }
+
+        //create all the items that have both a name and a weight
+        for(int i = 0; i < itemNames.size() && i < itemWeights.size(); i++) {
+            items.add(itemFactory.apply(itemNames.get(i), itemWeights.get(i)));
+        }
+
+        return items;
+    }
+
+    /**
+     * Indicates if a given {@link String} represents an {@link Integer}.
+     * <p>
+     *     The characters are checked before parsing so that item names do not throw
+     *     a {@link NumberFormatException} for every item loaded.
+     * </p>
+     *
+     * @param str the string to test, not null
+     * @return true if the given string represents an integer, false otherwise
+     */
+    private static boolean isInteger(String str) {
+        int start = (str.startsWith("-") || str.startsWith("+")) ? 1 : 0;
+
+        if(str.length() == start) {
+            return false;
+        }
+
+        for(int i = start; i < str.length(); i++) {
+            if(!java.lang.Character.isDigit(str.charAt(i))) {
+                return false;
+            }
+        }
+
+        try {
+            //only values outside the range of an int are rejected here
+            Integer.parseInt(str);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        return true;
+    }
+}
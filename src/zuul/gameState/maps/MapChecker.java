@@ -1,10 +1,13 @@
 package zuul.gameState.maps;
 
+import zuul.gameState.Direction;
+import zuul.gameState.ExitGraph;
 import zuul.gameState.Room;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * A utility class for the World of Zuul application.
@@ -14,6 +17,26 @@ import java.util.Optional;
  */
 public class MapChecker {
 
+    /**
+     * The number of rooms at which the connectivity of a map is analysed in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 10_000;
+
+    /**
+     * The number of rooms of a search frontier expanded by each parallel task.
+     */
+    private static final int FRONTIER_CHUNK = 4096;
+
+    /**
+     * The depth of a room that has not been reached by the search.
+     */
+    private static final int UNREACHED = -1;
+
+    /**
+     * Atomic access to the elements of the search depth array, so parallel tasks each claim a room once.
+     */
+    private static final VarHandle DEPTHS = MethodHandles.arrayElementVarHandle(int[].class);
+
     /**
      * Find and returns a list of 'degenerate' rooms in the supplied {@link Map}.
      * <p>
@@ -59,4 +82,361 @@ public class MapChecker {
 
         return startingRoomOpt.filter(room -> !isDegenerate(room)).isPresent();
     }
+
+    /**
+     * Analyses how the rooms of the supplied {@link Map} are connected.
+     * <p>
+     *     Rooms are searched breadth first from the default starting room to find any that cannot be reached,
+     *     and the strongly connected components of the map are found to find any dead ends.
+     *     Exits are copied into primitive arrays first, and maps of at least {@link #PARALLEL_THRESHOLD} rooms
+     *     are copied and searched in parallel when more than one processor is available.
+     * </p>
+     * <p>
+     *     Every room is held while the map is analysed, so a {@link PagedMap} is materialized whole.
+     * </p>
+     *
+     * @param map the map to analyse
+     * @return a report of the connectivity of the map, not null
+     */
+    public static ConnectivityReport analyseConnectivity(Map map) {
+        long startTime = System.nanoTime();
+
+        List<Room> roomList = new ArrayList<>(map.getRoomCount());
+        map.forEachRoom(roomList::add);
+
+        Room[] rooms = roomList.toArray(new Room[0]);
+        boolean parallel = rooms.length >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1;
+
+        //give every room a dense id and store the exits between them as compressed sparse rows
+        ExitRows exitRows = getExitRows(rooms);
+
+        int[] exitOffsets = new int[rooms.length + 1];
+        range(rooms.length, parallel).forEach(i -> exitOffsets[i + 1] = exitRows.countExits(i));
+        for(int i = 0; i < rooms.length; i++) {
+            exitOffsets[i + 1] += exitOffsets[i];
+        }
+
+        int[] exitTargets = new int[exitOffsets[rooms.length]];
+        range(rooms.length, parallel).forEach(i -> exitRows.copyExits(i, exitTargets, exitOffsets[i]));
+
+        Integer start = map.getDefaultStartingRoom().map(exitRows::getId).filter(id -> id >= 0).orElse(null);
+
+        //search from the starting room
+        int[] depths = search(exitOffsets, exitTargets, start, parallel);
+
+        List<Room> unreachableRooms = new ArrayList<>();
+        for(int i = 0; i < rooms.length; i++) {
+            if(depths[i] == UNREACHED) {
+                unreachableRooms.add(rooms[i]);
+            }
+        }
+
+        //find the strongly connected components and those with no exit to another component
+        int[] components = new int[rooms.length];
+        int componentCount = findComponents(exitOffsets, exitTargets, components);
+
+        int[] componentSizes = new int[componentCount];
+        boolean[] leavable = new boolean[componentCount];
+
+        for(int i = 0; i < rooms.length; i++) {
+            componentSizes[components[i]]++;
+
+            for(int exit = exitOffsets[i]; exit < exitOffsets[i + 1]; exit++) {
+                if(components[exitTargets[exit]] != components[i]) {
+                    leavable[components[i]] = true;
+                }
+            }
+        }
+
+        java.util.Map<Integer, List<Room>> deadEnds = new TreeMap<>();
+        if(componentCount > 1) {
+            for(int i = 0; i < rooms.length; i++) {
+                if(!leavable[components[i]]) {
+                    deadEnds.computeIfAbsent(components[i], component -> new ArrayList<>()).add(rooms[i]);
+                }
+            }
+        }
+
+        return new ConnectivityReport(rooms.length, unreachableRooms, componentSizes,
+                new ArrayList<>(deadEnds.values()), System.nanoTime() - startTime);
+    }
+
+    /**
+     * Creates a stream of the ints from 0 (inclusive) to the given count (exclusive).
+     *
+     * @param count the number of ints in the stream
+     * @param parallel true if the stream should be parallel, false otherwise
+     * @return a stream of each int below count, not null
+     */
+    private static IntStream range(int count, boolean parallel) {
+        IntStream range = IntStream.range(0, count);
+        return parallel ? range.parallel() : range;
+    }
+
+    /**
+     * Gets the exits of the given rooms by dense room id, ordering the given rooms by that id.
+     * <p>
+     *     If every room is in the same {@link ExitGraph} its ids and exits are used directly,
+     *     otherwise rooms are given ids in the order given.
+     * </p>
+     *
+     * @param rooms the rooms to get the exits of, reordered by id
+     * @return the exits of the rooms by id, not null
+     */
+    private static ExitRows getExitRows(Room[] rooms) {
+        ExitGraph exitGraph = rooms.length == 0 ? null : rooms[0].getExitGraph();
+
+        if(exitGraph != null && exitGraph.getRoomCount() == rooms.length
+                && Arrays.stream(rooms).allMatch(room -> room.getExitGraph() == exitGraph)) {
+            for(int i = 0; i < rooms.length; i++) {
+                rooms[i] = exitGraph.getRoom(i);
+            }
+
+            return new ExitRows() {
+                @Override
+                public int getId(Room room) {
+                    return exitGraph.getId(room);
+                }
+
+                @Override
+                public int countExits(int id) {
+                    return exitGraph.countExits(id);
+                }
+
+                @Override
+                public void copyExits(int id, int[] targets, int offset) {
+                    exitGraph.copyExits(id, targets, offset);
+                }
+            };
+        }
+
+        //rooms are unique by name on a map, and paged rooms may be materialized again as new objects
+        java.util.Map<Room, Integer> ids = new HashMap<>(rooms.length * 2);
+        for(int i = 0; i < rooms.length; i++) {
+            ids.put(rooms[i], i);
+        }
+        Direction[] directions = Direction.values();
+
+        return new ExitRows() {
+            @Override
+            public int getId(Room room) {
+                return ids.getOrDefault(room, -1);
+            }
+
+            @Override
+            public int countExits(int id) {
+                int exitCount = 0;
+
+                for(Direction direction : directions) {
+                    Room exit = rooms[id].getExitOrNull(direction);
+                    if(exit != null && ids.containsKey(exit)) {
+                        exitCount++;
+                    }
+                }
+
+                return exitCount;
+            }
+
+            @Override
+            public void copyExits(int id, int[] targets, int offset) {
+                for(Direction direction : directions) {
+                    Room exit = rooms[id].getExitOrNull(direction);
+                    Integer target = exit == null ? null : ids.get(exit);
+
+                    if(target != null) {
+                        targets[offset++] = target;
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Searches the rooms breadth first from the given room, one depth at a time.
+     * <p>
+     *     When searching in parallel each large frontier is split into chunks expanded by separate tasks,
+     *     with every room claimed by atomically setting its depth so that it is only added to one next frontier.
+     * </p>
+     *
+     * @param exitOffsets the index of the first exit of each room
+     * @param exitTargets the id of the room each exit leads to
+     * @param start the id of the room to search from, or null if there is no such room
+     * @param parallel true if large frontiers should be expanded in parallel, false otherwise
+     * @return the number of exits needed to reach each room, or {@value #UNREACHED} if a room cannot be reached
+     */
+    private static int[] search(int[] exitOffsets, int[] exitTargets, Integer start, boolean parallel) {
+        int[] depths = new int[exitOffsets.length - 1];
+        Arrays.fill(depths, UNREACHED);
+
+        if(start == null) {
+            return depths;
+        }
+
+        depths[start] = 0;
+        int[] frontier = new int[]{start};
+
+        for(int depth = 1; frontier.length > 0; depth++) {
+            int nextDepth = depth;
+            int[] currentFrontier = frontier;
+
+            if(parallel && frontier.length > FRONTIER_CHUNK) {
+                int chunkCount = (frontier.length + FRONTIER_CHUNK - 1) / FRONTIER_CHUNK;
+
+                frontier = IntStream.range(0, chunkCount).parallel()
+                        .mapToObj(chunk -> expand(exitOffsets, exitTargets, depths, currentFrontier,
+                                chunk * FRONTIER_CHUNK,
+                                Math.min(currentFrontier.length, (chunk + 1) * FRONTIER_CHUNK), nextDepth))
+                        .flatMapToInt(Arrays::stream)
+                        .toArray();
+            } else {
+                frontier = expand(exitOffsets, exitTargets, depths, currentFrontier, 0, frontier.length, nextDepth);
+            }
+        }
+
+        return depths;
+    }
+
+    /**
+     * Claims every unreached room with an exit leading to it from part of a search frontier.
+     *
+     * @param exitOffsets the index of the first exit of each room
+     * @param exitTargets the id of the room each exit leads to
+     * @param depths the depth of each room, updated for each room claimed
+     * @param frontier the ids of the rooms at the previous depth
+     * @param from the index of the first room of the frontier to expand (inclusive)
+     * @param to the index of the last room of the frontier to expand (exclusive)
+     * @param depth the depth of the rooms to claim
+     * @return the ids of the rooms claimed, not null
+     */
+    private static int[] expand(int[] exitOffsets, int[] exitTargets, int[] depths, int[] frontier,
+                                int from, int to, int depth) {
+        int[] claimed = new int[Math.max(16, to - from)];
+        int claimedCount = 0;
+
+        for(int i = from; i < to; i++) {
+            int room = frontier[i];
+
+            for(int exit = exitOffsets[room]; exit < exitOffsets[room + 1]; exit++) {
+                int target = exitTargets[exit];
+
+                if(depths[target] == UNREACHED && DEPTHS.compareAndSet(depths, target, UNREACHED, depth)) {
+                    if(claimedCount == claimed.length) {
+                        claimed = Arrays.copyOf(claimed, claimedCount * 2);
+                    }
+                    claimed[claimedCount++] = target;
+                }
+            }
+        }
+
+        return Arrays.copyOf(claimed, claimedCount);
+    }
+
+    /**
+     * Finds the strongly connected components of the rooms using Tarjan's algorithm.
+     * <p>
+     *     The depth first search is run with explicit stacks so that long chains of rooms
+     *     do not overflow the call stack.
+     * </p>
+     *
+     * @param exitOffsets the index of the first exit of each room
+     * @param exitTargets the id of the room each exit leads to
+     * @param components the array to store the component of each room in
+     * @return the number of components found
+     */
+    private static int findComponents(int[] exitOffsets, int[] exitTargets, int[] components) {
+        int roomCount = components.length;
+        int[] index = new int[roomCount];
+        int[] lowLink = new int[roomCount];
+        int[] nextExit = new int[roomCount];
+        int[] componentStack = new int[roomCount];
+        int[] searchStack = new int[roomCount];
+        int componentStackSize = 0;
+        int nextIndex = 0;
+        int componentCount = 0;
+
+        //rooms on the component stack have an index but no component yet
+        Arrays.fill(index, UNREACHED);
+        Arrays.fill(components, UNREACHED);
+
+        for(int root = 0; root < roomCount; root++) {
+            if(index[root] != UNREACHED) {
+                continue;
+            }
+
+            int searchStackSize = 0;
+            index[root] = lowLink[root] = nextIndex++;
+            nextExit[root] = exitOffsets[root];
+            componentStack[componentStackSize++] = root;
+            searchStack[searchStackSize++] = root;
+
+            while(searchStackSize > 0) {
+                int room = searchStack[searchStackSize - 1];
+
+                if(nextExit[room] < exitOffsets[room + 1]) {
+                    int target = exitTargets[nextExit[room]++];
+
+                    if(index[target] == UNREACHED) {
+                        //visit the target before continuing with this room
+                        index[target] = lowLink[target] = nextIndex++;
+                        nextExit[target] = exitOffsets[target];
+                        componentStack[componentStackSize++] = target;
+                        searchStack[searchStackSize++] = target;
+                    } else if(components[target] == UNREACHED) {
+                        lowLink[room] = Math.min(lowLink[room], index[target]);
+                    }
+                    continue;
+                }
+
+                //every exit of this room has been visited
+                searchStackSize--;
+                if(searchStackSize > 0) {
+                    int parent = searchStack[searchStackSize - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[room]);
+                }
+
+                if(lowLink[room] == index[room]) {
+                    //this room is the root of a component made of every room above it on the component stack
+                    int member;
+                    do {
+                        member = componentStack[--componentStackSize];
+                        components[member] = componentCount;
+                    } while(member != room);
+                    componentCount++;
+                }
+            }
+        }
+
+        return componentCount;
+    }
+
+    /**
+     * The exits of a set of rooms given dense ids, as used to copy them into compressed sparse rows.
+     */
+    private interface ExitRows {
+
+        /**
+         * Gets the id of the given room.
+         *
+         * @param room the room to get the id of
+         * @return the id of the room, or -1 if the room has no id
+         */
+        int getId(Room room);
+
+        /**
+         * Counts the exits from the room with the given id that lead to a room with an id.
+         *
+         * @param id the id of the room
+         * @return the number of exits leading to a room with an id
+         */
+        int countExits(int id);
+
+        /**
+         * Copies the id of each room the room with the given id has an exit to into the given array.
+         *
+         * @param id the id of the room
+         * @param targets the array to copy the ids into
+         * @param offset the index of the array to copy the first id to
+         */
+        void copyExits(int id, int[] targets, int offset);
+    }
 }
@@ -1,21 +1,18 @@
 package zuul.gameState.maps;
 
-import zuul.GameText;
-import zuul.commands.Command;
-import zuul.gameState.Item;
-import zuul.gameState.Room;
-import zuul.gameState.characters.Character;
-import zuul.gameState.characters.Player;
-
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Map builder for the World of Zuul application.
  *
  * Provides methods for creating a {@link Map} from a world description file or world name.
+ * <p>
+ * The report of each load is kept by the map loaded, see {@link Map#getLoadReport}.
+ * The {@link #setPagedCacheSize paged cache size} is deliberately shared by every
+ * {@link zuul.GameSession GameSession}: it is how this process loads worlds, set once from the program arguments,
+ * and is read once per load rather than by the sessions' games.
  *
  * @author Timothy Shelton
  */
@@ -42,175 +39,191 @@ public class MapFactory {
     }
 
     /**
-     * Tries to create a {@link Map} from the given {@link File}.
-     *
-     * @param customWorld the file to create a map from
-     * @return an optional of the created map, or an empty optional if a
+     * The size in bytes from which text world description files are parsed in parallel by default.
+     * <p></p>
+     * Value: {@value PARALLEL_THRESHOLD}
      */
-    public static Optional<Map> createFromFile(File customWorld) {
-
-        Scanner fileScanner;
+    public static final long PARALLEL_THRESHOLD = 4 << 20;
 
-        try {
-            fileScanner = new Scanner(customWorld);
-        } catch (FileNotFoundException e) {
-            return Optional.empty();
-        }
-
-        //The map to add details from custom world file to
-        Map customMap = new CustomMap();
-
-        List<String> roomStrings = new ArrayList<>();
+    /**
+     * The greatest number of rooms held on the heap by maps loaded by {@link #createFromFile(File)},
+     * or 0 if those maps are loaded whole.
+     * <p>
+     * This is the only state of this class and is shared by every session of the application.
+     */
+    private static volatile int pagedCacheSize;
 
-        //break file stream into separate room description lines
-        while(fileScanner.hasNextLine()) {
-            roomStrings.add(fileScanner.nextLine());
+    /**
+     * Sets whether maps loaded by {@link #createFromFile(File)} are paged, and how many rooms they hold on the heap.
+     *
+     * @param cacheSize the greatest number of rooms to hold on the heap, see {@link PagedMap#DEFAULT_CACHE_SIZE},
+     *                  or 0 to load maps whole
+     * @throws IllegalArgumentException if cacheSize is negative
+     */
+    public static void setPagedCacheSize(int cacheSize) {
+        if(cacheSize < 0) {
+            throw new IllegalArgumentException("The paged cache size cannot be negative");
         }
+        pagedCacheSize = cacheSize;
+    }
 
-        //convert room description lines into lists of details
-        List<List<String>> roomDetailsLists = roomStrings.stream()
-                .map(str -> Arrays.asList(str.split("\\s*,\\s*")))
-                .collect(Collectors.toList());
-
-        //create list of rooms from room details lists
-        //Rooms have no exits at this point
-        List<Room> roomList = roomDetailsLists.stream()
-                .map(MapFactory::createRoom)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
-
-        if(roomList.size() == 0) {
-            //No rooms created so cannot create a Map
-            return Optional.empty();
+    /**
+     * Tries to create a {@link Map} from the given {@link File}.
+     * <p>
+     *     Files with the compiled world extension {@value CompiledWorld#EXTENSION} are mapped and
+     *     loaded directly from their room records by {@link CompiledWorld}.
+     * </p>
+     * <p>
+     *     Other files are treated as text world descriptions. The file is streamed through a {@link WorldFileReader}
+     *     and each room record is handed straight to a {@link MapBuilder}, so the raw lines are never held on the heap.
+     *     Rooms are indexed by name as they are read and their exits are linked through that index
+     *     once the whole file has been read, so load time grows linearly with the number of rooms.
+     *     If more than one room description has the same name then only the first is used.
+     * </p>
+     *
+     * Text files of at least {@value #PARALLEL_THRESHOLD} bytes are parsed in parallel when more than one
+     * processor is available.
+     * <p>
+     * If a paged cache size has been set with {@link #setPagedCacheSize} the map is created by {@link #createPaged}.
+     *
+     * @param customWorld the file to create a map from
+     * @return an optional of the created map, or an empty optional if the file could not be read
+     *         or does not describe a valid map
+     */
+    public static Optional<Map> createFromFile(File customWorld) {
+        int cacheSize = pagedCacheSize;
+        if(cacheSize > 0) {
+            return createPaged(customWorld, cacheSize);
         }
 
-        //Instantiate the exits of each room and add any items
-        roomList.forEach(room -> {
-            List<String> roomDetailsList = roomDetailsLists.stream()
-                    .filter(list -> list.get(0).equals(room.getName()))
-                    .findFirst().get();
-
-            instantiateExits(room, roomDetailsList,roomList);
-            addItems(room, roomDetailsList);
-        });
-
-        //Add all the rooms to the map
-        roomList.forEach(customMap::addRoom);
-
-        //set the default starting room
-        customMap.setDefaultStartingRoom(roomList.get(0));
-
-        //create a player character and add it to the map in the first room
-        Player player1 = new Player("player1", customMap.getDefaultStartingRoom().orElse(roomList.get(0)));
-        customMap.addCharacter(player1);
-        customMap.setPlayer(player1);
-
-        return Optional.of(customMap);
+        return createFromFile(customWorld,
+                customWorld.length() >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1);
     }
 
     /**
-     * Initializes a {@link Room} with a name and description from a list of String details.
+     * Tries to create a {@link Map} from the given {@link File}, choosing whether text files are parsed in parallel.
+     * <p>
+     *     In parallel mode the file is split into chunks at line boundaries that are tokenised on the common
+     *     {@link java.util.concurrent.ForkJoinPool} into lists of room records. The lists are joined in file order
+     *     and the rooms are then created and linked on the calling thread, so the map, including the id of each room,
+     *     is the same as one loaded sequentially.
+     *     Compiled worlds are not parsed so are always loaded the same way.
+     * </p>
      *
-     * @param roomDetailsList the list of details describing the room to be created
-     *                        with element 0 as the room name and element 1 as the room description
-     * @return an optional of the created room or an empty optional if one could not be created
+     * @param customWorld the file to create a map from
+     * @param parallel true to parse a text file in parallel, false to parse it sequentially
+     * @return an optional of the created map, or an empty optional if the file could not be read
+     *         or does not describe a valid map
      */
-    private static Optional<Room> createRoom(List<String> roomDetailsList) {
+    public static Optional<Map> createFromFile(File customWorld, boolean parallel) {
+
+        long startTime = System.nanoTime();
+
+        int roomCount;
+        Optional<Map> customMap;
 
-        if(roomDetailsList.size() < 2) {
-            //not enough details to create a room
+        try {
+            if(CompiledWorld.isCompiled(customWorld)) {
+                CompiledWorld compiledWorld = CompiledWorld.open(customWorld);
+
+                roomCount = compiledWorld.getRoomCount();
+                customMap = compiledWorld.toMap();
+            } else if(parallel) {
+                //only tokenising is done in parallel, rooms are created afterwards in file order
+                List<String[]> records = WorldFileReader.readParallel(customWorld, ArrayList::new,
+                        (partial, record) -> partial.add(record.toArray(new String[0])),
+                        (earlier, later) -> {
+                            earlier.addAll(later);
+                            return earlier;
+                        });
+
+                MapBuilder mapBuilder = new MapBuilder();
+                mapBuilder.addRooms(records);
+
+                roomCount = mapBuilder.getRoomCount();
+                customMap = mapBuilder.build();
+            } else {
+                MapBuilder mapBuilder = new MapBuilder();
+                WorldFileReader.read(customWorld, mapBuilder::addRoom);
+
+                roomCount = mapBuilder.getRoomCount();
+                customMap = mapBuilder.build();
+            }
+        } catch (IOException e) {
             return Optional.empty();
         }
 
-        Room room = new Room(roomDetailsList.get(0), roomDetailsList.get(1));
+        customMap.ifPresent(map -> map.setLoadReport(new MapLoadReport(customWorld.getName(), roomCount,
+                customWorld.length(), System.nanoTime() - startTime)));
 
-        return Optional.of(room);
+        return customMap;
     }
 
     /**
-     * Instantiates the exits of the given {@link Room} to link to rooms from roomList
-     * as specified by elements 2-5 (inclusive) of roomDetailsList.
+     * Tries to create a {@link PagedMap} from the given {@link File}, holding at most cacheSize rooms on the heap.
      * <p>
-     *     The exit directions are parsed as follows:
-     *     <ul>
-     *         <li>Entry 2: North</li>
-     *         <li>Entry 3: East</li>
-     *         <li>Entry 4: South</li>
-     *         <li>Entry 5: West</li>
-     *     </ul>
+     *     Files with the compiled world extension {@value CompiledWorld#EXTENSION} are mapped directly.
+     *     Other files are treated as text world descriptions and compiled to a temporary compiled world first.
+     *     Modified rooms evicted from the map are written to a temporary {@link DirtyPageStore}
+     *     that is deleted when the map is closed.
      * </p>
      *
-     *
-     * @param room the room to instantiate the exits of
-     * @param roomDetailsList the list of details describing the room with exit directions in entries 2-5 (inclusive)
-     * @param roomList the list of rooms that can be used as exit destinations
+     * @param customWorld the file to create a map from
+     * @param cacheSize the greatest number of rooms to hold on the heap, see {@link PagedMap#DEFAULT_CACHE_SIZE}
+     * @return an optional of the created map, or an empty optional if a map could not be created
      */
-    private static void instantiateExits(Room room, List<String> roomDetailsList, List<Room> roomList) {
-        if(roomDetailsList.size() < 3) {
-            return;
+    public static Optional<Map> createPaged(File customWorld, int cacheSize) {
+
+        long startTime = System.nanoTime();
+
+        CompiledWorld compiledWorld;
+        DirtyPageStore dirtyPages;
+
+        try {
+            File compiledFile = customWorld;
+
+            if(!CompiledWorld.isCompiled(customWorld)) {
+                compiledFile = File.createTempFile("zuul", CompiledWorld.EXTENSION);
+                compiledFile.deleteOnExit();
+                CompiledWorld.compile(customWorld, compiledFile);
+            }
+
+            compiledWorld = CompiledWorld.open(compiledFile);
+
+            if(compiledWorld.getRoomCount() == 0) {
+                return Optional.empty();
+            }
+
+            dirtyPages = DirtyPageStore.createTemporary();
+        } catch (IOException e) {
+            return Optional.empty();
         }
 
-        List<String> exitList = roomDetailsList.subList(2, 6);
-
-        //convert exit room names to optionals containing corresponding Room if it exists
-        // and empty otherwise (including null exits)
-        List<Optional<Room>> exits = exitList.stream()
-                .map(exit -> {
-                    return roomList.stream()
-                            .filter(rm -> rm.getName().equals(exit))
-                            .findFirst();
-                })
-                .collect(Collectors.toList());
-
-        //add each exit to the room if it was connected to a room from roomList
-        exits.get(0).ifPresent(exit -> room.addExit(GameText.getString("north"), exit));
-        exits.get(1).ifPresent(exit -> room.addExit(GameText.getString("east"), exit));
-        exits.get(2).ifPresent(exit -> room.addExit(GameText.getString("south"), exit));
-        exits.get(3).ifPresent(exit -> room.addExit(GameText.getString("west"), exit));
+        Map pagedMap = new PagedMap(compiledWorld, cacheSize, dirtyPages);
+
+        pagedMap.setLoadReport(new MapLoadReport(customWorld.getName(), compiledWorld.getRoomCount(), customWorld.length(),
+                System.nanoTime() - startTime));
+
+        return Optional.of(pagedMap);
     }
 
     /**
-     * Adds each {@link Item} specified by roomDetailsList entries 6+ to the given {@link Room}.
+     * Compiles the given text world description file into a compiled world file
+     * that can be loaded by {@link #createFromFile} without being reparsed.
      * <p>
-     *     An item is only added if both a name and weight are specified.
-     *     An item must be specified by a string (name) in an even entry of roomDetailsList
-     *     followed by a String representing an integer (weight) in the immediately following entry.
-     * </p>
+     * This is what {@link zuul.Main} does when given the compile argument.
      *
-     * @param room the room to add any specified items to
-     * @param roomDetailsList the list of details describing the room with item details in entries 6+
+     * @param customWorld the text world description file to compile
+     * @param compiledWorld the compiled world file to create, should have extension {@value CompiledWorld#EXTENSION}
+     * @return true if the world was compiled, false otherwise
      */
-    private static void addItems(Room room, List<String> roomDetailsList) {
-        if(roomDetailsList.size() < 8) {
-            return;
+    public static boolean compile(File customWorld, File compiledWorld) {
+        try {
+            CompiledWorld.compile(customWorld, compiledWorld);
+        } catch (IOException e) {
+            return false;
         }
 
-        //get the list of details describing items
-        List<String> itemsList = roomDetailsList.subList(6, roomDetailsList.size());
-
-        //split the item details list into a list of item names and a list of item weights
-        java.util.Map<Boolean,List<String>> itemNamesAndWeights = itemsList.stream()
-                .collect(Collectors.partitioningBy(str -> {
-                    try {
-                        Integer.parseInt(str);
-                    } catch (NumberFormatException e) {
-                        return false;
-                    }
-
-                    return true;
-                }));
-
-        //get the items names list
-        List<String> itemNames = itemNamesAndWeights.get(false);
-        //get the item weights list as a list of Integers
-        List<Integer> itemWeights = itemNamesAndWeights.get(true).stream()
-                .map(Integer::parseInt)
-                .collect(Collectors.toList());
-
-        //add all the items to the room
-        for(int i = 0; i < itemNames.size(); i++) {
-            room.getInventory().addItem(new Item(itemNames.get(i), itemWeights.get(i)));
-        }
+        return true;
     }
 }
@@ -0,0 +1,127 @@
+package zuul.gameState.maps;
+
+import zuul.GameText;
+
+/**
+ * A report of the time taken by {@link MapFactory} to load a {@link Map} for the World of Zuul application.
+ * <p>
+ * Stores the number of rooms and bytes read and the time taken to read and link them
+ * so that load throughput can be displayed.
+ *
+ * @author Timothy Shelton
+ */
+public class MapLoadReport {
+
+    /**
+     * The name of the source the map was loaded from.
+     */
+    private final String source;
+
+    /**
+     * The number of rooms created by the load.
+     */
+    private final int roomCount;
+
+    /**
+     * The number of bytes read by the load.
+     */
+    private final long byteCount;
+
+    /**
+     * The time taken by the load in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Constructor
+     *
+     * @param source  the name of the source the map was loaded from, not null
+     * @param roomCount  the number of rooms created by the load
+     * @param byteCount  the number of bytes read by the load
+     * @param elapsedNanos  the time taken by the load in nanoseconds
+     */
+    public MapLoadReport(String source, int roomCount, long byteCount, long elapsedNanos) {
+        this.source = source;
+        this.roomCount = roomCount;
+        this.byteCount = byteCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the name of the source the map was loaded from.
+     *
+     * @return the name of the source of the loaded map, not null
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the number of rooms created by the load.
+     *
+     * @return the number of rooms created
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Gets the number of bytes read by the load.
+     *
+     * @return the number of bytes read
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Gets the time taken by the load in nanoseconds.
+     *
+     * @return the time taken by the load in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the number of rooms created per second of load time.
+     *
+     * @return the room throughput of the load
+     */
+    public double getRoomsPerSecond() {
+        return perSecond(roomCount);
+    }
+
+    /**
+     * Gets the number of bytes read per second of load time.
+     *
+     * @return the byte throughput of the load
+     */
+    public double getBytesPerSecond() {
+        return perSecond(byteCount);
+    }
+
+    /**
+     * Converts a count to a rate per second of load time.
+     *
+     * @param count  the count to convert
+     * @return the count per second, or 0 if no time was recorded
+     */
+    private double perSecond(long count) {
+        if(elapsedNanos <= 0) {
+            return 0;
+        }
+        return count * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Creates and returns a single line String summarising this report in the language of the current locale.
+     *
+     * @return a summary of the load time and throughput, not null
+     */
+    @Override
+    public String toString() {
+        return GameText.getString("mapLoadReport", new Object[]{roomCount, byteCount, source,
+                elapsedNanos / 1_000_000.0, getRoomsPerSecond(), getBytesPerSecond()});
+    }
+}
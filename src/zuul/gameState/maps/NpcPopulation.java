@@ -0,0 +1,575 @@
+package zuul.gameState.maps;
+
+import zuul.gameState.Direction;
+import zuul.gameState.Inventory;
+import zuul.gameState.Room;
+import zuul.gameState.characters.Character;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * A large population of AI-controlled characters on a {@link Map} for the World of Zuul application.
+ * <p>
+ * The state of each NPC is stored in columns of primitive arrays indexed by the NPC's slot: its name,
+ * the id of its current {@link Room}, a handle to its {@link Inventory} and its state flags.
+ * Inventories are only created for NPCs that are given one, so an NPC that carries nothing holds no inventory.
+ * <p>
+ * Each NPC is also represented by a lightweight {@link Character} handle that reads and writes its columns,
+ * so it can be used anywhere a Character can. The handles of the population are the characters
+ * listed by the rooms they are in, and are visited by {@link Map#forEachCharacter}.
+ * NPCs in a room that is removed from the map are removed from the population with it.
+ * <p>
+ * On each turn {@link #act} asks every active NPC to act by walking the columns in slot order
+ * and running the population's {@link Behaviour} for each, rather than visiting each handle in turn,
+ * or by running a tick of its {@link NpcTickScheduler} if one is set.
+ * Moves made during a turn update the room column straight away, but rooms only list the NPCs that moved
+ * once the turn ends, when the moves are applied to each room with a single copy of its characters.
+ * Slots are not reused once an NPC has been removed.
+ *
+ * @author Timothy Shelton
+ */
+public class NpcPopulation {
+
+    /**
+     * The algorithm that determines how each NPC of a population acts.
+     */
+    @FunctionalInterface
+    public interface Behaviour {
+
+        /**
+         * Performs one action for the NPC in the specified slot.
+         * <p>
+         * NPCs should be moved with {@link NpcPopulation#moveRoom} rather than through their handles,
+         * so that moves during a turn are applied to rooms together.
+         *
+         * @param population  the population the NPC belongs to, not null
+         * @param npc  the slot of the NPC that is acting
+         */
+        void act(NpcPopulation population, int npc);
+    }
+
+    /**
+     * The behaviour of an NPC that leaves its room by a randomly chosen exit on each turn, if its room has any.
+     */
+    public static final Behaviour WANDER = (population, npc) -> {
+        Room room = population.getRoom(npc);
+        if(room == null) {
+            return;
+        }
+
+        int exits = room.getExitMask();
+        if(exits == 0) {
+            return;
+        }
+
+        Direction direction = Direction.fromMask(exits, ThreadLocalRandom.current().nextInt(Integer.bitCount(exits)));
+        Room nextRoom = room.getExitOrNull(direction);
+        if(nextRoom != null) {
+            population.moveRoom(npc, nextRoom);
+        }
+    };
+
+    /**
+     * The state flag set while an NPC is part of the population.
+     */
+    public static final byte ACTIVE = 1;
+
+    /**
+     * The state flag set while an NPC has moved during the current turn and its rooms have not been updated.
+     */
+    private static final byte MOVED = 2;
+
+    /**
+     * The inventory handle of an NPC without an inventory.
+     */
+    private static final int NO_INVENTORY = -1;
+
+    /**
+     * The initial number of slots of a population.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The map the population lives on.
+     */
+    private final Map map;
+
+    /**
+     * The name of the NPC in each slot.
+     */
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    /**
+     * The id of the current room of the NPC in each slot.
+     */
+    private int[] roomIds = new int[INITIAL_CAPACITY];
+
+    /**
+     * The index in {@link #inventories} of the inventory of the NPC in each slot, or {@link #NO_INVENTORY}.
+     */
+    private int[] inventoryHandles = new int[INITIAL_CAPACITY];
+
+    /**
+     * The state flags of the NPC in each slot.
+     */
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+
+    /**
+     * The id of the room the NPC in each slot was in when it first moved during the current turn.
+     */
+    private int[] turnStartRoomIds = new int[INITIAL_CAPACITY];
+
+    /**
+     * The slots of the NPCs that have moved during the current turn, in the order they first moved.
+     */
+    private int[] movedNpcs = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of NPCs that have moved during the current turn.
+     */
+    private int movedCount;
+
+    /**
+     * Whether the population is running a turn with its behaviour, so moves are applied to rooms when it ends.
+     */
+    private boolean inTurn;
+
+    /**
+     * The handle of the NPC in each slot, null once the NPC has been removed.
+     */
+    private PooledNpc[] handles = new PooledNpc[INITIAL_CAPACITY];
+
+    /**
+     * The inventory of each NPC that has been given one.
+     */
+    private final ArrayList<Inventory> inventories = new ArrayList<>();
+
+    /**
+     * The handle of every active NPC indexed by character id.
+     */
+    private final IdTable<PooledNpc> handlesById = new IdTable<>(Character::getId);
+
+    /**
+     * The number of slots used, including those of removed NPCs.
+     */
+    private int slotCount;
+
+    /**
+     * The behaviour run for each active NPC when the population acts.
+     */
+    private Behaviour behaviour = (population, npc) -> {};
+
+    /**
+     * The scheduler that runs the turns of this population in parallel, or null to run them with {@link #behaviour}.
+     */
+    private NpcTickScheduler scheduler;
+
+    /**
+     * Constructor
+     *
+     * @param map  the map the population lives on, not null
+     */
+    NpcPopulation(Map map) {
+        this.map = map;
+    }
+
+    /**
+     * Adds an NPC to the population and to the specified room.
+     *
+     * @param name  the name of the NPC, not null
+     * @param startingRoom  the room the NPC starts in, on this population's map, not null
+     * @return the slot of the new NPC
+     */
+    public int add(String name, Room startingRoom) {
+        int npc = allocate(name, startingRoom);
+        startingRoom.addCharacter(handles[npc]);
+        return npc;
+    }
+
+    /**
+     * Adds the specified number of NPCs to the population, all starting in the specified room.
+     * <p>
+     * The NPCs are named by the prefix followed by their position in the group, starting from 0,
+     * and are added to the room together.
+     *
+     * @param namePrefix  the start of the name of each NPC, not null
+     * @param count  the number of NPCs to add
+     * @param startingRoom  the room the NPCs start in, on this population's map, not null
+     * @return the slot of the first new NPC, the others follow it in consecutive slots
+     */
+    public int spawn(String namePrefix, int count, Room startingRoom) {
+        int first = slotCount;
+        ensureCapacity(slotCount + count);
+
+        List<Character> spawned = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            spawned.add(handles[allocate(namePrefix + i, startingRoom)]);
+        }
+
+        startingRoom.addCharacters(spawned);
+        return first;
+    }
+
+    /**
+     * Removes the NPC in the specified slot from the population and from its room.
+     *
+     * @param npc  the slot of the NPC to remove
+     */
+    public void remove(int npc) {
+        if(!isActive(npc)) {
+            return;
+        }
+
+        //an NPC that has moved this turn is still listed by the room it started the turn in
+        Room room = (flags[npc] & MOVED) != 0 ? map.getRoomById(turnStartRoomIds[npc]).orElse(null) : getRoom(npc);
+        if(room != null) {
+            room.removeCharacter(handles[npc]);
+        }
+
+        release(npc);
+    }
+
+    /**
+     * Removes every NPC of the population in the given room, which is being removed from the map.
+     * <p>
+     * Only the characters listed by the room are visited.
+     *
+     * @param room  the room being removed, not null
+     */
+    void evict(Room room) {
+        List<PooledNpc> evicted = new ArrayList<>();
+        for(Character character : room.getCharacters()) {
+            if(character instanceof PooledNpc && handlesById.get(character.getId()) == character) {
+                evicted.add((PooledNpc) character);
+            }
+        }
+
+        if(evicted.isEmpty()) {
+            return;
+        }
+
+        room.removeCharacters(evicted);
+        evicted.forEach(handle -> release(handle.getSlot()));
+    }
+
+    /**
+     * Empties the specified slot without removing its NPC from a room.
+     *
+     * @param npc  the slot of the NPC to release
+     */
+    private void release(int npc) {
+        PooledNpc handle = handles[npc];
+
+        handlesById.remove(handle);
+        if(inventoryHandles[npc] != NO_INVENTORY) {
+            inventories.set(inventoryHandles[npc], null);
+        }
+
+        flags[npc] &= ~ACTIVE;
+        names[npc] = null;
+        handles[npc] = null;
+    }
+
+    /**
+     * Gets the number of slots used by the population, including those of removed NPCs.
+     * <p>
+     * Every slot of an NPC is less than this.
+     *
+     * @return the number of slots used
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Gets the number of NPCs in the population.
+     *
+     * @return the number of NPCs that have not been removed
+     */
+    public int getNpcCount() {
+        return handlesById.size();
+    }
+
+    /**
+     * Indicates if the specified slot holds an NPC that has not been removed.
+     *
+     * @param npc  the slot to check
+     * @return true if the slot holds an active NPC, false otherwise
+     */
+    public boolean isActive(int npc) {
+        return npc >= 0 && npc < slotCount && (flags[npc] & ACTIVE) != 0;
+    }
+
+    /**
+     * Gets the name of the NPC in the specified slot.
+     *
+     * @param npc  the slot of the NPC
+     * @return the name of the NPC, null if it has been removed
+     */
+    public String getName(int npc) {
+        return names[npc];
+    }
+
+    /**
+     * Gets the id of the current room of the NPC in the specified slot.
+     *
+     * @param npc  the slot of the NPC
+     * @return the id of the room the NPC is in
+     */
+    public int getRoomId(int npc) {
+        return roomIds[npc];
+    }
+
+    /**
+     * Gets the current room of the NPC in the specified slot.
+     *
+     * @param npc  the slot of the NPC
+     * @return the room the NPC is in, or null if that room is no longer on the map
+     */
+    public Room getRoom(int npc) {
+        return map.getRoomById(roomIds[npc]).orElse(null);
+    }
+
+    /**
+     * Moves the NPC in the specified slot into the specified room, as {@link Character#moveRoom} does.
+     * <p>
+     * During a turn run by {@link #act} the move is recorded in the room column and applied to the rooms
+     * together with every other move when the turn ends.
+     *
+     * @param npc  the slot of the NPC
+     * @param nextRoom  the room to move the NPC to, not null
+     */
+    public void moveRoom(int npc, Room nextRoom) {
+        if(!inTurn) {
+            handles[npc].moveRoom(nextRoom);
+            return;
+        }
+
+        if((flags[npc] & MOVED) == 0) {
+            flags[npc] |= MOVED;
+            turnStartRoomIds[npc] = roomIds[npc];
+            movedNpcs[movedCount++] = npc;
+        }
+        roomIds[npc] = nextRoom.getId();
+    }
+
+    /**
+     * Gets the inventory of the NPC in the specified slot, creating it if the NPC does not have one yet.
+     *
+     * @param npc  the slot of the NPC
+     * @return the inventory of the NPC, not null
+     */
+    public Inventory getInventory(int npc) {
+        if(inventoryHandles[npc] == NO_INVENTORY) {
+            inventoryHandles[npc] = inventories.size();
+            inventories.add(new Inventory());
+        }
+        return inventories.get(inventoryHandles[npc]);
+    }
+
+    /**
+     * Indicates if the NPC in the specified slot holds any items, without creating an inventory for it.
+     *
+     * @param npc  the slot of the NPC
+     * @return true if the NPC has an inventory with at least one item in it, false otherwise
+     */
+    public boolean hasItems(int npc) {
+        return inventoryHandles[npc] != NO_INVENTORY && !inventories.get(inventoryHandles[npc]).isEmpty();
+    }
+
+    /**
+     * Gets the state flags of the NPC in the specified slot.
+     *
+     * @param npc  the slot of the NPC
+     * @return the flags of the NPC, {@link #ACTIVE} is set while it has not been removed
+     */
+    public byte getFlags(int npc) {
+        return flags[npc];
+    }
+
+    /**
+     * Gets the {@link Character} handle of the NPC in the specified slot.
+     *
+     * @param npc  the slot of the NPC
+     * @return an Optional containing the NPC if the slot holds an active NPC, empty otherwise
+     */
+    public Optional<Character> getCharacter(int npc) {
+        return isActive(npc) ? Optional.of(handles[npc]) : Optional.empty();
+    }
+
+    /**
+     * Gets the {@link Character} handle of the NPC with the specified character id.
+     *
+     * @param id  the character id of the NPC
+     * @return an Optional containing the NPC if it is in this population, empty otherwise
+     */
+    public Optional<Character> getCharacterById(int id) {
+        return Optional.ofNullable(handlesById.get(id));
+    }
+
+    /**
+     * Sets the behaviour run for each active NPC when the population acts.
+     *
+     * @param behaviour  the behaviour of the NPCs, not null
+     */
+    public void setBehaviour(Behaviour behaviour) {
+        this.behaviour = behaviour;
+    }
+
+    /**
+     * Sets the scheduler that runs the turns of this population in parallel.
+     * <p>
+     * While a scheduler is set {@link #act()} runs one of its ticks instead of the population's {@link Behaviour}.
+     *
+     * @param scheduler  the scheduler for this population, or null to act with the behaviour
+     * @throws IllegalArgumentException  if the scheduler runs the turns of another population
+     */
+    public void setScheduler(NpcTickScheduler scheduler) {
+        if(scheduler != null && scheduler.getPopulation() != this) {
+            throw new IllegalArgumentException("The scheduler belongs to another population");
+        }
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Asks every active NPC to act.
+     * <p>
+     * If a {@link NpcTickScheduler} is set this runs one of its ticks,
+     * otherwise the population's {@link Behaviour} is run for each NPC in slot order.
+     */
+    public void act() {
+        if(scheduler != null) {
+            scheduler.tick();
+            return;
+        }
+
+        //read the slot count each time so NPCs added during the turn do not act until the next one
+        int count = slotCount;
+        inTurn = true;
+        try {
+            for(int npc = 0; npc < count; npc++) {
+                if((flags[npc] & ACTIVE) != 0) {
+                    behaviour.act(this, npc);
+                }
+            }
+        } finally {
+            inTurn = false;
+            applyMoves();
+        }
+    }
+
+    /**
+     * Updates the rooms left and entered by the NPCs that moved during the turn,
+     * removing and adding the characters of each room together as {@link NpcTickScheduler} does.
+     * <p>
+     * An NPC whose room was removed from the map during the turn is removed from the population.
+     */
+    private void applyMoves() {
+        java.util.Map<Room, List<Character>> leaving = new LinkedHashMap<>();
+        java.util.Map<Room, List<Character>> entering = new LinkedHashMap<>();
+        List<Integer> lost = new ArrayList<>();
+
+        for(int i = 0; i < movedCount; i++) {
+            int npc = movedNpcs[i];
+            flags[npc] &= ~MOVED;
+            if((flags[npc] & ACTIVE) == 0 || turnStartRoomIds[npc] == roomIds[npc]) {
+                continue;
+            }
+
+            Character character = handles[npc];
+            map.getRoomById(turnStartRoomIds[npc])
+                    .ifPresent(room -> leaving.computeIfAbsent(room, key -> new ArrayList<>()).add(character));
+
+            Room room = getRoom(npc);
+            if(room == null) {
+                lost.add(npc);
+            } else {
+                entering.computeIfAbsent(room, key -> new ArrayList<>()).add(character);
+            }
+        }
+        movedCount = 0;
+
+        leaving.forEach(Room::removeCharacters);
+        entering.forEach(Room::addCharacters);
+        lost.forEach(this::release);
+    }
+
+    /**
+     * Asks the NPC in the specified slot to act.
+     *
+     * @param npc  the slot of the NPC
+     */
+    void act(int npc) {
+        if(isActive(npc)) {
+            behaviour.act(this, npc);
+        }
+    }
+
+    /**
+     * Applies the given Consumer function to the handle of each active NPC, in slot order.
+     *
+     * @param consumer  the Consumer to be applied to each NPC, not null
+     */
+    void forEachCharacter(Consumer<? super Character> consumer) {
+        int count = slotCount;
+        for(int npc = 0; npc < count; npc++) {
+            if((flags[npc] & ACTIVE) != 0) {
+                consumer.accept(handles[npc]);
+            }
+        }
+    }
+
+    /**
+     * Sets the current room of the NPC in the specified slot without moving it between rooms.
+     *
+     * @param npc  the slot of the NPC
+     * @param room  the room to record as the NPC's current room, not null
+     */
+    void setRoom(int npc, Room room) {
+        roomIds[npc] = room.getId();
+    }
+
+    /**
+     * Fills the next slot with a new active NPC without adding it to its room.
+     *
+     * @param name  the name of the NPC, not null
+     * @param startingRoom  the room the NPC starts in, not null
+     * @return the slot of the new NPC
+     */
+    private int allocate(String name, Room startingRoom) {
+        ensureCapacity(slotCount + 1);
+
+        int npc = slotCount++;
+        names[npc] = name;
+        roomIds[npc] = startingRoom.getId();
+        inventoryHandles[npc] = NO_INVENTORY;
+        flags[npc] = ACTIVE;
+        handles[npc] = new PooledNpc(this, npc);
+        handles[npc].setId(map.nextCharacterId());
+        handlesById.add(handles[npc]);
+
+        return npc;
+    }
+
+    /**
+     * Grows the columns so that they have at least the specified number of slots.
+     *
+     * @param capacity  the number of slots needed
+     */
+    private void ensureCapacity(int capacity) {
+        if(capacity <= names.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, names.length * 2);
+        names = Arrays.copyOf(names, newCapacity);
+        roomIds = Arrays.copyOf(roomIds, newCapacity);
+        inventoryHandles = Arrays.copyOf(inventoryHandles, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+        turnStartRoomIds = Arrays.copyOf(turnStartRoomIds, newCapacity);
+        movedNpcs = Arrays.copyOf(movedNpcs, newCapacity);
+        handles = Arrays.copyOf(handles, newCapacity);
+    }
+}
@@ -0,0 +1,416 @@
+package zuul.gameState.maps;
+
+import zuul.gameState.Direction;
+import zuul.gameState.Inventory;
+import zuul.gameState.ItemType;
+import zuul.gameState.Room;
+import zuul.gameState.characters.Character;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the turns of an {@link NpcPopulation} in parallel for the World of Zuul application.
+ * <p>
+ * Each tick has two phases:
+ * <ol>
+ *     <li>Intent: every active NPC's {@link Planner} chooses an {@link Intent} on a {@link ForkJoinPool}.
+ *     Planners only read the game state, so NPCs can plan at the same time.</li>
+ *     <li>Commit: the intents are applied one at a time on the calling thread.
+ *     Conflicting intents, such as two NPCs taking the last item of a type from a room,
+ *     are resolved by the order they are applied in and the losers' intents are rejected.</li>
+ * </ol>
+ * Intents are applied in slot order starting from a slot chosen by the seed and the tick, so no NPC always wins.
+ * Each NPC plans with a random number generator seeded from the scheduler's seed, the tick and the NPC's slot,
+ * so a fixed seed gives the same result every time however many threads are used.
+ *
+ * @author Timothy Shelton
+ */
+public class NpcTickScheduler {
+
+    /**
+     * The algorithm that determines what each NPC of a population intends to do on a tick.
+     */
+    @FunctionalInterface
+    public interface Planner {
+
+        /**
+         * Chooses what the NPC in the specified slot will try to do this tick.
+         * <p>
+         * This is called for many NPCs at the same time, so it must not change the game state,
+         * and must only use the given random number generator for random choices.
+         *
+         * @param population  the population the NPC belongs to, not null
+         * @param npc  the slot of the NPC that is planning
+         * @param random  the random number generator of this NPC for this tick, not null
+         * @return the intent of the NPC, not null
+         */
+        Intent plan(NpcPopulation population, int npc, SplittableRandom random);
+    }
+
+    /**
+     * An action that an NPC intends to perform on one tick.
+     */
+    public static final class Intent {
+
+        /**
+         * The intent to do nothing.
+         */
+        private static final Intent STAY = new Intent(null, null);
+
+        /**
+         * The intent to move in each direction, shared by every NPC.
+         */
+        private static final EnumMap<Direction, Intent> MOVES = new EnumMap<>(Direction.class);
+
+        static {
+            for(Direction direction : Direction.values()) {
+                MOVES.put(direction, new Intent(direction, null));
+            }
+        }
+
+        /**
+         * The direction to move in, or null if this is not a move.
+         */
+        private final Direction direction;
+
+        /**
+         * The type of item to take, or null if this is not a take.
+         */
+        private final ItemType itemType;
+
+        /**
+         * Constructor
+         *
+         * @param direction  the direction to move in, or null
+         * @param itemType  the type of item to take, or null
+         */
+        private Intent(Direction direction, ItemType itemType) {
+            this.direction = direction;
+            this.itemType = itemType;
+        }
+
+        /**
+         * Gets the intent to do nothing this tick.
+         *
+         * @return the intent to stay, not null
+         */
+        public static Intent stay() {
+            return STAY;
+        }
+
+        /**
+         * Gets the intent to leave the current room by the exit in the specified direction.
+         * <p>
+         * It is rejected if the room has no exit in that direction when it is applied.
+         *
+         * @param direction  the direction to move in, not null
+         * @return the intent to move, not null
+         */
+        public static Intent move(Direction direction) {
+            return MOVES.get(direction);
+        }
+
+        /**
+         * Gets the intent to take one item of the specified type from the current room.
+         * <p>
+         * It is rejected if no item of the type is left in the room when it is applied,
+         * or if the NPC cannot carry the extra weight.
+         *
+         * @param itemType  the type of item to take, not null
+         * @return the intent to take an item, not null
+         */
+        public static Intent take(ItemType itemType) {
+            return new Intent(null, Objects.requireNonNull(itemType));
+        }
+    }
+
+    /**
+     * The number of NPCs below which the intent phase is not split further between threads.
+     */
+    private static final int PLAN_THRESHOLD = 1024;
+
+    /**
+     * The number of NPCs from which a population's turns are worth running with a scheduler,
+     * as smaller populations plan on a single thread.
+     * <p></p>
+     * Value: {@value PARALLEL_THRESHOLD}
+     */
+    public static final int PARALLEL_THRESHOLD = 2 * PLAN_THRESHOLD;
+
+    /**
+     * The planner of an NPC that intends to leave its room by a randomly chosen exit on each tick,
+     * as {@link NpcPopulation#WANDER} does.
+     */
+    public static final Planner WANDER = (population, npc, random) -> {
+        Room room = population.getRoom(npc);
+        if(room == null) {
+            return Intent.stay();
+        }
+
+        int exits = room.getExitMask();
+        if(exits == 0) {
+            return Intent.stay();
+        }
+
+        return Intent.move(Direction.fromMask(exits, random.nextInt(Integer.bitCount(exits))));
+    };
+
+    /**
+     * The population whose turns are run.
+     */
+    private final NpcPopulation population;
+
+    /**
+     * The seed that every random choice is derived from.
+     */
+    private final long seed;
+
+    /**
+     * The pool the intent phase is run on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The planner of every NPC.
+     */
+    private Planner planner = (population, npc, random) -> Intent.stay();
+
+    /**
+     * The intent of each slot in the current tick.
+     */
+    private Intent[] intents = new Intent[0];
+
+    /**
+     * The number of ticks run.
+     */
+    private long tick;
+
+    /**
+     * The number of intents rejected on the last tick.
+     */
+    private int rejectedCount;
+
+    /**
+     * Constructor using the common fork-join pool.
+     *
+     * @param population  the population whose turns are run, not null
+     * @param seed  the seed that every random choice is derived from
+     */
+    public NpcTickScheduler(NpcPopulation population, long seed) {
+        this(population, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param population  the population whose turns are run, not null
+     * @param seed  the seed that every random choice is derived from
+     * @param pool  the pool the intent phase is run on, not null
+     */
+    public NpcTickScheduler(NpcPopulation population, long seed, ForkJoinPool pool) {
+        this.population = population;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Sets the planner of every NPC.
+     *
+     * @param planner  the planner of the NPCs, not null
+     */
+    public void setPlanner(Planner planner) {
+        this.planner = planner;
+    }
+
+    /**
+     * Gets the population whose turns are run.
+     *
+     * @return the population of this scheduler, not null
+     */
+    NpcPopulation getPopulation() {
+        return population;
+    }
+
+    /**
+     * Gets the number of ticks run.
+     *
+     * @return the number of ticks run by this scheduler
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the number of intents rejected on the last tick because they conflicted with the game state.
+     *
+     * @return the number of rejected intents
+     */
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Runs one tick: every active NPC plans in parallel, then the intents are applied in turn.
+     */
+    public void tick() {
+        int slotCount = population.getSlotCount();
+        if(intents.length < slotCount) {
+            intents = new Intent[slotCount];
+        }
+
+        pool.invoke(new PlanTask(0, slotCount));
+        commit(slotCount);
+
+        Arrays.fill(intents, 0, slotCount, null);
+        tick++;
+    }
+
+    /**
+     * Applies the intents of the current tick.
+     * <p>
+     * Takes are applied as they are reached. Moves are gathered by room and applied together afterwards,
+     * so each room's list of characters is only replaced once.
+     *
+     * @param slotCount  the number of slots that planned
+     */
+    private void commit(int slotCount) {
+        rejectedCount = 0;
+        if(slotCount == 0) {
+            return;
+        }
+
+        java.util.Map<Room, List<Character>> leaving = new LinkedHashMap<>();
+        java.util.Map<Room, List<Character>> entering = new LinkedHashMap<>();
+
+        int start = (int) Long.remainderUnsigned(mix(seed ^ mix(tick)), slotCount);
+        for(int i = 0; i < slotCount; i++) {
+            int npc = (start + i) % slotCount;
+            Intent intent = intents[npc];
+
+            if(intent == null || intent == Intent.STAY) {
+                continue;
+            }
+
+            Room room = population.getRoom(npc);
+            boolean applied = room != null && (intent.itemType != null
+                    ? take(npc, room, intent.itemType)
+                    : move(npc, room, intent.direction, leaving, entering));
+
+            if(!applied) {
+                rejectedCount++;
+            }
+        }
+
+        leaving.forEach(Room::removeCharacters);
+        entering.forEach(Room::addCharacters);
+    }
+
+    /**
+     * Moves an item of the specified type from a room to the inventory of the NPC in the specified slot.
+     *
+     * @param npc  the slot of the NPC taking the item
+     * @param room  the room the NPC is in, not null
+     * @param itemType  the type of item to take, not null
+     * @return true if the item was taken, false if there was none left or it was too heavy
+     */
+    private boolean take(int npc, Room room, ItemType itemType) {
+        if(room.getInventory().getQuantity(itemType) == 0) {
+            return false;
+        }
+
+        Inventory inventory = population.getInventory(npc);
+        if(inventory.getTotalWeight() + itemType.getWeight() > inventory.getMAX_WEIGHT()) {
+            return false;
+        }
+
+        room.getInventory().removeItems(itemType.getItem(), 1);
+        inventory.addItems(itemType, 1);
+        return true;
+    }
+
+    /**
+     * Records the NPC in the specified slot as moving out of a room by one of its exits.
+     *
+     * @param npc  the slot of the NPC moving
+     * @param room  the room the NPC is in, not null
+     * @param direction  the direction of the exit to take, not null
+     * @param leaving  the characters leaving each room this tick, not null
+     * @param entering  the characters entering each room this tick, not null
+     * @return true if the room has an exit in the direction, false otherwise
+     */
+    private boolean move(int npc, Room room, Direction direction,
+                         java.util.Map<Room, List<Character>> leaving, java.util.Map<Room, List<Character>> entering) {
+        Room nextRoom = room.getExitOrNull(direction);
+        if(nextRoom == null) {
+            return false;
+        }
+
+        Character character = population.getCharacter(npc).get();
+        leaving.computeIfAbsent(room, key -> new ArrayList<>()).add(character);
+        entering.computeIfAbsent(nextRoom, key -> new ArrayList<>()).add(character);
+        population.setRoom(npc, nextRoom);
+        return true;
+    }
+
+    /**
+     * Scrambles the bits of a value, as the finalizer of the SplitMix64 generator does.
+     *
+     * @param value  the value to scramble
+     * @return the scrambled value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Plans the intents of a range of slots, splitting the range between threads while it is large.
+     */
+    private class PlanTask extends RecursiveAction {
+
+        /**
+         * The serialization version of this task, which is never serialized.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first slot of the range.
+         */
+        private final int from;
+
+        /**
+         * The slot after the last of the range.
+         */
+        private final int to;
+
+        /**
+         * Constructor
+         *
+         * @param from  the first slot to plan
+         * @param to  the slot after the last to plan
+         */
+        PlanTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > PLAN_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PlanTask(from, middle), new PlanTask(middle, to));
+                return;
+            }
+
+            long tickSeed = mix(seed + mix(tick));
+            for(int npc = from; npc < to; npc++) {
+                if(population.isActive(npc)) {
+                    intents[npc] = planner.plan(population, npc, new SplittableRandom(mix(tickSeed ^ npc)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,598 @@
+package zuul.gameState.maps;
+
+import zuul.gameState.Room;
+import zuul.gameState.characters.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Map} whose rooms are read from a {@link CompiledWorld} only when needed for the World of Zuul application.
+ * <p>
+ * Rooms are materialized from their records when first looked up or entered and kept in a least recently used
+ * cache holding a set number of rooms. When the cache is full the least recently used room is evicted,
+ * unless a {@link zuul.gameState.characters.Character} is in it or it is the default starting room.
+ * Evicted rooms whose exits or items were modified are written to a {@link DirtyPageStore}
+ * and read back from it when next materialized, so no changes are lost.
+ * Only the cached rooms, an index of room names and an index of the entrances of each room are held on the heap,
+ * so worlds with many more rooms than fit on the heap can be played.
+ * <p>
+ * A room evicted from the cache is no longer part of this map's state, so rooms should be looked up again
+ * rather than kept. Rooms with characters in them are never evicted.
+ * <p>
+ * Rooms are read from the world, so this map does not use the room storage of {@link Map}
+ * and rooms cannot be added to it or have their exits compacted.
+ * The cache and the dirty page store are guarded by this map's lock so rooms can be looked up
+ * from several threads at once, as the parallel planners of an {@link NpcTickScheduler} do.
+ * Rooms should not be removed while other threads are looking rooms up.
+ * <p>
+ * The map should be closed once it is no longer played to delete its dirty page store.
+ *
+ * @author Timothy Shelton
+ */
+public class PagedMap extends Map implements Closeable {
+
+    /**
+     * The default number of rooms held in the cache.
+     * <p></p>
+     * Value: {@value DEFAULT_CACHE_SIZE}
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    /**
+     * The compiled world the rooms of this map are read from.
+     */
+    private final CompiledWorld world;
+
+    /**
+     * The greatest number of rooms held in {@link #cache}, unless more rooms cannot be evicted.
+     */
+    private final int cacheSize;
+
+    /**
+     * Every materialized room by index, least recently used first.
+     */
+    private final LinkedHashMap<Integer, PagedRoom> cache;
+
+    /**
+     * The store of modified rooms that have been evicted.
+     */
+    private final DirtyPageStore dirtyPages;
+
+    /**
+     * An open addressing hash table of room names, holding the index of each room plus one, or 0 for an empty slot.
+     */
+    private final int[] nameTable;
+
+    /**
+     * The position in {@link #entranceSources} of the first entrance of each room in the world,
+     * followed by the number of entrances in the world.
+     */
+    private final int[] entranceOffsets;
+
+    /**
+     * The index of the room each exit in the world leads from, grouped by the room the exit leads to.
+     */
+    private final int[] entranceSources;
+
+    /**
+     * The index of every room whose exits have changed from those in the world.
+     */
+    private final BitSet rewiredRooms = new BitSet();
+
+    /**
+     * The index of every room whose exits have changed from those in the world, in the order they first changed.
+     */
+    private final List<Integer> rewiredRoomList = new ArrayList<>();
+
+    /**
+     * The index of every room removed from this map.
+     */
+    private final BitSet removedRooms = new BitSet();
+
+    /**
+     * The number of rooms removed from this map.
+     */
+    private int removalCount;
+
+    /**
+     * The number of rooms materialized from the world or the dirty page store.
+     */
+    private long materializationCount;
+
+    /**
+     * Constructor
+     * <p>
+     * Indexes the names and entrances of every room of the world,
+     * then materializes the first room as the default starting room and creates a {@link Player} in it.
+     *
+     * @param world  the compiled world to read rooms from, with at least one room, not null
+     * @param cacheSize  the greatest number of rooms to hold in the cache, at least 1
+     * @param dirtyPages  the store to write modified rooms to when they are evicted, not null
+     */
+    PagedMap(CompiledWorld world, int cacheSize, DirtyPageStore dirtyPages) {
+        super("Custom World!");
+        this.world = world;
+        this.cacheSize = Math.max(1, cacheSize);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+        this.dirtyPages = dirtyPages;
+        this.nameTable = new int[tableSize(world.getRoomCount())];
+
+        for(int i = 0; i < world.getRoomCount(); i++) {
+            addName(world.getRoomName(i), i);
+        }
+
+        //count the entrances of each room, then place each one after the entrances of earlier rooms
+        this.entranceOffsets = new int[world.getRoomCount() + 1];
+        for(int i = 0; i < world.getRoomCount(); i++) {
+            for(int exit = 0; exit < CompiledWorld.EXIT_COUNT; exit++) {
+                int exitRoom = world.getExit(i, exit);
+                if(exitRoom != CompiledWorld.NO_EXIT) {
+                    entranceOffsets[exitRoom + 1]++;
+                }
+            }
+        }
+        for(int i = 0; i < world.getRoomCount(); i++) {
+            entranceOffsets[i + 1] += entranceOffsets[i];
+        }
+
+        this.entranceSources = new int[entranceOffsets[world.getRoomCount()]];
+        int[] nextEntrance = Arrays.copyOf(entranceOffsets, world.getRoomCount());
+        for(int i = 0; i < world.getRoomCount(); i++) {
+            for(int exit = 0; exit < CompiledWorld.EXIT_COUNT; exit++) {
+                int exitRoom = world.getExit(i, exit);
+                if(exitRoom != CompiledWorld.NO_EXIT) {
+                    entranceSources[nextEntrance[exitRoom]++] = i;
+                }
+            }
+        }
+
+        Room startingRoom = getRoom(0);
+        setDefaultStartingRoom(startingRoom);
+
+        //create a player character and add it to the map in the starting room
+        Player player1 = new Player("player1", startingRoom);
+        addCharacter(player1);
+        setPlayer(player1);
+    }
+
+    /**
+     * Gets the room with the given index, materializing it if it is not in the cache.
+     *
+     * @param index  the index of the room in the world
+     * @return the room with the given index, not null
+     * @throws UncheckedIOException  if the room cannot be read from the dirty page store
+     */
+    synchronized Room getRoom(int index) {
+        PagedRoom room = cache.get(index);
+
+        if(room == null) {
+            room = materialize(index);
+            cache.put(index, room);
+            evict(room);
+        }
+
+        return room;
+    }
+
+    /**
+     * Indicates if the given index is the index of a room on this map.
+     *
+     * @param index  the index to check
+     * @return true if a room with the given index exists and has not been removed, false otherwise
+     */
+    boolean isRoom(int index) {
+        return index >= 0 && index < world.getRoomCount() && !removedRooms.get(index);
+    }
+
+    /**
+     * Gets the name of the room with the given index without materializing it.
+     *
+     * @param index  the index of the room
+     * @return the name of the room, not null
+     */
+    String getRoomName(int index) {
+        return world.getRoomName(index);
+    }
+
+    /**
+     * Finds every room with an exit leading to the room with the given index.
+     * <p>
+     * The entrances the room has in the world are looked up in the entrance index,
+     * and only the rooms whose exits have changed since are checked for their current exits,
+     * so the rest of the map is not visited.
+     *
+     * @param index  the index of the room
+     * @return a list of the rooms with exits leading to the room, once for each exit, not null
+     */
+    synchronized List<Room> findEntrances(int index) {
+        List<Room> entrances = new ArrayList<>();
+
+        //rooms whose exits have not changed lead to the room as they do in the world
+        for(int entrance = entranceOffsets[index]; entrance < entranceOffsets[index + 1]; entrance++) {
+            int source = entranceSources[entrance];
+
+            if(isRoom(source) && !rewiredRooms.get(source)) {
+                entrances.add(getRoom(source));
+            }
+        }
+
+        for(int source : rewiredRoomList) {
+            if(!isRoom(source)) {
+                continue;
+            }
+
+            for(int exitRoom : getExitIndices(source)) {
+                if(exitRoom == index) {
+                    entrances.add(getRoom(source));
+                }
+            }
+        }
+
+        return entrances;
+    }
+
+    /**
+     * Records that the exits of the room with the given index have changed from those in the world.
+     *
+     * @param index  the index of the room
+     */
+    synchronized void exitsRewired(int index) {
+        if(!rewiredRooms.get(index)) {
+            rewiredRooms.set(index);
+            rewiredRoomList.add(index);
+        }
+    }
+
+    /**
+     * Gets the number of rooms currently held in the cache.
+     *
+     * @return the number of materialized rooms held
+     */
+    public synchronized int getCachedRoomCount() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the number of times a room has been materialized, including rooms materialized again after eviction.
+     *
+     * @return the number of rooms materialized
+     */
+    public synchronized long getMaterializationCount() {
+        return materializationCount;
+    }
+
+    /**
+     * Gets the number of modified rooms written to the dirty page store.
+     *
+     * @return the number of rooms with a dirty page
+     */
+    public synchronized int getDirtyPageCount() {
+        return dirtyPages.getPageCount();
+    }
+
+    /**
+     * Safely removes a room from this Map.
+     * <p>
+     * The room is marked as removed so exits leading to it are ignored rather than removed,
+     * without materializing any other room.
+     *
+     * @param room the room to safely remove from this map
+     */
+    @Override
+    public synchronized void safeRemoveRoom(Room room) {
+        int index = indexOf(room.getName());
+
+        if(!isRoom(index)) {
+            return;
+        }
+
+        //rooms with characters in them are always cached, so NPCs are only ever in the cached room
+        PagedRoom cachedRoom = cache.get(index);
+        if(cachedRoom != null) {
+            evictNpcs(cachedRoom);
+        }
+
+        removedRooms.set(index);
+        removalCount++;
+        cache.remove(index);
+
+        if(getDefaultStartingRoom().filter(room::equals).isPresent()) {
+            setDefaultStartingRoom(null);
+        }
+    }
+
+    /**
+     * Gets the number of rooms removed from this map.
+     *
+     * @return the number of rooms removed since this map was created
+     */
+    int getRemovalCount() {
+        return removalCount;
+    }
+
+    @Override
+    public void removeRooms(Collection<Room> roomsToRemove) {
+        roomsToRemove.forEach(this::safeRemoveRoom);
+    }
+
+    /**
+     * Applies the given Consumer function to each {@link Room} in the map.
+     * <p>
+     * Every room is materialized in turn, evicting others from the cache as needed.
+     *
+     * @param consumer  the Consumer to be applied to each Room, not null
+     */
+    @Override
+    public void forEachRoom(Consumer<? super Room> consumer) {
+        for(int i = 0; i < world.getRoomCount(); i++) {
+            if(isRoom(i)) {
+                consumer.accept(getRoom(i));
+            }
+        }
+    }
+
+    @Override
+    public int getRoomCount() {
+        return world.getRoomCount() - removedRooms.cardinality();
+    }
+
+    @Override
+    public Optional<Room> getRoom(String roomName) {
+        int index = indexOf(roomName);
+
+        if(!isRoom(index)) {
+            return Optional.empty();
+        }
+        return Optional.of(getRoom(index));
+    }
+
+    /**
+     * Gets the room from this map with the supplied id if it exists.
+     * <p>
+     * The id of each room is its index in the world, so a room keeps its id each time it is materialized.
+     *
+     * @param id the id of the desired room
+     * @return an optional containing the room with the supplied id if one exists on this map, else an empty optional
+     */
+    @Override
+    public Optional<Room> getRoomById(int id) {
+        if(!isRoom(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(getRoom(id));
+    }
+
+    /**
+     * Gets every room on this map whose name starts with the supplied prefix, sorted by name.
+     * <p>
+     * The names of every room are sorted for each call, but only the matching rooms are materialized.
+     *
+     * @param prefix the start of the names of the desired rooms, not null
+     * @return a list of the rooms whose names start with the prefix, may be empty
+     */
+    @Override
+    public List<Room> getRoomsWithPrefix(String prefix) {
+        List<Room> matchingRooms = new ArrayList<>();
+
+        for(String name : getRoomNames().tailSet(prefix, true)) {
+            if(!name.startsWith(prefix)) {
+                //names are sorted so no later name can start with the prefix
+                break;
+            }
+            getRoom(name).ifPresent(matchingRooms::add);
+        }
+
+        return matchingRooms;
+    }
+
+    /**
+     * Gets a sorted, read-only set of the names of every room on this map.
+     * <p>
+     * The names are read from the world for each call without materializing any room.
+     *
+     * @return the names of the rooms on this map in ascending order, not null
+     */
+    @Override
+    public NavigableSet<String> getRoomNames() {
+        NavigableSet<String> names = new TreeSet<>();
+
+        for(int i = 0; i < world.getRoomCount(); i++) {
+            if(isRoom(i)) {
+                names.add(world.getRoomName(i));
+            }
+        }
+
+        return Collections.unmodifiableNavigableSet(names);
+    }
+
+    /**
+     * Closes the dirty page store of this map, deleting its file, and empties the cache.
+     * <p>
+     * Rooms cannot be materialized once the map is closed.
+     *
+     * @throws IOException  if the dirty page store cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        cache.clear();
+        dirtyPages.close();
+    }
+
+    @Override
+    protected void createRooms() {}
+
+    @Override
+    protected void createCharacters() {}
+
+    @Override
+    public String getWelcome() {
+        return CustomMap.WELCOME;
+    }
+
+    /**
+     * Reads the room with the given index from the dirty page store if it has been written there,
+     * or from the world otherwise.
+     *
+     * @param index  the index of the room
+     * @return the materialized room, not null
+     * @throws UncheckedIOException  if the room cannot be read from the dirty page store
+     */
+    private PagedRoom materialize(int index) {
+        try {
+            int[] exits = dirtyPages.readExits(index);
+            boolean written = exits != null;
+
+            if(!written) {
+                exits = getWorldExits(index);
+            }
+
+            PagedRoom room = new PagedRoom(this, index, world.getRoomName(index),
+                    world.getRoomDescription(index), exits);
+
+            if(written) {
+                dirtyPages.readItems(index, room.getInventory());
+            } else {
+                world.getItems(index).forEach(room.getInventory()::addItem);
+            }
+            room.markSaved();
+
+            materializationCount++;
+            return room;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Evicts the least recently used rooms until the cache is no larger than {@link #cacheSize}.
+     * <p>
+     * Rooms with characters in them, the default starting room and the given room are not evicted.
+     * Modified rooms are written to the dirty page store as they are evicted.
+     *
+     * @param keep  the room to keep in the cache, not null
+     * @throws UncheckedIOException  if a modified room cannot be written to the dirty page store
+     */
+    private void evict(PagedRoom keep) {
+        Room startingRoom = getDefaultStartingRoom().orElse(null);
+        Iterator<PagedRoom> rooms = cache.values().iterator();
+
+        while(cache.size() > cacheSize && rooms.hasNext()) {
+            PagedRoom room = rooms.next();
+
+            if(room == keep || room == startingRoom || !room.getCharacters().isEmpty()) {
+                continue;
+            }
+
+            rooms.remove();
+
+            if(room.isModified()) {
+                try {
+                    dirtyPages.write(room.getIndex(), room.getExitIndices(), room.getInventory());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the current exits of the room with the given index without materializing it.
+     *
+     * @param index  the index of the room
+     * @return the index of the room each exit leads to by {@link zuul.gameState.Direction} ordinal, not null
+     * @throws UncheckedIOException  if the exits cannot be read from the dirty page store
+     */
+    private int[] getExitIndices(int index) {
+        PagedRoom room = cache.get(index);
+
+        if(room != null) {
+            return room.getExitIndices();
+        }
+
+        try {
+            int[] exits = dirtyPages.readExits(index);
+            return exits != null ? exits : getWorldExits(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the exits of the room with the given index from the world.
+     *
+     * @param index  the index of the room
+     * @return the index of the room each exit leads to by {@link zuul.gameState.Direction} ordinal, not null
+     */
+    private int[] getWorldExits(int index) {
+        int[] exits = new int[CompiledWorld.EXIT_COUNT];
+
+        for(int exit = 0; exit < exits.length; exit++) {
+            exits[exit] = world.getExit(index, exit);
+        }
+
+        return exits;
+    }
+
+    /**
+     * Finds the index of the room with the given name.
+     *
+     * @param name  the name of the room
+     * @return the index of the room, or {@value CompiledWorld#NO_EXIT} if no room has the given name
+     */
+    private int indexOf(String name) {
+        int mask = nameTable.length - 1;
+
+        for(int slot = hash(name) & mask; nameTable[slot] != 0; slot = (slot + 1) & mask) {
+            if(world.getRoomName(nameTable[slot] - 1).equals(name)) {
+                return nameTable[slot] - 1;
+            }
+        }
+
+        return CompiledWorld.NO_EXIT;
+    }
+
+    /**
+     * Adds the given room name to the name table if no room with that name has been added yet.
+     *
+     * @param name  the name of the room
+     * @param index  the index of the room
+     */
+    private void addName(String name, int index) {
+        int mask = nameTable.length - 1;
+        int slot = hash(name) & mask;
+
+        while(nameTable[slot] != 0) {
+            if(world.getRoomName(nameTable[slot] - 1).equals(name)) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        nameTable[slot] = index + 1;
+    }
+
+    /**
+     * Spreads the hash code of the given name so that its high bits affect its slot.
+     *
+     * @param name  the name to hash
+     * @return the spread hash code of the name
+     */
+    private static int hash(String name) {
+        int hash = name.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Gets the size of a name table for the given number of rooms, a power of two at least twice that number.
+     *
+     * @param roomCount  the number of rooms
+     * @return the size of the name table
+     */
+    private static int tableSize(int roomCount) {
+        return Integer.highestOneBit(Math.max(1, roomCount) * 2 - 1) << 1;
+    }
+}
@@ -0,0 +1,213 @@
+package zuul.gameState.maps;
+
+import zuul.gameState.Direction;
+import zuul.gameState.Room;
+
+import java.util.*;
+
+/**
+ * A {@link Room} of a {@link PagedMap} for the World of Zuul application.
+ * <p>
+ * Exits are stored as the indices of the rooms they lead to and are only materialized by the map when followed,
+ * so materializing one room does not materialize its neighbours.
+ * The room records whether its exits or inventory have been modified since it was materialized
+ * so the map knows whether it must be written back when it is evicted.
+ * Its id is its index in the world, so every materialization of the same room has the same id.
+ *
+ * @author Timothy Shelton
+ */
+class PagedRoom extends Room {
+
+    /**
+     * The map this room belongs to.
+     */
+    private final PagedMap map;
+
+    /**
+     * The index of this room in its map's world.
+     */
+    private final int index;
+
+    /**
+     * The index of the room each exit leads to by {@link Direction} ordinal, or {@link CompiledWorld#NO_EXIT}.
+     */
+    private final int[] exits;
+
+    /**
+     * True if the exits of this room have been modified since it was materialized or last written back.
+     */
+    private boolean exitsModified;
+
+    /**
+     * The modification count of this room's inventory when it was materialized or last written back.
+     */
+    private int savedInventoryModificationCount;
+
+    /**
+     * Constructor
+     *
+     * @param map  the map this room belongs to, not null
+     * @param index  the index of this room in the map's world
+     * @param name  the name of this room, not null
+     * @param description  the description of this room, not null
+     * @param exits  the index of the room each exit leads to by direction ordinal, not null
+     */
+    PagedRoom(PagedMap map, int index, String name, String description, int[] exits) {
+        super(index, name, description);
+        this.map = map;
+        this.index = index;
+        this.exits = exits.clone();
+    }
+
+    /**
+     * Gets the index of this room in its map's world.
+     *
+     * @return the index of this room
+     */
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the index of the room each exit leads to.
+     *
+     * @return a copy of the exit room indices by {@link Direction} ordinal
+     */
+    int[] getExitIndices() {
+        return exits.clone();
+    }
+
+    /**
+     * Indicates if this room has been modified since it was materialized or last written back.
+     *
+     * @return true if this room's exits or inventory have been modified, false otherwise
+     */
+    boolean isModified() {
+        return exitsModified || getInventory().getModificationCount() != savedInventoryModificationCount;
+    }
+
+    /**
+     * Records that the current state of this room has been saved.
+     */
+    void markSaved() {
+        exitsModified = false;
+        savedInventoryModificationCount = getInventory().getModificationCount();
+    }
+
+    /**
+     * Ensures that the specified exit is part of this Room's state.
+     * <p>
+     * A paged room can only have exits to rooms of the same map.
+     *
+     * @param direction  the direction of the exit, not null
+     * @param room  the room the exit leads to, not null
+     * @throws IllegalArgumentException  if the room is not a room of the same map
+     */
+    @Override
+    public void addExit(Direction direction, Room room) {
+        if(!(room instanceof PagedRoom) || ((PagedRoom) room).map != map) {
+            throw new IllegalArgumentException("Paged rooms can only have exits to rooms of the same map");
+        }
+
+        exits[direction.ordinal()] = ((PagedRoom) room).index;
+        exitsModified = true;
+        map.exitsRewired(index);
+        exitsChanged();
+    }
+
+    /**
+     * Gets a number that changes whenever the exits of this room are changed.
+     * <p>
+     * Exits to rooms removed from the map disappear without this room being modified,
+     * so the number of rooms removed from the map is included.
+     *
+     * @return the version of this room's exits
+     */
+    @Override
+    protected int getExitsVersion() {
+        return super.getExitsVersion() + map.getRemovalCount();
+    }
+
+    @Override
+    public Room getExitOrNull(Direction exit) {
+        int exitRoom = exits[exit.ordinal()];
+
+        if(!map.isRoom(exitRoom)) {
+            return null;
+        }
+        return map.getRoom(exitRoom);
+    }
+
+    @Override
+    public int getExitMask() {
+        int mask = 0;
+
+        for(int exit = 0; exit < exits.length; exit++) {
+            if(map.isRoom(exits[exit])) {
+                mask |= 1 << exit;
+            }
+        }
+
+        return mask;
+    }
+
+    @Override
+    public Set<Direction> getExitDirections() {
+        Set<Direction> directions = EnumSet.noneOf(Direction.class);
+
+        for(Direction direction : Direction.values()) {
+            if(map.isRoom(exits[direction.ordinal()])) {
+                directions.add(direction);
+            }
+        }
+
+        return directions;
+    }
+
+    @Override
+    public boolean hasExits() {
+        for(int exitRoom : exits) {
+            if(map.isRoom(exitRoom)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void removeExit(Room room) {
+        for(int exit = 0; exit < exits.length; exit++) {
+            //compare names so rooms are not materialized
+            if(map.isRoom(exits[exit]) && map.getRoomName(exits[exit]).equals(room.getName())) {
+                exits[exit] = CompiledWorld.NO_EXIT;
+                exitsModified = true;
+                map.exitsRewired(index);
+                exitsChanged();
+            }
+        }
+    }
+
+    @Override
+    public void removeAllExits() {
+        for(int exit = 0; exit < exits.length; exit++) {
+            if(exits[exit] != CompiledWorld.NO_EXIT) {
+                exits[exit] = CompiledWorld.NO_EXIT;
+                exitsModified = true;
+                map.exitsRewired(index);
+                exitsChanged();
+            }
+        }
+    }
+
+    /**
+     * Gets a read-only list of every room with an exit leading to this room.
+     * <p>
+     * The entrances are found through the entrance index of the map, materializing each entrance.
+     *
+     * @return the rooms with exits leading to this room, not null
+     */
+    @Override
+    public List<Room> getEntrances() {
+        return map.findEntrances(index);
+    }
+}
@@ -0,0 +1,80 @@
+package zuul.gameState.maps;
+
+import zuul.gameState.Inventory;
+import zuul.gameState.Room;
+import zuul.gameState.characters.Character;
+
+/**
+ * A lightweight handle to an NPC of an {@link NpcPopulation} for the World of Zuul application.
+ * <p>
+ * The handle stores only its id, population and slot, every other part of the NPC's state is read from
+ * and written to the population's columns. It extends {@link Character} directly
+ * so that it carries none of the fields of a {@link zuul.gameState.characters.StandaloneCharacter}.
+ *
+ * @author Timothy Shelton
+ */
+class PooledNpc extends Character {
+
+    /**
+     * The population this NPC belongs to.
+     */
+    private final NpcPopulation population;
+
+    /**
+     * The slot of this NPC in its population.
+     */
+    private final int slot;
+
+    /**
+     * Constructor
+     *
+     * @param population  the population this NPC belongs to, not null
+     * @param slot  the slot of this NPC in the population
+     */
+    PooledNpc(NpcPopulation population, int slot) {
+        this.population = population;
+        this.slot = slot;
+    }
+
+    /**
+     * Gets the slot of this NPC in its population.
+     *
+     * @return the slot of this NPC
+     */
+    int getSlot() {
+        return slot;
+    }
+
+    @Override
+    public String getName() {
+        return population.getName(slot);
+    }
+
+    /**
+     * Gets the current room of this NPC from its population.
+     *
+     * @return the room this NPC is in, null only if the NPC has been removed from its population
+     */
+    @Override
+    public Room getCurrentRoom() {
+        return population.getRoom(slot);
+    }
+
+    @Override
+    public void setCurrentRoom(Room nextRoom) {
+        population.setRoom(slot, nextRoom);
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return population.getInventory(slot);
+    }
+
+    /**
+     * Runs the behaviour of this NPC's population for this NPC.
+     */
+    @Override
+    public void act() {
+        population.act(slot);
+    }
+}
@@ -0,0 +1,419 @@
+package zuul.gameState.maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A streaming reader of world description files for the World of Zuul application.
+ * <p>
+ * The file is memory-mapped and each line is tokenised in place into a room record,
+ * the list of comma separated details describing one room.
+ * Each record is handed to a consumer as soon as it is read so no raw lines are kept on the heap.
+ * <p>
+ * Details are split the same way as {@code line.split("\\s*,\\s*")}:
+ * whitespace either side of a comma is removed and trailing empty details are dropped.
+ *
+ * @author Timothy Shelton
+ */
+public class WorldFileReader {
+
+    /**
+     * The largest region of a file that is mapped at once.
+     * <p>
+     * Larger files are read in several windows that each end on a line boundary.
+     */
+    private static final int MAX_WINDOW = 1 << 28;
+
+    /**
+     * The smallest region of a file parsed as one chunk by {@link #readParallel}.
+     */
+    private static final int MIN_CHUNK = 1 << 16;
+
+    /**
+     * The number of chunks to split each window into for each thread of the pool used by {@link #readParallel}.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Reads every room record from the given {@link File} and passes each to the given consumer in file order.
+     * <p>
+     * The record list passed to the consumer is reused for the next record,
+     * so the consumer must copy any details it needs to keep.
+     *
+     * @param worldFile  the world description file to read, not null
+     * @param recordConsumer  the consumer to pass each room record to, not null
+     * @return the number of bytes read
+     * @throws IOException  if the file cannot be opened or mapped
+     */
+    public static long read(File worldFile, Consumer<List<String>> recordConsumer) throws IOException {
+        RecordTokenizer tokenizer = new RecordTokenizer(recordConsumer);
+
+        return forEachWindow(worldFile, (window, end) -> tokenizer.tokenize(window, 0, end));
+    }
+
+    /**
+     * Reads every room record from the given {@link File} in parallel on the common {@link ForkJoinPool}.
+     * <p>
+     * The file is split into chunks at line boundaries. The records of each chunk are passed, in order,
+     * to a new partial result from partialSupplier. Partial results are then combined in file order
+     * so the combined result is the same as reading the whole file into a single partial result,
+     * provided combiner appends the records of its second argument to its first.
+     * <p>
+     * The record list passed to the consumer is reused for the next record,
+     * so the consumer must copy any details it needs to keep.
+     *
+     * @param worldFile  the world description file to read, not null
+     * @param partialSupplier  creates an empty partial result for each chunk, not null
+     * @param recordConsumer  adds a room record to a partial result, not null
+     * @param combiner  combines two partial results, the first holding records from earlier in the file, not null
+     * @param <T>  the type of the partial results
+     * @return the combined result of reading every chunk, not null
+     * @throws IOException  if the file cannot be opened or mapped
+     */
+    public static <T> T readParallel(File worldFile, Supplier<T> partialSupplier,
+                                     BiConsumer<T, List<String>> recordConsumer,
+                                     BinaryOperator<T> combiner) throws IOException {
+        List<T> windowResults = new ArrayList<>();
+        int chunkCount = ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD;
+
+        forEachWindow(worldFile, (window, end) -> {
+            int[] boundaries = chunkBoundaries(window, end, Math.max(MIN_CHUNK, end / chunkCount + 1));
+
+            windowResults.add(ForkJoinPool.commonPool().invoke(
+                    new ChunkTask<>(window, boundaries, 0, boundaries.length - 1,
+                            partialSupplier, recordConsumer, combiner)));
+        });
+
+        return windowResults.stream().reduce(combiner).orElseGet(partialSupplier);
+    }
+
+    /**
+     * Maps the given {@link File} one window at a time and passes each window to the given handler.
+     * <p>
+     * Every window except the last ends on a line boundary.
+     *
+     * @param worldFile  the file to map, not null
+     * @param windowHandler  the handler to pass each window and the index of its end to, not null
+     * @return the number of bytes read
+     * @throws IOException  if the file cannot be opened or mapped
+     */
+    private static long forEachWindow(File worldFile, BiConsumer<ByteBuffer, Integer> windowHandler)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(worldFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while(position < size) {
+                int length = (int) Math.min(MAX_WINDOW, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                //only tokenise up to the last complete line unless this is the end of the file
+                int end = (position + length < size) ? lineBoundaryBefore(window, length) : length;
+
+                if(end == 0) {
+                    throw new IOException("Room description longer than " + MAX_WINDOW + " bytes");
+                }
+
+                windowHandler.accept(window, end);
+                position += end;
+            }
+
+            return size;
+        }
+    }
+
+    /**
+     * Splits the given region of a buffer into chunks of about the given size that each end on a line boundary.
+     *
+     * @param buffer  the buffer to split, not null
+     * @param end  the index after the last byte of the region, starting from index 0
+     * @param chunkSize  the preferred size of each chunk
+     * @return the index of the start of each chunk followed by end
+     */
+    private static int[] chunkBoundaries(ByteBuffer buffer, int end, int chunkSize) {
+        List<Integer> boundaries = new ArrayList<>();
+        int start = 0;
+
+        while(start < end) {
+            boundaries.add(start);
+
+            int cut = (int) Math.min((long) start + chunkSize, end);
+
+            //move the cut forward to the start of the next line
+            while(cut < end && buffer.get(cut - 1) != '\n') {
+                cut++;
+            }
+
+            start = cut;
+        }
+
+        boundaries.add(end);
+
+        return boundaries.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Finds the index immediately after the last line break in the given buffer before the given index.
+     *
+     * @param buffer  the buffer to search, not null
+     * @param end  the index to search backwards from
+     * @return the index following the last line break before end, or 0 if there is no line break
+     */
+    static int lineBoundaryBefore(ByteBuffer buffer, int end) {
+        for(int i = end - 1; i >= 0; i--) {
+            if(buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Splits lines of bytes into room records and passes each record to a consumer.
+     * <p>
+     * The record list and decoding buffer are reused for every line.
+     */
+    static class RecordTokenizer {
+
+        /**
+         * The consumer to pass each room record to.
+         */
+        private final Consumer<List<String>> recordConsumer;
+
+        /**
+         * The details of the room record currently being read.
+         */
+        private final List<String> record = new ArrayList<>();
+
+        /**
+         * Scratch space to copy the bytes of each detail into before decoding.
+         */
+        private byte[] scratch = new byte[256];
+
+        /**
+         * Constructor
+         *
+         * @param recordConsumer  the consumer to pass each room record to, not null
+         */
+        RecordTokenizer(Consumer<List<String>> recordConsumer) {
+            this.recordConsumer = recordConsumer;
+        }
+
+        /**
+         * Tokenises every line in the given region of the buffer and passes each record to the consumer.
+         * <p>
+         * The region should end on a line boundary or at the end of the file.
+         *
+         * @param buffer  the buffer to read, not null
+         * @param from  the index of the first byte of the region
+         * @param to  the index after the last byte of the region
+         */
+        void tokenize(ByteBuffer buffer, int from, int to) {
+            int lineStart = from;
+
+            for(int i = from; i < to; i++) {
+                if(buffer.get(i) == '\n') {
+                    tokenizeLine(buffer, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+
+            if(lineStart < to) {
+                //last line of the file without a line break
+                tokenizeLine(buffer, lineStart, to);
+            }
+        }
+
+        /**
+         * Splits a single line into its details and passes the record to the consumer.
+         *
+         * @param buffer  the buffer to read, not null
+         * @param from  the index of the first byte of the line
+         * @param to  the index of the line break ending the line, or the end of the file
+         */
+        private void tokenizeLine(ByteBuffer buffer, int from, int to) {
+            if(to > from && buffer.get(to - 1) == '\r') {
+                to--; //windows line ending
+            }
+
+            record.clear();
+
+            int fieldStart = from;
+
+            for(int i = from; i <= to; i++) {
+                if(i == to || buffer.get(i) == ',') {
+                    int start = fieldStart;
+                    int end = i;
+
+                    //whitespace is only removed next to a comma
+                    if(start != from) {
+                        while(start < end && isWhitespace(buffer.get(start))) {
+                            start++;
+                        }
+                    }
+                    if(end != to) {
+                        while(end > start && isWhitespace(buffer.get(end - 1))) {
+                            end--;
+                        }
+                    }
+
+                    record.add(decode(buffer, start, end));
+                    fieldStart = i + 1;
+                }
+            }
+
+            //drop trailing empty details
+            while(record.size() > 1 && record.get(record.size() - 1).isEmpty()) {
+                record.remove(record.size() - 1);
+            }
+
+            recordConsumer.accept(record);
+        }
+
+        /**
+         * Decodes the given region of the buffer as a UTF-8 String.
+         *
+         * @param buffer  the buffer to read, not null
+         * @param from  the index of the first byte to decode
+         * @param to  the index after the last byte to decode
+         * @return the decoded String, not null
+         */
+        private String decode(ByteBuffer buffer, int from, int to) {
+            int length = to - from;
+
+            if(length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+
+            for(int i = 0; i < length; i++) {
+                scratch[i] = buffer.get(from + i);
+            }
+
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Indicates if the given byte is a whitespace character matched by the regular expression {@code \s}.
+         *
+         * @param b  the byte to test
+         * @return true if the byte is whitespace, false otherwise
+         */
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+        }
+    }
+
+    /**
+     * A task that reads a range of chunks of a buffer into a partial result,
+     * splitting the range in two until each task reads a single chunk.
+     *
+     * @param <T>  the type of the partial results
+     */
+    private static class ChunkTask<T> extends RecursiveTask<T> {
+
+        /**
+         * The serialization version of this task, which is never serialized.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The buffer holding the chunks.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The start of each chunk followed by the end of the last chunk.
+         */
+        private final int[] boundaries;
+
+        /**
+         * The index of the first chunk to read.
+         */
+        private final int firstChunk;
+
+        /**
+         * The index after the last chunk to read.
+         */
+        private final int endChunk;
+
+        /**
+         * Creates an empty partial result.
+         */
+        private final Supplier<T> partialSupplier;
+
+        /**
+         * Adds a room record to a partial result.
+         */
+        private final BiConsumer<T, List<String>> recordConsumer;
+
+        /**
+         * Combines two partial results in order.
+         */
+        private final BinaryOperator<T> combiner;
+
+        /**
+         * Constructor
+         *
+         * @param buffer  the buffer holding the chunks, not null
+         * @param boundaries  the start of each chunk followed by the end of the last chunk, not null
+         * @param firstChunk  the index of the first chunk to read
+         * @param endChunk  the index after the last chunk to read
+         * @param partialSupplier  creates an empty partial result, not null
+         * @param recordConsumer  adds a room record to a partial result, not null
+         * @param combiner  combines two partial results in order, not null
+         */
+        ChunkTask(ByteBuffer buffer, int[] boundaries, int firstChunk, int endChunk, Supplier<T> partialSupplier,
+                  BiConsumer<T, List<String>> recordConsumer, BinaryOperator<T> combiner) {
+            this.buffer = buffer;
+            this.boundaries = boundaries;
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+            this.partialSupplier = partialSupplier;
+            this.recordConsumer = recordConsumer;
+            this.combiner = combiner;
+        }
+
+        /**
+         * Reads a single chunk, or splits the range of chunks in two and combines the results in order.
+         *
+         * @return the partial result of reading the range of chunks, not null
+         */
+        @Override
+        protected T compute() {
+            if(endChunk - firstChunk <= 1) {
+                T partial = partialSupplier.get();
+
+                if(firstChunk < endChunk) {
+                    RecordTokenizer tokenizer = new RecordTokenizer(record -> recordConsumer.accept(partial, record));
+                    tokenizer.tokenize(buffer, boundaries[firstChunk], boundaries[endChunk]);
+                }
+
+                return partial;
+            }
+
+            int middleChunk = (firstChunk + endChunk) >>> 1;
+
+            ChunkTask<T> later = new ChunkTask<>(buffer, boundaries, middleChunk, endChunk,
+                    partialSupplier, recordConsumer, combiner);
+            later.fork();
+
+            T earlierResult = new ChunkTask<>(buffer, boundaries, firstChunk, middleChunk,
+                    partialSupplier, recordConsumer, combiner).compute();
+
+            return combiner.apply(earlierResult, later.join());
+        }
+    }
+}
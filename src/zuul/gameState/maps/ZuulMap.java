@@ -1,6 +1,7 @@
 package zuul.gameState.maps;
 
 import zuul.GameText;
+import zuul.gameState.Direction;
 import zuul.gameState.Item;
 import zuul.gameState.Room;
 import zuul.gameState.characters.Character;
@@ -69,19 +70,19 @@ public class ZuulMap extends Map {
 
         // initialise room exits and items
         //outside
-        outside.setExits(new String[]{GameText.getString("east"), GameText.getString("south"), GameText.getString("west")},
+        outside.setExits(new Direction[]{Direction.EAST, Direction.SOUTH, Direction.WEST},
                 new Room[]{theatre, lab, pub});
         outside.getInventory().addItem(new Item(GameText.getString("notebook"), 2));
         outside.getInventory().addItem(new Item(GameText.getString("whip"), 2));
         //theatre
-        theatre.setExits(new String[]{GameText.getString("west")}, new Room[]{outside});
+        theatre.setExits(new Direction[]{Direction.WEST}, new Room[]{outside});
         //pub
-        pub.setExits(new String[]{GameText.getString("east")}, new Room[]{outside});
+        pub.setExits(new Direction[]{Direction.EAST}, new Room[]{outside});
         //lab
-        lab.setExits(new String[]{GameText.getString("north"), GameText.getString("east")},
+        lab.setExits(new Direction[]{Direction.NORTH, Direction.EAST},
                 new Room[]{outside, office});
         //office
-        office.setExits(new String[]{GameText.getString("west")}, new Room[]{lab});
+        office.setExits(new Direction[]{Direction.WEST}, new Room[]{lab});
 
         //Start game outside
         setDefaultStartingRoom(outside);
@@ -13,10 +13,13 @@ public class In {
 
     /**
      * Gets the next line of input from the {@link GameInterface}.
+     * <p>
+     * Buffered output is {@link Out#flush() flushed} first so the user sees everything printed before the request.
      *
      * @return the next line of input from the GameInterface
      */
     public static String nextLine() {
+        Out.flush();
         return GameInterface.get().getNextLine();
     }
 }
@@ -0,0 +1,68 @@
+package zuul.io;
+
+import zuul.GameInterface;
+import zuul.GameSession;
+import zuul.gameState.characters.Player;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Reads input for a {@link Player} on its own thread for the "World of Zuul" application.
+ * <p>
+ * Each line of input from the {@link GameInterface} is submitted to the player's inbox,
+ * so the game can carry on while the user is typing.
+ * The pump stops when the interface has no more input.
+ *
+ * @author Timothy Shelton
+ */
+public class InputPump implements Runnable {
+
+    /**
+     * The player that input is read for.
+     */
+    private final Player player;
+
+    /**
+     * Constructor
+     *
+     * @param player  the player that input is read for, not null
+     */
+    public InputPump(Player player) {
+        this.player = player;
+    }
+
+    /**
+     * Starts a daemon thread that reads input for the specified player.
+     * <p>
+     * If a {@link GameSession} is running on the calling thread, input is read from that session's user interface.
+     *
+     * @param player  the player that input is read for, not null
+     * @return the started thread, not null
+     */
+    public static Thread start(Player player) {
+        InputPump pump = new InputPump(player);
+        Optional<GameSession> session = GameSession.current();
+        Runnable task = session.isPresent() ? () -> session.get().run(pump) : pump;
+
+        Thread thread = new Thread(task, "zuul-input-" + player.getName());
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Prompts for and reads lines of input, submitting each to the player, until the input ends.
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Out.print(player.getName() + " > ");     // print prompt
+                player.submit(In.nextLine());
+            }
+        } catch (NoSuchElementException | IllegalStateException e) {
+            //the interface has no more input
+        }
+    }
+}
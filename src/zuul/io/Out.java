@@ -1,23 +1,35 @@
 package zuul.io;
 
 import zuul.GameInterface;
+import zuul.GameSession;
 
 /**
  * Output controller class for the "World of Zuul" application.
  * <p>
  * This class takes output requests from the {@link zuul.Game} and delegates them to the {@link GameInterface}.
+ * <p>
+ * Output is collected in the {@link OutputBuffer} of the current {@link GameSession}, or a buffer of the
+ * current thread outside of a session, and passed to the GameInterface in one block when it is {@link #flush() flushed}.
+ * It is flushed before every {@link GameInterface#update event}, such as the end of a command or the start of
+ * a round, and before input is read, so the user sees everything printed before they are asked for input.
  *
  * @author Timothy Shelton
  */
 public class Out {
 
+    /**
+     * The buffer of each thread that is not running a {@link GameSession},
+     * so output printed by one thread is never flushed by another.
+     */
+    private static final ThreadLocal<OutputBuffer> THREAD_BUFFER = ThreadLocal.withInitial(OutputBuffer::new);
+
     /**
      * Prints the given string to the {@link GameInterface}.
      *
      * @param str  the string to be printed to the user
      */
     public static void print(String str) {
-        GameInterface.get().print(str);
+        buffer().append(str);
     }
 
     /**
@@ -60,6 +72,23 @@ public class Out {
      * Print a line break to the {@link GameInterface}.
      */
     public static void nextln() {
-        GameInterface.get().printNextln();
+        buffer().appendLineBreak();
+    }
+
+    /**
+     * Passes everything printed since the last flush to the {@link GameInterface} in one block.
+     */
+    public static void flush() {
+        buffer().flushTo(GameInterface.get());
+    }
+
+    /**
+     * Gets the buffer of the current {@link GameSession}, or the buffer of the current thread if there is none.
+     *
+     * @return the output buffer to print to, not null
+     */
+    private static OutputBuffer buffer() {
+        GameSession session = GameSession.currentOrNull();
+        return session != null ? session.getOutputBuffer() : THREAD_BUFFER.get();
     }
 }
@@ -0,0 +1,61 @@
+package zuul.io;
+
+import zuul.io.userInterfaces.UserInterface;
+
+/**
+ * Collects the text printed through {@link Out} so that it can be passed to a {@link UserInterface} in one block,
+ * for the "World of Zuul" application.
+ * <p>
+ * Each {@link zuul.GameSession} has its own buffer, and each thread that is not running a session has one of its own.
+ * A session's buffer may be written to from more than one thread, for example a game and the thread reading its input.
+ *
+ * @author Timothy Shelton
+ */
+public class OutputBuffer {
+
+    /**
+     * The text printed and not yet flushed, with line breaks as {@link System#lineSeparator()}.
+     */
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * Adds text to this buffer.
+     *
+     * @param str  the text to add, not null
+     */
+    public synchronized void append(String str) {
+        text.append(str);
+    }
+
+    /**
+     * Adds a line break to this buffer.
+     */
+    public synchronized void appendLineBreak() {
+        text.append(System.lineSeparator());
+    }
+
+    /**
+     * Indicates if this buffer holds text that has not been flushed.
+     *
+     * @return true if there is text waiting to be printed, false otherwise
+     */
+    public synchronized boolean isEmpty() {
+        return text.length() == 0;
+    }
+
+    /**
+     * Passes all the text in this buffer to the specified user interface in one block and empties this buffer.
+     * Does nothing if the buffer is empty.
+     *
+     * @param userInterface  the user interface to print the text, not null
+     */
+    public synchronized void flushTo(UserInterface userInterface) {
+        if (text.length() == 0) {
+            return;
+        }
+
+        String block = text.toString();
+        text.setLength(0);
+        userInterface.printBlock(block);
+    }
+}
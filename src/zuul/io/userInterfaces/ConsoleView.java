@@ -0,0 +1,144 @@
+package zuul.io.userInterfaces;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only console that shows the text printed by the game in the {@link GraphicalUserInterface}
+ * of the "World of Zuul" application.
+ * <p>
+ * Text is only ever appended. It is kept as a list of lines, with at most the most recent {@link #getMaxLines()}
+ * lines kept for scrolling back, and shown in a {@link ListView} that only creates cells for the lines on screen.
+ * Appending text only touches the last line and the new ones, so its cost depends on the length of the text
+ * appended and not on how much has been printed before.
+ *
+ * @author Timothy Shelton
+ */
+public class ConsoleView extends ListView<String> {
+
+    /**
+     * The default number of lines kept for scrolling back.
+     * <p></p>
+     * Default value: {@value DEFAULT_MAX_LINES}
+     */
+    public static final int DEFAULT_MAX_LINES = 2000;
+
+    /**
+     * The number of lines kept for scrolling back.
+     */
+    private final int maxLines;
+
+    /**
+     * Set while the last line has not been ended by a line break, so that the next text appended continues it.
+     */
+    private boolean lastLineOpen;
+
+    /**
+     * Constructor for a console that keeps the default number of lines.
+     */
+    public ConsoleView() {
+        this(DEFAULT_MAX_LINES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxLines  the number of lines kept for scrolling back, at least 1
+     * @throws IllegalArgumentException  if maxLines is less than 1
+     */
+    public ConsoleView(int maxLines) {
+        if (maxLines < 1) {
+            throw new IllegalArgumentException("A console must keep at least one line: " + maxLines);
+        }
+        this.maxLines = maxLines;
+        setEditable(false);
+        setFocusTraversable(false);
+    }
+
+    /**
+     * Gets the number of lines kept for scrolling back.
+     *
+     * @return the most lines this console holds
+     */
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * Appends text to the end of this console and scrolls to show it.
+     * <p>
+     * The text continues the last line unless that line was ended by a line break.
+     * Lines may end with {@code \n} or {@code \r\n}.
+     * If called from a thread other than the JavaFX application thread the text is appended on that thread later.
+     *
+     * @param text  the text to append, not null
+     */
+    public void appendText(String text) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> appendText(text));
+            return;
+        }
+
+        if (text.isEmpty()) {
+            return;
+        }
+
+        ObservableList<String> lines = getItems();
+        List<String> newLines = new ArrayList<>();
+
+        int start = 0;
+        boolean lineBreakFound = false;
+        int end;
+        while ((end = text.indexOf('\n', start)) >= 0) {
+            String line = text.substring(start, end > start && text.charAt(end - 1) == '\r' ? end - 1 : end);
+            addLine(lines, newLines, line, true);
+            start = end + 1;
+            lineBreakFound = true;
+        }
+
+        //text after the last line break starts a line that the next text appended continues
+        if (start < text.length()) {
+            addLine(lines, newLines, text.substring(start), false);
+        } else if (!lineBreakFound) {
+            return;
+        }
+
+        lines.addAll(newLines);
+        trimScrollback(lines);
+        scrollTo(lines.size() - 1);
+    }
+
+    /**
+     * Adds a line of text, continuing the last line if it is still open.
+     *
+     * @param lines  the lines already in this console, not null
+     * @param newLines  the lines waiting to be added to this console, not null
+     * @param line  the text of the line, without any line break, not null
+     * @param ended  true if the text was followed by a line break, false otherwise
+     */
+    private void addLine(ObservableList<String> lines, List<String> newLines, String line, boolean ended) {
+        if (lastLineOpen) {
+            //only the first line of text appended can continue an open line, and it is already in the console
+            lines.set(lines.size() - 1, lines.get(lines.size() - 1) + line);
+        } else {
+            newLines.add(line);
+        }
+        lastLineOpen = !ended;
+    }
+
+    /**
+     * Removes the oldest lines once this console holds a quarter more than {@link #maxLines},
+     * so that lines are removed in batches rather than one for every line added.
+     *
+     * @param lines  the lines in this console, not null
+     */
+    private void trimScrollback(ObservableList<String> lines) {
+        if (lines.size() > maxLines + maxLines / 4) {
+            lines.remove(0, lines.size() - maxLines);
+        }
+    }
+}
@@ -16,16 +16,20 @@ import zuul.commands.CommandUtils;
 import zuul.gameState.Item;
 import zuul.gameState.Room;
 import zuul.gameState.characters.Character;
+import zuul.gameState.maps.CompiledWorld;
 import zuul.gameState.maps.Map;
 import zuul.gameState.maps.MapChecker;
 import zuul.gameState.maps.MapFactory;
+import zuul.gameState.maps.PagedMap;
 import zuul.commands.Command;
 import zuul.commands.CommandFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -45,6 +49,11 @@ public class GraphicalUserInterface extends Application implements UserInterface
             .map(commandWord -> GameText.getString("CommandWordsBundle", commandWord))
             .collect(Collectors.toList());
 
+    /**
+     * The greatest number of unreachable rooms named by the warning shown before a custom world is played.
+     */
+    private static final int MAX_UNREACHABLE_ROOMS_LISTED = 20;
+
     /**
      * The game instance to be played.
      */
@@ -97,7 +106,7 @@ public class GraphicalUserInterface extends Application implements UserInterface
             //Get a new instance of Game from the user
             Optional<Game> newGame = newGame();
             newGame.ifPresent((theGame) -> {
-                this.game = theGame;
+                setGame(theGame);
                 //create the in-game interface view
                 createGameView();
             });
@@ -117,6 +126,28 @@ public class GraphicalUserInterface extends Application implements UserInterface
         primaryStage.show();
     }
 
+    /**
+     * Closes the game being played when the application exits.
+     */
+    @Override
+    public void stop() {
+        if(this.game != null) {
+            this.game.close();
+        }
+    }
+
+    /**
+     * Sets the game to be played, closing the game it replaces.
+     *
+     * @param theGame the game to be played, not null
+     */
+    private void setGame(Game theGame) {
+        if(this.game != null) {
+            this.game.close();
+        }
+        this.game = theGame;
+    }
+
     /**
      * Creates a dialog to allow the user to select which world to load.
      * Options are "Default" or "Custom".
@@ -157,6 +188,8 @@ public class GraphicalUserInterface extends Application implements UserInterface
         if(result.get().equals(customButtonType)) {
             try {
                 Optional<Map> map = MapFactory.createFromFile(getWorldDescriptionFile());
+                //the load report is for whoever launched the game so it is kept out of the game console
+                map.flatMap(Map::getLoadReport).ifPresent(System.err::println);
                 preGameChecks(map.get());
                 return map.map(Game::new);
             } catch(Exception e) {
@@ -170,7 +203,7 @@ public class GraphicalUserInterface extends Application implements UserInterface
     /* --------------------------------- Custom World Loading ----------------------------------- */
 
     /**
-     * Gets a {@link File} from the user with extension ".txt" or ".wld".
+     * Gets a {@link File} from the user with extension ".txt", ".wld" or ".wldc" (compiled world).
      *
      * @return the File selected by the user
      */
@@ -181,7 +214,7 @@ public class GraphicalUserInterface extends Application implements UserInterface
         fileChooser.getExtensionFilters().addAll(
                 new FileChooser.ExtensionFilter(
                         GameText.getString("GuiTextBundle", "worldDescriptionFileExtension"),
-                        "*.txt", "*.wld"
+                        "*.txt", "*.wld", "*" + CompiledWorld.EXTENSION
                 )
         );
 
@@ -192,12 +225,51 @@ public class GraphicalUserInterface extends Application implements UserInterface
      * Passes the given {@link Map} to several check functions.
      * <p>
      * The map may be modified by these check functions.
+     * <p>
+     * A {@link PagedMap} is not checked, as every check visits each room and would hold the whole world
+     * on the heap at once.
      *
      * @param map the map to be checked
      */
     private void preGameChecks(Map map) {
+        if(map instanceof PagedMap) {
+            return;
+        }
+
         checkRooms(map);
         addItems(map);
+        warnUnreachableRooms(map);
+    }
+
+    /**
+     * Warns the user if any {@link Room} in the given {@link Map} cannot be reached from its default starting room.
+     * <p>
+     * Nothing is shown if every room can be reached.
+     *
+     * @param map the map whose rooms should be checked
+     */
+    private void warnUnreachableRooms(Map map) {
+        List<Room> unreachableRooms = MapChecker.analyseConnectivity(map).getUnreachableRooms();
+        if(unreachableRooms.isEmpty()) {
+            return;
+        }
+
+        //only name the first few rooms so large worlds do not fill the screen
+        String roomNames = unreachableRooms.stream()
+                .limit(MAX_UNREACHABLE_ROOMS_LISTED)
+                .map(Room::getName)
+                .collect(Collectors.joining(", "));
+        if(unreachableRooms.size() > MAX_UNREACHABLE_ROOMS_LISTED) {
+            roomNames += ", ...";
+        }
+
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(GameText.getString("GuiTextBundle", "unreachableRoomsAlertTitle"));
+        alert.setHeaderText(GameText.getString("GuiTextBundle", "unreachableRoomsAlertHeader",
+                new Object[]{unreachableRooms.size(), map.getRoomCount()}));
+        alert.setContentText(roomNames);
+        alert.getDialogPane().getStylesheets().add("zuul/io/userInterfaces/mainGuiStyle.css");
+        alert.showAndWait();
     }
 
     /**
@@ -291,7 +363,7 @@ public class GraphicalUserInterface extends Application implements UserInterface
         }
 
         //remove the selected rooms
-        roomsToRemove.forEach(map::safeRemoveRoom);
+        map.removeRooms(roomsToRemove);
 
         if(!MapChecker.hasValidStartingRoom(map)) {
             Room room = pickStartingRoom(map);
@@ -312,8 +384,7 @@ public class GraphicalUserInterface extends Application implements UserInterface
      * @return the room selected by the user
      */
     private Room pickStartingRoom(Map map) {
-        List<String> roomsList = new ArrayList<>();
-        map.forEachRoom(room -> roomsList.add(room.getName()));
+        List<String> roomsList = new ArrayList<>(map.getRoomNames());
 
         ChoiceDialog<String> startingRoomSelectionDialog = new ChoiceDialog<>(roomsList.get(0), roomsList);
         startingRoomSelectionDialog.setTitle(GameText.getString("GuiTextBundle", "pickStartingRoomTitle"));
@@ -496,8 +567,7 @@ public class GraphicalUserInterface extends Application implements UserInterface
     private Label roomItemList;
     private Label roomCharacterList;
     private Label playerItemList;
-    private Label console;
-    private ScrollPane consolePane;
+    private ConsoleView console;
     private VBox commandButtonsBox;
 
     /**
@@ -562,27 +632,23 @@ public class GraphicalUserInterface extends Application implements UserInterface
         commandButtonsBox.setAlignment(Pos.CENTER);
 
         /* -------------- Console ----------------- */
-        console = new Label(gameState.getWelcome());
-        consolePane = new ScrollPane();
-        consolePane.setContent(console);
-        consolePane.setVbarPolicy(ScrollPane.ScrollBarPolicy.ALWAYS);
-        consolePane.setPannable(true);
-        consolePane.setPrefViewportHeight(80);
-        consolePane.setVvalue(1.0);
+        console = new ConsoleView();
+        console.setPrefHeight(80);
+        console.appendText(gameState.getWelcome());
 
         //Set the new game button as this will always be available regardless of game state
         Button newGameButton = new Button(GameText.getString("GuiTextBundle", "gameViewNewGameButtonLabel"));
         newGameButton.setOnAction((e) -> {Optional<Game> newGame = newGame();
-                                            newGame.ifPresent((theGame) -> {this.game = theGame;
+                                            newGame.ifPresent((theGame) -> {setGame(theGame);
                                                                             createGameView();
                                             });
         });
 
         HBox consoleBox = new HBox();
-        consoleBox.getChildren().addAll(consolePane, newGameButton);
-        HBox.setHgrow(consolePane, Priority.ALWAYS);
+        consoleBox.getChildren().addAll(console, newGameButton);
+        HBox.setHgrow(console, Priority.ALWAYS);
 
-        consolePrintStream = new PrintStream(new LabelOutputStream(console), true);
+        consolePrintStream = new PrintStream(new ConsoleOutputStream(console), true);
         System.setOut(consolePrintStream);
 
         /* -------------- Root Pane ----------------- */
@@ -773,34 +839,63 @@ public class GraphicalUserInterface extends Application implements UserInterface
     }
 
     /**
-     * An output stream that writes to the Label node supplied to the constructor.
+     * An output stream that writes whole blocks of text to the {@link ConsoleView} supplied to the constructor.
+     * <p>
+     * Bytes are collected until the stream is flushed, which the console's {@link PrintStream} does
+     * after each line it prints, and then appended to the console together.
      */
-    private class LabelOutputStream extends OutputStream {
+    private class ConsoleOutputStream extends OutputStream {
 
         /**
-         * The {@link Label} Node to write to.
+         * The {@link ConsoleView} to write to.
          */
-        private Label labelNode;
+        private final ConsoleView consoleView;
+
+        /**
+         * The bytes written since the last flush.
+         */
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
 
         /**
          * Constructor
          *
-         * @param labelNode the text node to write to
+         * @param consoleView the console to write to
          */
-        public LabelOutputStream(Label labelNode) {
-            this.labelNode = labelNode;
+        public ConsoleOutputStream(ConsoleView consoleView) {
+            this.consoleView = consoleView;
         }
 
         /**
-         * Append the character represented by the supplied int
-         * to the Label Node this output stream is initialized to.
+         * Collects the byte supplied to be appended to the console when this stream is flushed.
          *
-         * @param b the int that represents the character to be written
-         * @throws IOException
+         * @param b the int that represents the byte to be written
          */
         @Override
-        public void write(int b) throws IOException {
-            labelNode.setText(labelNode.getText() + String.valueOf((char) b));
+        public void write(int b) {
+            pending.write(b);
+        }
+
+        /**
+         * Collects the bytes supplied to be appended to the console when this stream is flushed.
+         *
+         * @param b the array holding the bytes to be written
+         * @param off the index of the first byte to be written
+         * @param len the number of bytes to be written
+         */
+        @Override
+        public void write(byte[] b, int off, int len) {
+            pending.write(b, off, len);
+        }
+
+        /**
+         * Appends every byte collected since the last flush to the console as text.
+         */
+        @Override
+        public void flush() {
+            if (pending.size() > 0) {
+                consoleView.appendText(pending.toString(Charset.defaultCharset()));
+                pending.reset();
+            }
         }
     }
 
@@ -812,7 +907,17 @@ public class GraphicalUserInterface extends Application implements UserInterface
     @Override
     public void print(String str) {
         System.out.println(str);
-        consolePane.setVvalue(1.0);
+    }
+
+    /**
+     * Prints the specified block to the standard output stream {@code System.out} as it is,
+     * since the block already holds the line breaks that were printed.
+     *
+     * @param text  the text requested to be printed to the player, not null
+     */
+    @Override
+    public void printBlock(String text) {
+        System.out.print(text);
     }
 
     /**
@@ -821,7 +926,6 @@ public class GraphicalUserInterface extends Application implements UserInterface
     @Override
     public void printNextln() {
         System.out.println();
-        consolePane.setVvalue(1.0);
     }
 
     /**
@@ -0,0 +1,419 @@
+package zuul.io.userInterfaces;
+
+import zuul.GameText;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link UserInterface} for one remote player connected over TCP, for example with telnet,
+ * in the "World of Zuul" application.
+ * <p>
+ * Each connection accepted by a {@link TelnetServer} is given its own TelnetInterface and its own game.
+ * The server's selector thread frames the bytes received into lines and hands them to this interface's inbox,
+ * where {@link #getNextLine()} takes them from. Printed text is queued and written by the selector thread.
+ * <p>
+ * Telnet option negotiation sent by the client is ignored, and lines are sent with telnet's CR LF line breaks.
+ *
+ * @author Timothy Shelton
+ */
+public class TelnetInterface implements UserInterface {
+
+    /**
+     * The default port to listen on.
+     * <p></p>
+     * Default value: {@value DEFAULT_PORT}
+     */
+    public static final int DEFAULT_PORT = 4000;
+
+    /**
+     * The locale games are played in when the server is started by {@link #main(String[])}
+     * and no locale has been set.
+     * <p>
+     * Default value: en_GB
+     */
+    private static final Locale DEFAULT_LOCALE = new Locale("en", "GB");
+
+    /**
+     * Added to the inbox when the connection is closed, compared by identity so no line received can match it.
+     * The quit command is only looked up once the game reads it, in the locale of the game's session.
+     */
+    private static final String CONNECTION_CLOSED = new String("");
+
+    /**
+     * The character set of all text sent and received.
+     */
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    /**
+     * The longest line of input accepted, in bytes. The rest of a longer line is discarded.
+     */
+    private static final int MAX_LINE_LENGTH = 1024;
+
+    /**
+     * The telnet "interpret as command" byte.
+     */
+    private static final int IAC = 255;
+
+    /**
+     * The telnet command starting option subnegotiation.
+     */
+    private static final int SB = 250;
+
+    /**
+     * The telnet command ending option subnegotiation.
+     */
+    private static final int SE = 240;
+
+    /**
+     * The first of the telnet option commands (WILL, WONT, DO and DONT) that are followed by an option byte.
+     */
+    private static final int WILL = 251;
+
+    /**
+     * The line break sent to the client.
+     */
+    private static final String LINE_BREAK = "\r\n";
+
+    /**
+     * The states of the telnet command filter.
+     */
+    private enum TelnetState { DATA, COMMAND, OPTION, SUBNEGOTIATION, SUBNEGOTIATION_COMMAND }
+
+    /**
+     * The server that owns the connection.
+     */
+    private final TelnetServer server;
+
+    /**
+     * The complete lines received and not yet read by the game.
+     */
+    private final BlockingQueue<String> inbox = new LinkedBlockingQueue<>();
+
+    /**
+     * The encoded text printed and not yet handed to the selector thread to be written.
+     */
+    private final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Set while this interface is waiting for the selector thread to write its output.
+     */
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    /**
+     * Set once the game has finished, so the connection is closed after its output has been written.
+     */
+    private volatile boolean finished;
+
+    /**
+     * Set once the connection has been closed, after which output is discarded.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The selection key of the connection, set by the selector thread when the connection is registered.
+     */
+    private SelectionKey key;
+
+    /**
+     * The buffers of output taken from {@link #output} and not yet completely written. Only used by the selector thread.
+     */
+    private final ArrayDeque<ByteBuffer> writing = new ArrayDeque<>();
+
+    /**
+     * The bytes of the line being received, reused for every line. Only used by the selector thread.
+     */
+    private final ByteBuffer lineBuffer = ByteBuffer.allocateDirect(MAX_LINE_LENGTH);
+
+    /**
+     * Set while the rest of an overlong line is being discarded. Only used by the selector thread.
+     */
+    private boolean discardingLine;
+
+    /**
+     * The state of the telnet command filter. Only used by the selector thread.
+     */
+    private TelnetState telnetState = TelnetState.DATA;
+
+    /**
+     * Constructor
+     *
+     * @param server  the server that owns the connection, not null
+     */
+    TelnetInterface(TelnetServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts a {@link TelnetServer} and serves games until the process is stopped.
+     * <p>
+     * The first argument, if given, is the port to listen on, otherwise {@value DEFAULT_PORT}.
+     * The second argument, if given, is the address to listen on, otherwise the loopback address.
+     * Games are played in the locale already set, if any, otherwise in British English;
+     * use {@code Main interface Telnet} to choose the locale and the other game options.
+     *
+     * @param args  the program arguments, optionally the port and the address to listen on
+     * @throws IOException  if the server cannot listen on the address
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        InetAddress address = args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+
+        if (GameText.getLocale() == null) {
+            GameText.setLocale(DEFAULT_LOCALE);
+        }
+
+        TelnetServer server = new TelnetServer(new InetSocketAddress(address, port));
+        System.out.println(GameText.getString("telnetServing", new Object[]{server.getLocalAddress()}));
+        server.run();
+    }
+
+    /**
+     * Does nothing. This interface does not change its behaviour based on {@link zuul.Game} events.
+     *
+     * @param event  a string that describes the event that immediately follows this update, not null
+     */
+    @Override
+    public void update(String event) {
+        //Do nothing, remote players only see the text printed.
+    }
+
+    /**
+     * Queues the specified string to be sent to the player.
+     *
+     * @param str  the string requested to be printed to the player, not null
+     */
+    @Override
+    public void print(String str) {
+        if (closed || str.isEmpty()) {
+            return;
+        }
+
+        //telnet clients expect CR LF line breaks
+        if (str.indexOf('\n') >= 0) {
+            str = str.replace(LINE_BREAK, "\n").replace("\n", LINE_BREAK);
+        }
+
+        output.add(CHARSET.encode(str));
+        requestFlush();
+    }
+
+    /**
+     * Queues a line break to be sent to the player.
+     */
+    @Override
+    public void printNextln() {
+        print(LINE_BREAK);
+    }
+
+    /**
+     * Waits for the player to send a complete line.
+     * <p>
+     * If the connection is closed, the command to quit is returned so that the game finishes.
+     *
+     * @return the next line received from the player, without its line break
+     */
+    @Override
+    public String getNextLine() {
+        try {
+            String line = inbox.take();
+            //compared by identity, a player may well send an empty line
+            return line == CONNECTION_CLOSED ? quitCommand() : line;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return quitCommand();
+        }
+    }
+
+    /**
+     * Records that the game of this connection has finished, so the connection is closed
+     * once the remaining output has been written.
+     */
+    void finish() {
+        finished = true;
+        requestFlush();
+    }
+
+    /**
+     * Indicates if the game of this connection has finished.
+     *
+     * @return true if the game has finished, false otherwise
+     */
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Records that the connection has been closed, ending the game if it is still being played.
+     */
+    void closed() {
+        closed = true;
+        output.clear();
+        if (!finished) {
+            //called on the selector thread, which has no session to look up the quit command in
+            inbox.add(CONNECTION_CLOSED);
+        }
+    }
+
+    /**
+     * Sets the selection key of the connection.
+     *
+     * @param key  the key the connection is registered with, not null
+     */
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets the selection key of the connection.
+     *
+     * @return the key the connection is registered with, null until it is registered
+     */
+    SelectionKey getKey() {
+        return key;
+    }
+
+    /**
+     * Clears the request for the selector thread to write this interface's output,
+     * so that text printed after this makes a new request.
+     */
+    void clearFlushRequest() {
+        flushRequested.set(false);
+    }
+
+    /**
+     * Fills an array with the buffers of output to be written next, for a gathering write.
+     * <p>
+     * Buffers that were only partly written last time come first. Only called by the selector thread.
+     *
+     * @param buffers  the array to fill from index 0, not null
+     * @return the number of buffers put in the array, 0 if there is no output to write
+     */
+    int gatherOutput(ByteBuffer[] buffers) {
+        ByteBuffer next;
+        while (writing.size() < buffers.length && (next = output.poll()) != null) {
+            writing.add(next);
+        }
+
+        int count = 0;
+        for (ByteBuffer buffer : writing) {
+            buffers[count++] = buffer;
+        }
+        return count;
+    }
+
+    /**
+     * Discards the buffers of output that have been completely written.
+     * Only called by the selector thread.
+     *
+     * @return true if every gathered buffer has been written, false if some output is still waiting to be written
+     */
+    boolean releaseWrittenOutput() {
+        while (!writing.isEmpty() && !writing.peekFirst().hasRemaining()) {
+            writing.pollFirst();
+        }
+        return writing.isEmpty();
+    }
+
+    /**
+     * Frames received bytes into lines, adding each complete line to the inbox.
+     * <p>
+     * Telnet commands are removed, carriage returns are dropped and lines end at a line feed.
+     * Only called by the selector thread.
+     *
+     * @param received  the bytes received, read from its position to its limit, not null
+     */
+    void receive(ByteBuffer received) {
+        while (received.hasRemaining()) {
+            int b = received.get() & 0xFF;
+
+            switch (telnetState) {
+                case COMMAND:
+                    if (b == IAC) {
+                        //an escaped 255 data byte
+                        telnetState = TelnetState.DATA;
+                        append(b);
+                    } else if (b == SB) {
+                        telnetState = TelnetState.SUBNEGOTIATION;
+                    } else {
+                        telnetState = b >= WILL ? TelnetState.OPTION : TelnetState.DATA;
+                    }
+                    break;
+                case OPTION:
+                    telnetState = TelnetState.DATA;
+                    break;
+                case SUBNEGOTIATION:
+                    if (b == IAC) {
+                        telnetState = TelnetState.SUBNEGOTIATION_COMMAND;
+                    }
+                    break;
+                case SUBNEGOTIATION_COMMAND:
+                    telnetState = b == SE ? TelnetState.DATA : TelnetState.SUBNEGOTIATION;
+                    break;
+                default:
+                    if (b == IAC) {
+                        telnetState = TelnetState.COMMAND;
+                    } else if (b == '\n') {
+                        endLine();
+                    } else if (b != '\r' && b != 0) {
+                        append(b);
+                    }
+            }
+        }
+    }
+
+    /**
+     * Adds a byte to the line being received, discarding it if the line is too long.
+     *
+     * @param b  the byte to add
+     */
+    private void append(int b) {
+        if (!lineBuffer.hasRemaining()) {
+            discardingLine = true;
+        }
+
+        if (!discardingLine) {
+            lineBuffer.put((byte) b);
+        }
+    }
+
+    /**
+     * Adds the line received to the inbox and clears the line buffer for the next one.
+     */
+    private void endLine() {
+        lineBuffer.flip();
+        inbox.add(CHARSET.decode(lineBuffer).toString());
+        lineBuffer.clear();
+        discardingLine = false;
+    }
+
+    /**
+     * Asks the selector thread to write this interface's output, unless it has already been asked.
+     */
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            server.requestFlush(this);
+        }
+    }
+
+    /**
+     * Gets the command word that quits the game in the current locale.
+     *
+     * @return the quit command word, not null
+     */
+    private static String quitCommand() {
+        return GameText.getString("CommandWordsBundle", "quit");
+    }
+}
@@ -0,0 +1,341 @@
+package zuul.io.userInterfaces;
+
+import zuul.GameSession;
+import zuul.GameText;
+import zuul.SessionRunner;
+import zuul.gameState.maps.Map;
+import zuul.gameState.maps.ZuulMap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A TCP server that gives each connection its own game for the "World of Zuul" application.
+ * <p>
+ * One thread runs a {@link Selector} that accepts connections, reads input and writes output for every connection.
+ * Each connection is given a {@link TelnetInterface} and a {@link GameSession}, played on a {@link SessionRunner},
+ * so the selector thread never waits for a game and a game never waits for the network.
+ * <p>
+ * Input is read into one reusable direct buffer and framed into lines by each connection's TelnetInterface.
+ * Output printed by a game is queued by its TelnetInterface, which asks this server to write it;
+ * the selector thread then writes all of a connection's queued output with gathering writes.
+ *
+ * @author Timothy Shelton
+ */
+public class TelnetServer implements Runnable, Closeable {
+
+    /**
+     * The size of the buffer bytes are read into, shared by every connection.
+     */
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /**
+     * The most buffers written by one gathering write.
+     */
+    private static final int MAX_GATHER = 64;
+
+    /**
+     * The selector of every channel of this server.
+     */
+    private final Selector selector;
+
+    /**
+     * The channel connections are accepted on.
+     */
+    private final ServerSocketChannel serverChannel;
+
+    /**
+     * The runner the game of each connection is played on.
+     */
+    private final SessionRunner runner;
+
+    /**
+     * Creates the map of each new connection's game.
+     */
+    private final Supplier<? extends Map> maps;
+
+    /**
+     * The buffer bytes are read into. Only used by the selector thread.
+     */
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+    /**
+     * The buffers of one gathering write. Only used by the selector thread.
+     */
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+
+    /**
+     * The interfaces with output waiting to be written.
+     */
+    private final Queue<TelnetInterface> flushRequests = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of open connections.
+     */
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    /**
+     * Cleared when this server is closed.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for a server that plays the default {@link ZuulMap} on a default {@link SessionRunner}.
+     *
+     * @param address  the address to listen on, not null
+     * @throws IOException  if the server cannot listen on the address
+     */
+    public TelnetServer(InetSocketAddress address) throws IOException {
+        this(address, new SessionRunner(), ZuulMap::new);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param address  the address to listen on, not null
+     * @param runner  the runner to play the game of each connection on, not null
+     * @param maps  creates a new map for each connection's game, not null
+     * @throws IOException  if the server cannot listen on the address
+     */
+    public TelnetServer(InetSocketAddress address, SessionRunner runner, Supplier<? extends Map> maps) throws IOException {
+        this.runner = runner;
+        this.maps = maps;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Gets the address this server is listening on.
+     *
+     * @return the local address of this server, not null
+     * @throws IOException  if the address cannot be read
+     */
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Gets the number of open connections.
+     *
+     * @return the number of players connected
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Runs the selector loop until this server is closed.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                writeRequestedOutput();
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println(GameText.getString("telnetStopped", new Object[]{e.getMessage()}));
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * Stops this server and closes every connection.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Asks the selector thread to write the queued output of the specified interface.
+     *
+     * @param userInterface  the interface with output to write, not null
+     */
+    void requestFlush(TelnetInterface userInterface) {
+        flushRequests.add(userInterface);
+        selector.wakeup();
+    }
+
+    /**
+     * Handles a selected key by accepting, reading or writing as it is ready to.
+     *
+     * @param key  the selected key, not null
+     * @throws IOException  if the server channel fails
+     */
+    private void handle(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+
+        try {
+            if (key.isReadable()) {
+                read(key);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(key);
+            }
+        } catch (IOException e) {
+            //the connection has failed, so end its game
+            disconnect(key);
+        }
+    }
+
+    /**
+     * Accepts a connection and starts its game.
+     *
+     * @throws IOException  if the server channel fails
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+
+        channel.configureBlocking(false);
+        TelnetInterface userInterface = new TelnetInterface(this);
+        userInterface.setKey(channel.register(selector, SelectionKey.OP_READ, userInterface));
+        connectionCount.incrementAndGet();
+
+        runner.start(new GameSession(maps.get(), userInterface), userInterface::finish);
+    }
+
+    /**
+     * Reads the bytes available on a connection and passes them to its interface to be framed into lines.
+     *
+     * @param key  the key of the connection, not null
+     * @throws IOException  if the connection fails
+     */
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+
+        readBuffer.clear();
+        if (channel.read(readBuffer) < 0) {
+            disconnect(key);
+            return;
+        }
+
+        readBuffer.flip();
+        ((TelnetInterface) key.attachment()).receive(readBuffer);
+    }
+
+    /**
+     * Writes the output of every interface that has asked for it to be written.
+     */
+    private void writeRequestedOutput() {
+        TelnetInterface userInterface;
+        while ((userInterface = flushRequests.poll()) != null) {
+            //clear the request first so that output printed from now on makes a new one
+            userInterface.clearFlushRequest();
+
+            SelectionKey key = userInterface.getKey();
+            if (key != null && key.isValid()) {
+                try {
+                    flush(key);
+                } catch (IOException e) {
+                    disconnect(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes as much of a connection's queued output as the connection will take,
+     * waiting to be told it is writable again if some is left.
+     * The connection is closed once its game has finished and all its output has been written.
+     *
+     * @param key  the key of the connection, not null
+     * @throws IOException  if the connection fails
+     */
+    private void flush(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        TelnetInterface userInterface = (TelnetInterface) key.attachment();
+
+        boolean allWritten = true;
+        int count;
+        while ((count = userInterface.gatherOutput(gather)) > 0) {
+            channel.write(gather, 0, count);
+            if (!userInterface.releaseWrittenOutput()) {
+                allWritten = false;
+                break;
+            }
+        }
+        Arrays.fill(gather, null);
+
+        if (!allWritten) {
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } else if (userInterface.isFinished()) {
+            disconnect(key);
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Closes a connection, ending its game if it is still being played.
+     *
+     * @param key  the key of the connection, not null
+     */
+    private void disconnect(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            //the connection is being discarded anyway
+        }
+
+        ((TelnetInterface) key.attachment()).closed();
+        connectionCount.decrementAndGet();
+    }
+
+    /**
+     * Closes every connection, the server channel and the selector.
+     */
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof TelnetInterface) {
+                disconnect(key);
+            }
+        }
+
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            //the server is stopping anyway
+        }
+    }
+}
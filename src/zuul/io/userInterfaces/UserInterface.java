@@ -56,6 +56,19 @@ public interface UserInterface {
      */
     void printNextln();
 
+    /**
+     * Handles requests to print a block of text collected by {@link zuul.io.Out},
+     * such as everything printed by one command.
+     * <p>
+     * Line breaks requested with {@link zuul.io.Out#println()} appear in the text as {@link System#lineSeparator()}.
+     * By default the block is printed with {@link #print}.
+     *
+     * @param text  the text requested to be printed to the player, not null
+     */
+    default void printBlock(String text) {
+        print(text);
+    }
+
     /**
      * Handles requests for player input.
      *